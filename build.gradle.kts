@@ -43,6 +43,10 @@ dependencies {
     runtimeOnly("org.lwjgl:lwjgl-nanovg:$lwjglVersion:natives-linux-arm64")
     runtimeOnly("org.lwjgl:lwjgl-stb:$lwjglVersion:natives-linux-arm64")
     runtimeOnly("org.lwjgl:lwjgl-sdl:$lwjglVersion:natives-linux-arm64")
+
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 application {
@@ -55,6 +59,10 @@ java {
     }
 }
 
+tasks.test {
+    useJUnitPlatform()
+}
+
 tasks.withType<Jar> {
     manifest {
         attributes["Main-Class"] = "com.jembedui.examples.ComprehensiveExample"
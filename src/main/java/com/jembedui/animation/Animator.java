@@ -0,0 +1,186 @@
+package com.jembedui.animation;
+
+import java.util.Arrays;
+
+/**
+ * Tween engine that keeps every active float channel in parallel primitive arrays.
+ * <p>
+ * Each tween animates one float from a start to an end value over a duration with
+ * an easing curve, and writes the result to a {@link FloatTarget} once per
+ * {@link #update(float)}. Ticking does not allocate; arrays only grow when more
+ * tweens run at once than ever before. A tween is identified by an owner object
+ * and a channel number, and starting a tween on a busy channel replaces the
+ * running one (for example, four channels of the same owner for RGBA). Owners
+ * that implement {@link TweenOwner} are told as their tweens start and end.
+ */
+public final class Animator {
+
+    private int count = 0;
+    private Object[] owners = new Object[16];
+    private int[] channels = new int[16];
+    private FloatTarget[] targets = new FloatTarget[16];
+    private float[] from = new float[16];
+    private float[] to = new float[16];
+    private float[] duration = new float[16];
+    private float[] elapsed = new float[16];
+    private int[] easings = new int[16];
+
+    // Index being ticked while update() runs, so callbacks can restart their own tween
+    private int updatingIndex = -1;
+    private boolean updatingRestarted = false;
+
+    /**
+     * Animates a single-channel target; the target itself is the owner.
+     */
+    public void animate(FloatTarget target, float from, float to, float durationSeconds, int easing) {
+        animate(target, 0, target, from, to, durationSeconds, easing);
+    }
+
+    /**
+     * Animates one channel of {@code owner}, replacing any tween already running on it.
+     */
+    public void animate(Object owner, int channel, FloatTarget target,
+                        float from, float to, float durationSeconds, int easing) {
+        int index = indexOf(owner, channel);
+        if (index < 0) {
+            ensureCapacity(count + 1);
+            index = count++;
+            owners[index] = owner;
+            channels[index] = channel;
+            countTween(owner, 1);
+        } else if (index == updatingIndex) {
+            updatingRestarted = true;
+        }
+        targets[index] = target;
+        this.from[index] = from;
+        this.to[index] = to;
+        this.duration[index] = Math.max(0, durationSeconds);
+        this.elapsed[index] = 0;
+        this.easings[index] = easing;
+    }
+
+    public boolean isAnimating(Object owner, int channel) {
+        return indexOf(owner, channel) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void cancel(Object owner, int channel) {
+        int index = indexOf(owner, channel);
+        if (index >= 0) {
+            // Cleared slots are compacted away by the next update
+            countTween(owner, -1);
+            owners[index] = null;
+            targets[index] = null;
+        }
+    }
+
+    public void cancelAll(Object owner) {
+        for (int i = 0; i < count; i++) {
+            if (owners[i] == owner) {
+                if (targets[i] != null) {
+                    countTween(owner, -1);
+                }
+                owners[i] = null;
+                targets[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Advances every tween and writes the new values to their targets.
+     * Finished and cancelled tweens are compacted out in the same pass.
+     */
+    public void update(float deltaTime) {
+        int end = count;
+        int write = 0;
+        for (int read = 0; read < end; read++) {
+            FloatTarget target = targets[read];
+            if (target == null) continue;
+
+            float t = elapsed[read] + deltaTime;
+            float d = duration[read];
+            float progress = (d <= 0 || t >= d) ? 1 : t / d;
+            float value = from[read] + (to[read] - from[read]) * Easing.apply(easings[read], progress);
+            elapsed[read] = t;
+
+            updatingIndex = read;
+            updatingRestarted = false;
+            target.set(value);
+            updatingIndex = -1;
+
+            // A tween cancelled from its callback was already counted out
+            boolean cancelled = targets[read] == null;
+            if (!cancelled && (progress < 1 || updatingRestarted)) {
+                if (write != read) move(read, write);
+                write++;
+            } else {
+                if (!cancelled) {
+                    countTween(owners[read], -1);
+                }
+                clear(read);
+            }
+        }
+        // Tweens started from callbacks were appended after the scanned range
+        for (int read = end; read < count; read++) {
+            if (targets[read] != null) {
+                if (write != read) move(read, write);
+                write++;
+            } else {
+                clear(read);
+            }
+        }
+        count = write;
+    }
+
+    private static void countTween(Object owner, int delta) {
+        if (owner instanceof TweenOwner counted) {
+            counted.tweenCountChanged(delta);
+        }
+    }
+
+    private int indexOf(Object owner, int channel) {
+        for (int i = 0; i < count; i++) {
+            if (owners[i] == owner && channels[i] == channel && targets[i] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void move(int src, int dst) {
+        owners[dst] = owners[src];
+        channels[dst] = channels[src];
+        targets[dst] = targets[src];
+        from[dst] = from[src];
+        to[dst] = to[src];
+        duration[dst] = duration[src];
+        elapsed[dst] = elapsed[src];
+        easings[dst] = easings[src];
+        clear(src);
+    }
+
+    private void clear(int index) {
+        owners[index] = null;
+        targets[index] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= targets.length) return;
+        int size = Math.max(capacity, targets.length * 2);
+        owners = Arrays.copyOf(owners, size);
+        channels = Arrays.copyOf(channels, size);
+        targets = Arrays.copyOf(targets, size);
+        from = Arrays.copyOf(from, size);
+        to = Arrays.copyOf(to, size);
+        duration = Arrays.copyOf(duration, size);
+        elapsed = Arrays.copyOf(elapsed, size);
+        easings = Arrays.copyOf(easings, size);
+    }
+}
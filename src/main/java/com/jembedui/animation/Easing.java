@@ -0,0 +1,48 @@
+package com.jembedui.animation;
+
+/**
+ * Easing curves, identified by int ids so tweens can store them in primitive arrays.
+ */
+public final class Easing {
+
+    public static final int LINEAR = 0;
+    public static final int EASE_IN_QUAD = 1;
+    public static final int EASE_OUT_QUAD = 2;
+    public static final int EASE_IN_OUT_QUAD = 3;
+    public static final int EASE_IN_CUBIC = 4;
+    public static final int EASE_OUT_CUBIC = 5;
+    public static final int EASE_IN_OUT_CUBIC = 6;
+    public static final int EASE_OUT_BACK = 7;
+    public static final int STEP = 8;
+
+    private Easing() {
+    }
+
+    /**
+     * Maps linear progress {@code t} in [0, 1] through the given curve.
+     */
+    public static float apply(int easing, float t) {
+        return switch (easing) {
+            case EASE_IN_QUAD -> t * t;
+            case EASE_OUT_QUAD -> t * (2 - t);
+            case EASE_IN_OUT_QUAD -> t < 0.5f ? 2 * t * t : -1 + (4 - 2 * t) * t;
+            case EASE_IN_CUBIC -> t * t * t;
+            case EASE_OUT_CUBIC -> {
+                float u = t - 1;
+                yield u * u * u + 1;
+            }
+            case EASE_IN_OUT_CUBIC -> {
+                if (t < 0.5f) yield 4 * t * t * t;
+                float u = 2 * t - 2;
+                yield 0.5f * u * u * u + 1;
+            }
+            case EASE_OUT_BACK -> {
+                float s = 1.70158f;
+                float u = t - 1;
+                yield u * u * ((s + 1) * u + s) + 1;
+            }
+            case STEP -> t < 1 ? 0 : 1;
+            default -> t;
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.jembedui.animation;
+
+/**
+ * Receives the animated value of one float channel each frame.
+ */
+@FunctionalInterface
+public interface FloatTarget {
+    void set(float value);
+}
@@ -0,0 +1,12 @@
+package com.jembedui.animation;
+
+/**
+ * Tween owner that keeps count of its running tweens.
+ * <p>
+ * {@link Animator} reports every tween it starts for such an owner as {@code +1}
+ * and every one that finishes or is cancelled as {@code -1}, so an owner with
+ * none running can skip {@link Animator#cancelAll(Object)}, which scans all tweens.
+ */
+public interface TweenOwner {
+    void tweenCountChanged(int delta);
+}
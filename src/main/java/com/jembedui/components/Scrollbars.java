@@ -0,0 +1,67 @@
+package com.jembedui.components;
+
+import com.jembedui.render.NVGRenderer;
+import com.jembedui.style.Color;
+
+/**
+ * Scrollbar geometry and drawing shared by the scrolling components.
+ * <p>
+ * A scrollbar is a track spanning the scrolled edge and a thumb sized to the visible
+ * share of the content, never shorter than {@link #MIN_THUMB}. The track may be
+ * shorter than the viewport, as in a grid whose header does not scroll.
+ */
+public final class Scrollbars {
+
+    /** Distance scrolled per wheel notch. */
+    public static final float SCROLL_STEP = 20;
+    /** Thickness of a scrollbar. */
+    public static final float WIDTH = 8;
+    /** Shortest a thumb gets, so it stays easy to grab. */
+    public static final float MIN_THUMB = 20;
+
+    private static final float RADIUS = 4;
+    private static final int THUMB_COLOR = Color.pack(0.4f, 0.4f, 0.4f, 0.7f);
+    private static final int TRACK_COLOR = Color.pack(0.2f, 0.2f, 0.2f, 0.3f);
+
+    private Scrollbars() {}
+
+    /**
+     * Draws a vertical scrollbar whose track starts at ({@code x}, {@code y}) and is
+     * {@code trackHeight} tall. Draws nothing when the content fits the viewport.
+     */
+    public static void drawVertical(NVGRenderer renderer, float x, float y, float trackHeight,
+                                    double viewHeight, double contentHeight, double scroll) {
+        if (contentHeight <= viewHeight) return;
+        float thumbHeight = thumbLength(trackHeight, viewHeight, contentHeight);
+        float thumbY = thumbOffset(trackHeight, thumbHeight, viewHeight, contentHeight, scroll);
+        renderer.drawRect(x, y, WIDTH, trackHeight, TRACK_COLOR, RADIUS);
+        renderer.drawRect(x, y + thumbY, WIDTH, thumbHeight, THUMB_COLOR, RADIUS);
+    }
+
+    /**
+     * Draws a horizontal scrollbar whose track starts at ({@code x}, {@code y}) and is
+     * {@code trackWidth} wide. Draws nothing when the content fits the viewport.
+     */
+    public static void drawHorizontal(NVGRenderer renderer, float x, float y, float trackWidth,
+                                      double viewWidth, double contentWidth, double scroll) {
+        if (contentWidth <= viewWidth) return;
+        float thumbWidth = thumbLength(trackWidth, viewWidth, contentWidth);
+        float thumbX = thumbOffset(trackWidth, thumbWidth, viewWidth, contentWidth, scroll);
+        renderer.drawRect(x, y, trackWidth, WIDTH, TRACK_COLOR, RADIUS);
+        renderer.drawRect(x + thumbX, y, thumbWidth, WIDTH, THUMB_COLOR, RADIUS);
+    }
+
+    /**
+     * Returns the thumb length for a track showing {@code view} of {@code content}.
+     */
+    public static float thumbLength(float track, double view, double content) {
+        return (float) Math.max(MIN_THUMB, view / content * track);
+    }
+
+    /**
+     * Returns the thumb's offset from the start of the track for the given scroll position.
+     */
+    public static float thumbOffset(float track, float thumb, double view, double content, double scroll) {
+        return (float) (scroll / (content - view) * (track - thumb));
+    }
+}
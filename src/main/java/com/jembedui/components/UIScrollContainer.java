@@ -3,7 +3,6 @@ package com.jembedui.components;
 import com.jembedui.core.UIContainer;
 import com.jembedui.events.MouseEvent;
 import com.jembedui.render.NVGRenderer;
-import com.jembedui.style.Color;
 
 /**
  * Scrollable container with scrollbars.
@@ -29,7 +28,7 @@ public class UIScrollContainer extends UIContainer {
     
     private void handleMouseEvent(MouseEvent event) {
         if (event.getEventType() == MouseEvent.MouseEventType.MOUSE_WHEEL) {
-            scrollY += event.getWheelDeltaY() * 20;
+            scrollY += event.getWheelDeltaY() * Scrollbars.SCROLL_STEP;
             scrollY = Math.max(0, Math.min(scrollY, Math.max(0, contentHeight - height)));
             markDirty();
         }
@@ -61,8 +60,13 @@ public class UIScrollContainer extends UIContainer {
     @Override
     public void layout() {
         super.layout();
-        
-        // Calculate content size
+        updateContentSize();
+    }
+    
+    /**
+     * Recomputes the scrollable extent from the children's current bounds.
+     */
+    public void updateContentSize() {
         contentWidth = 0;
         contentHeight = 0;
         for (var child : children) {
@@ -109,39 +113,9 @@ public class UIScrollContainer extends UIContainer {
     }
     
     private void drawScrollbars(NVGRenderer renderer) {
-        Color scrollbarColor = new Color(0.4f, 0.4f, 0.4f, 0.7f);
-        Color trackColor = new Color(0.2f, 0.2f, 0.2f, 0.3f);
-        
-        float scrollbarWidth = 8;
         float ax = getAbsoluteX();
         float ay = getAbsoluteY();
-        
-        // Vertical scrollbar
-        if (contentHeight > height) {
-            float trackHeight = height;
-            float thumbHeight = Math.max(20, (height / contentHeight) * trackHeight);
-            float thumbY = (scrollY / (contentHeight - height)) * (trackHeight - thumbHeight);
-            
-            // Draw track
-            renderer.drawRect(ax + width - scrollbarWidth, ay, scrollbarWidth, trackHeight, trackColor, 4);
-            
-            // Draw thumb
-            renderer.drawRect(ax + width - scrollbarWidth, ay + thumbY, scrollbarWidth, thumbHeight, 
-                            scrollbarColor, 4);
-        }
-        
-        // Horizontal scrollbar
-        if (contentWidth > width) {
-            float trackWidth = width;
-            float thumbWidth = Math.max(20, (width / contentWidth) * trackWidth);
-            float thumbX = (scrollX / (contentWidth - width)) * (trackWidth - thumbWidth);
-            
-            // Draw track
-            renderer.drawRect(ax, ay + height - scrollbarWidth, trackWidth, scrollbarWidth, trackColor, 4);
-            
-            // Draw thumb
-            renderer.drawRect(ax + thumbX, ay + height - scrollbarWidth, thumbWidth, scrollbarWidth, 
-                            scrollbarColor, 4);
-        }
+        Scrollbars.drawVertical(renderer, ax + width - Scrollbars.WIDTH, ay, height, height, contentHeight, scrollY);
+        Scrollbars.drawHorizontal(renderer, ax, ay + height - Scrollbars.WIDTH, width, width, contentWidth, scrollX);
     }
 }
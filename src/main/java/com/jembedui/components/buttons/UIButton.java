@@ -2,9 +2,12 @@ package com.jembedui.components.buttons;
 
 import com.jembedui.core.UIBaseElement;
 import com.jembedui.events.MouseEvent;
+import com.jembedui.render.EncodedText;
 import com.jembedui.render.NVGRenderer;
 import com.jembedui.style.Color;
 
+import java.nio.ByteBuffer;
+
 import static org.lwjgl.nanovg.NanoVG.*;
 
 /**
@@ -13,6 +16,7 @@ import static org.lwjgl.nanovg.NanoVG.*;
 public class UIButton extends UIBaseElement {
     
     private String label = "Button";
+    private final EncodedText encodedLabel = new EncodedText();
     private boolean hovered = false;
     private boolean pressed = false;
     private Runnable onClickHandler;
@@ -22,6 +26,14 @@ public class UIButton extends UIBaseElement {
     private Color pressedColor = new Color(0.2f, 0.2f, 0.25f);
     private Color disabledColor = new Color(0.2f, 0.2f, 0.2f);
     
+    private static final int BORDER_COLOR = Color.pack(0.5f, 0.5f, 0.5f);
+    private static final int DISABLED_BORDER_COLOR = Color.pack(0.3f, 0.3f, 0.3f);
+    private static final int DISABLED_TEXT_COLOR = Color.pack(0.4f, 0.4f, 0.4f);
+    
+    // Space around the label when auto-sized, in addition to style padding
+    private static final float AUTO_SIZE_INSET_X = 12;
+    private static final float AUTO_SIZE_INSET_Y = 8;
+    
     public UIButton() {
         super();
         setupEventHandlers();
@@ -76,9 +88,17 @@ public class UIButton extends UIBaseElement {
         return label;
     }
     
+    /**
+     * Returns the label as UTF-8 for the renderer, encoded again only after it changes.
+     */
+    protected ByteBuffer getEncodedLabel() {
+        return encodedLabel.encode(label);
+    }
+    
     public void setLabel(String label) {
         this.label = label;
         markDirty();
+        invalidateMeasure();
     }
     
     public void setOnClick(Runnable handler) {
@@ -100,6 +120,30 @@ public class UIButton extends UIBaseElement {
         markDirty();
     }
     
+    @Override
+    protected void onMeasure(float availableWidth, float availableHeight) {
+        if (!isAutoSize()) {
+            super.onMeasure(availableWidth, availableHeight);
+            return;
+        }
+        float fontSize = style.getFontSize();
+        setMeasuredSize(measureTextWidth(label, fontSize) + 2 * AUTO_SIZE_INSET_X
+                            + style.getPaddingLeft() + style.getPaddingRight(),
+                        fontSize + 2 * AUTO_SIZE_INSET_Y + style.getPaddingTop() + style.getPaddingBottom());
+    }
+    
+    public Color getNormalColor() {
+        return normalColor;
+    }
+    
+    public Color getHoverColor() {
+        return hoverColor;
+    }
+    
+    public Color getPressedColor() {
+        return pressedColor;
+    }
+    
     @Override
     public void render(NVGRenderer renderer) {
         if (!visible) return;
@@ -120,18 +164,18 @@ public class UIButton extends UIBaseElement {
         renderer.drawRect(getAbsoluteX(), getAbsoluteY(), width, height, bgColor, 4);
         
         // Draw border
-        Color borderColor = enabled ? new Color(0.5f, 0.5f, 0.5f) : new Color(0.3f, 0.3f, 0.3f);
+        int borderColor = enabled ? BORDER_COLOR : DISABLED_BORDER_COLOR;
         renderer.drawRectOutline(getAbsoluteX(), getAbsoluteY(), width, height, 1, borderColor, 4);
         
         // Draw label
         float fontSize = style.getFontSize();
-        Color textColor = enabled ? style.getForegroundColor() : new Color(0.4f, 0.4f, 0.4f);
+        int textColor = enabled ? style.getForegroundRGBA() : DISABLED_TEXT_COLOR;
         
         // Center the text
         float textX = getAbsoluteX() + width / 2;
         float textY = getAbsoluteY() + height / 2;
 
-        renderer.drawText(textX, textY, label, "default", fontSize, textColor,
+        renderer.drawText(textX, textY, getEncodedLabel(), "default", fontSize, textColor,
                          NVG_ALIGN_CENTER | NVG_ALIGN_MIDDLE);
 
         markClean();
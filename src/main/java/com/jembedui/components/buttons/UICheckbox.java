@@ -8,6 +8,14 @@ import com.jembedui.style.Color;
  */
 public class UICheckbox extends UIButton {
     
+    // Shared with UIRadioButton
+    static final int BOX_COLOR = Color.WHITE.rgba();
+    static final int DISABLED_BOX_COLOR = Color.pack(0.7f, 0.7f, 0.7f);
+    static final int BOX_BORDER_COLOR = Color.pack(0.5f, 0.5f, 0.5f);
+    static final int DISABLED_COLOR = Color.pack(0.4f, 0.4f, 0.4f);
+    static final int CHECK_COLOR = Color.pack(0.2f, 0.6f, 0.8f);
+    static final int DISABLED_TEXT_COLOR = Color.pack(0.5f, 0.5f, 0.5f);
+    
     private boolean checked = false;
     
     public UICheckbox() {
@@ -31,21 +39,27 @@ public class UICheckbox extends UIButton {
         markDirty();
     }
     
+    @Override
+    protected void onMeasure(float availableWidth, float availableHeight) {
+        // The label is drawn beside the box, so the box keeps its natural size
+        setMeasuredSize(getNaturalWidth(), getNaturalHeight());
+    }
+    
     @Override
     public void render(NVGRenderer renderer) {
         if (!visible) return;
         
         // Draw checkbox background
-        Color bgColor = isEnabled() ? Color.WHITE : new Color(0.7f, 0.7f, 0.7f);
+        int bgColor = isEnabled() ? BOX_COLOR : DISABLED_BOX_COLOR;
         renderer.drawRect(getAbsoluteX(), getAbsoluteY(), getWidth(), getHeight(), bgColor, 2);
         
         // Draw border
-        Color borderColor = isEnabled() ? new Color(0.5f, 0.5f, 0.5f) : new Color(0.4f, 0.4f, 0.4f);
+        int borderColor = isEnabled() ? BOX_BORDER_COLOR : DISABLED_COLOR;
         renderer.drawRectOutline(getAbsoluteX(), getAbsoluteY(), getWidth(), getHeight(), 1, borderColor, 2);
         
         // Draw check mark if checked
         if (checked) {
-            Color checkColor = isEnabled() ? new Color(0.2f, 0.6f, 0.8f) : new Color(0.4f, 0.4f, 0.4f);
+            int checkColor = isEnabled() ? CHECK_COLOR : DISABLED_COLOR;
             float margin = 4;
             renderer.drawLine(getAbsoluteX() + margin, getAbsoluteY() + getHeight() / 2,
                             getAbsoluteX() + getWidth() / 2, getAbsoluteY() + getHeight() - margin,
@@ -58,10 +72,10 @@ public class UICheckbox extends UIButton {
         // Draw label if present
         if (!getLabel().isEmpty()) {
             float fontSize = getStyle().getFontSize();
-            Color textColor = isEnabled() ? getStyle().getForegroundColor() : new Color(0.5f, 0.5f, 0.5f);
+            int textColor = isEnabled() ? getStyle().getForegroundRGBA() : DISABLED_TEXT_COLOR;
             renderer.drawText(getAbsoluteX() + getWidth() + 5, 
                             getAbsoluteY() + getHeight() / 2,
-                            getLabel(), "default", fontSize, textColor,
+                            getEncodedLabel(), "default", fontSize, textColor,
                             org.lwjgl.nanovg.NanoVG.NVG_ALIGN_LEFT | org.lwjgl.nanovg.NanoVG.NVG_ALIGN_MIDDLE);
         }
         
@@ -1,5 +1,7 @@
 package com.jembedui.components.buttons;
 
+import com.jembedui.animation.Easing;
+import com.jembedui.animation.FloatTarget;
 import com.jembedui.core.UIBaseElement;
 import com.jembedui.render.NVGRenderer;
 import com.jembedui.style.Color;
@@ -9,9 +11,12 @@ import com.jembedui.style.Color;
  */
 public class UIProgressBar extends UIBaseElement {
     
+    private static final int BORDER_COLOR = Color.pack(0.5f, 0.5f, 0.5f);
+    
     private float progress = 0.5f;  // 0.0 to 1.0
     private Color barColor = new Color(0.2f, 0.6f, 0.8f);
     private Color backgroundColor = new Color(0.2f, 0.2f, 0.2f);
+    private final FloatTarget progressTarget = this::setProgress;
     
     public UIProgressBar() {
         super();
@@ -28,11 +33,29 @@ public class UIProgressBar extends UIBaseElement {
         markDirty();
     }
     
+    /**
+     * Eases the bar from its current value to {@code progress} over the given time.
+     * Falls back to {@link #setProgress(float)} while the bar is not attached to a context.
+     */
+    public void animateProgress(float progress, float durationSeconds) {
+        float target = Math.max(0, Math.min(1, progress));
+        if (getContext() == null) {
+            setProgress(target);
+            return;
+        }
+        getContext().getAnimator().animate(this, 0, progressTarget, this.progress, target,
+                                           durationSeconds, Easing.EASE_OUT_CUBIC);
+    }
+    
     public void setBarColor(Color color) {
         this.barColor = color;
         markDirty();
     }
     
+    public Color getBarColor() {
+        return barColor;
+    }
+    
     @Override
     public void render(NVGRenderer renderer) {
         if (!visible) return;
@@ -49,7 +72,7 @@ public class UIProgressBar extends UIBaseElement {
         }
         
         // Draw border
-        renderer.drawRectOutline(ax, ay, width, height, 1, new Color(0.5f, 0.5f, 0.5f), 4);
+        renderer.drawRectOutline(ax, ay, width, height, 1, BORDER_COLOR, 4);
         
         markClean();
     }
@@ -1,7 +1,6 @@
 package com.jembedui.components.buttons;
 
 import com.jembedui.render.NVGRenderer;
-import com.jembedui.style.Color;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +33,10 @@ public class UIRadioButton extends UICheckbox {
         super.setChecked(checked);
     }
     
+    public String getGroupName() {
+        return groupName;
+    }
+    
     private void setCheckedInternal(boolean checked) {
         super.setChecked(checked);
     }
@@ -59,26 +62,26 @@ public class UIRadioButton extends UICheckbox {
         float radius = Math.min(getWidth(), getHeight()) / 2;
         
         // Draw outer circle
-        Color bgColor = isEnabled() ? Color.WHITE : new Color(0.7f, 0.7f, 0.7f);
+        int bgColor = isEnabled() ? BOX_COLOR : DISABLED_BOX_COLOR;
         renderer.drawCircle(cx, cy, radius, bgColor);
         
         // Draw border
-        Color borderColor = isEnabled() ? new Color(0.5f, 0.5f, 0.5f) : new Color(0.4f, 0.4f, 0.4f);
+        int borderColor = isEnabled() ? BOX_BORDER_COLOR : DISABLED_COLOR;
         renderer.drawCircleOutline(cx, cy, radius, 1, borderColor);
         
         // Draw inner circle if checked
         if (isChecked()) {
-            Color checkColor = isEnabled() ? new Color(0.2f, 0.6f, 0.8f) : new Color(0.4f, 0.4f, 0.4f);
+            int checkColor = isEnabled() ? CHECK_COLOR : DISABLED_COLOR;
             renderer.drawCircle(cx, cy, radius * 0.6f, checkColor);
         }
         
         // Draw label if present
         if (!getLabel().isEmpty()) {
             float fontSize = getStyle().getFontSize();
-            Color textColor = isEnabled() ? getStyle().getForegroundColor() : new Color(0.5f, 0.5f, 0.5f);
+            int textColor = isEnabled() ? getStyle().getForegroundRGBA() : DISABLED_TEXT_COLOR;
             renderer.drawText(getAbsoluteX() + getWidth() + 5, 
                             getAbsoluteY() + getHeight() / 2,
-                            getLabel(), "default", fontSize, textColor,
+                            getEncodedLabel(), "default", fontSize, textColor,
                             org.lwjgl.nanovg.NanoVG.NVG_ALIGN_LEFT | org.lwjgl.nanovg.NanoVG.NVG_ALIGN_MIDDLE);
         }
         
@@ -14,6 +14,14 @@ public class UISlider extends UIBaseElement {
         HORIZONTAL, VERTICAL
     }
     
+    private static final int TRACK_COLOR = Color.pack(0.2f, 0.2f, 0.2f);
+    private static final int FILL_COLOR = Color.pack(0.2f, 0.6f, 0.8f);
+    private static final int FILL_HOVER_COLOR = Color.pack(0.3f, 0.7f, 0.9f);
+    private static final int THUMB_COLOR = Color.pack(0.3f, 0.7f, 0.9f);
+    private static final int THUMB_HOVER_COLOR = Color.pack(0.4f, 0.8f, 1.0f);
+    private static final int DISABLED_THUMB_COLOR = Color.pack(0.4f, 0.4f, 0.4f);
+    private static final int THUMB_OUTLINE_COLOR = Color.WHITE.rgba();
+    
     private Orientation orientation = Orientation.HORIZONTAL;
     private float value = 0.5f;  // 0.0 to 1.0
     private float minValue = 0.0f;
@@ -126,6 +134,18 @@ public class UISlider extends UIBaseElement {
         this.maxValue = max;
     }
     
+    public float getMinValue() {
+        return minValue;
+    }
+    
+    public float getMaxValue() {
+        return maxValue;
+    }
+    
+    public Orientation getOrientation() {
+        return orientation;
+    }
+    
     public void setOnChange(Runnable handler) {
         this.onChangeHandler = handler;
     }
@@ -218,7 +238,7 @@ public class UISlider extends UIBaseElement {
         float ay = getAbsoluteY();
         
         // Draw track
-        Color trackColor = new Color(0.2f, 0.2f, 0.2f);
+        int trackColor = TRACK_COLOR;
         if (orientation == Orientation.HORIZONTAL) {
             renderer.drawRect(ax, ay + height / 2 - 2, width, 4, trackColor, 2);
         } else {
@@ -226,7 +246,7 @@ public class UISlider extends UIBaseElement {
         }
         
         // Draw filled portion with hover feedback
-        Color fillColor = hovered ? new Color(0.3f, 0.7f, 0.9f) : new Color(0.2f, 0.6f, 0.8f);
+        int fillColor = hovered ? FILL_HOVER_COLOR : FILL_COLOR;
         if (orientation == Orientation.HORIZONTAL) {
             renderer.drawRect(ax, ay + height / 2 - 2, width * value, 4, fillColor, 2);
         } else {
@@ -236,16 +256,15 @@ public class UISlider extends UIBaseElement {
         
         // Draw thumb with hover and dragging feedback
         float thumbSize = (hovered || dragging) ? 14 : 12;
-        Color thumbColor = enabled ? (hovered ? new Color(0.4f, 0.8f, 1.0f) : new Color(0.3f, 0.7f, 0.9f))
-                                   : new Color(0.4f, 0.4f, 0.4f);
+        int thumbColor = enabled ? (hovered ? THUMB_HOVER_COLOR : THUMB_COLOR) : DISABLED_THUMB_COLOR;
         if (orientation == Orientation.HORIZONTAL) {
             float thumbX = ax + width * value;
             renderer.drawCircle(thumbX, ay + height / 2, thumbSize / 2, thumbColor);
-            renderer.drawCircleOutline(thumbX, ay + height / 2, thumbSize / 2, (hovered || dragging) ? 2 : 1, Color.WHITE);
+            renderer.drawCircleOutline(thumbX, ay + height / 2, thumbSize / 2, (hovered || dragging) ? 2 : 1, THUMB_OUTLINE_COLOR);
         } else {
             float thumbY = ay + height - height * value;
             renderer.drawCircle(ax + width / 2, thumbY, thumbSize / 2, thumbColor);
-            renderer.drawCircleOutline(ax + width / 2, thumbY, thumbSize / 2, (hovered || dragging) ? 2 : 1, Color.WHITE);
+            renderer.drawCircleOutline(ax + width / 2, thumbY, thumbSize / 2, (hovered || dragging) ? 2 : 1, THUMB_OUTLINE_COLOR);
         }
         
         markClean();
@@ -8,6 +8,9 @@ import com.jembedui.style.Color;
  */
 public class UIToggleButton extends UIButton {
     
+    private static final int DISABLED_COLOR = Color.pack(0.2f, 0.2f, 0.2f);
+    private static final int TOGGLED_BORDER_COLOR = Color.pack(0.3f, 0.8f, 1.0f);
+    
     private boolean toggled = false;
     private Color toggledColor = new Color(0.2f, 0.6f, 0.8f);
     private Color toggledHoverColor = new Color(0.3f, 0.7f, 0.9f);
@@ -39,16 +42,20 @@ public class UIToggleButton extends UIButton {
         markDirty();
     }
     
+    public Color getToggledColor() {
+        return toggledColor;
+    }
+    
     @Override
     public void render(NVGRenderer renderer) {
         if (!visible) return;
         
         // Determine button color based on state
-        Color bgColor;
+        int bgColor;
         if (!isEnabled()) {
-            bgColor = new Color(0.2f, 0.2f, 0.2f);
+            bgColor = DISABLED_COLOR;
         } else if (toggled) {
-            bgColor = toggledColor;
+            bgColor = toggledColor.rgba();
         } else {
             return; // Use parent rendering for non-toggled state
         }
@@ -57,15 +64,15 @@ public class UIToggleButton extends UIButton {
         if (toggled) {
             renderer.drawRect(getAbsoluteX(), getAbsoluteY(), getWidth(), getHeight(), bgColor, 4);
             renderer.drawRectOutline(getAbsoluteX(), getAbsoluteY(), getWidth(), getHeight(), 
-                                    2, new Color(0.3f, 0.8f, 1.0f), 4);
+                                    2, TOGGLED_BORDER_COLOR, 4);
             
             float fontSize = getStyle().getFontSize();
-            Color textColor = Color.WHITE;
+            int textColor = Color.WHITE.rgba();
             
             float textX = getAbsoluteX() + getWidth() / 2;
             float textY = getAbsoluteY() + getHeight() / 2;
 
-            renderer.drawText(textX, textY, getLabel(), "default", fontSize, textColor,
+            renderer.drawText(textX, textY, getEncodedLabel(), "default", fontSize, textColor,
                              org.lwjgl.nanovg.NanoVG.NVG_ALIGN_CENTER | org.lwjgl.nanovg.NanoVG.NVG_ALIGN_MIDDLE);
             markClean();
         } else {
@@ -0,0 +1,277 @@
+package com.jembedui.components.chart;
+
+import com.jembedui.style.Color;
+
+import java.util.Arrays;
+
+/**
+ * One line of a {@link UIChart}: a ring of equally spaced samples and how to draw them.
+ * <p>
+ * Append from the UI thread. Appending is O(1); the chart reduces the retained
+ * samples to a few points per pixel column when it draws, so a series can hold
+ * a million samples.
+ */
+public final class ChartSeries {
+
+    private final UIChart chart;
+    private final String name;
+    private final FloatRingBuffer samples;
+    private Color color;
+    private float strokeWidth = 1.5f;
+    private boolean visible = true;
+
+    // Decimated output, as x (sample offset in the window) and y (value) pairs
+    float[] points = new float[0];
+    int pointCount = 0;
+
+    // Min/max of complete buckets, keyed by absolute bucket number, so appends only scan new samples
+    private int cacheSamplesPerBucket = 0;
+    private long[] cachedBucket = new long[0];
+    private float[] cachedFirst = new float[0];
+    private float[] cachedSecond = new float[0];
+    private long[] cachedFirstIndex = new long[0];
+    private long[] cachedSecondIndex = new long[0];
+
+    // Result of the last bucket scan
+    private float first;
+    private float second;
+    private long firstIndex;
+    private long secondIndex;
+
+    ChartSeries(UIChart chart, String name, Color color, int capacity) {
+        this.chart = chart;
+        this.name = name;
+        this.color = color;
+        this.samples = new FloatRingBuffer(capacity);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FloatRingBuffer getSamples() {
+        return samples;
+    }
+
+    public void append(float value) {
+        samples.add(value);
+        chart.requestRedraw();
+    }
+
+    public void appendAll(float[] values, int offset, int count) {
+        samples.addAll(values, offset, count);
+        chart.requestRedraw();
+    }
+
+    public void clear() {
+        samples.clear();
+        chart.seriesChanged();
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setColor(Color color) {
+        this.color = color;
+        chart.seriesChanged();
+    }
+
+    public float getStrokeWidth() {
+        return strokeWidth;
+    }
+
+    public void setStrokeWidth(float strokeWidth) {
+        this.strokeWidth = strokeWidth;
+        chart.seriesChanged();
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        chart.seriesChanged();
+    }
+
+    // Decimation
+
+    /**
+     * Reduces the newest {@code window} samples to at most about {@code 2 * columns} points.
+     */
+    void decimate(int window, int columns, UIChart.Decimation mode) {
+        int visibleCount = Math.min(window, samples.size());
+        // LTTB picks from a min/max pre-pass four times finer than the output, which keeps it incremental
+        int buckets = mode == UIChart.Decimation.LTTB ? 4 * columns : columns;
+        if (visibleCount <= 2 * buckets) {
+            copySamples(visibleCount);
+        } else {
+            minMax(visibleCount, window, buckets);
+        }
+        if (mode == UIChart.Decimation.LTTB && pointCount > 2 * columns) {
+            largestTriangleThreeBuckets(2 * columns);
+        }
+    }
+
+    private void copySamples(int visibleCount) {
+        pointCount = 0;
+        ensurePoints(visibleCount);
+        int offset = samples.size() - visibleCount;
+        for (int i = 0; i < visibleCount; i++) {
+            addPoint(i, samples.get(offset + i));
+        }
+    }
+
+    // Keeps the lowest and highest sample of each bucket, in sample order
+    private void minMax(int visibleCount, int window, int buckets) {
+        // Buckets follow the window size rather than the fill level, so they stay put while the ring fills
+        int perBucket = (int) Math.ceil((double) window / buckets);
+        int slots = buckets + 2;
+        if (perBucket != cacheSamplesPerBucket || cachedBucket.length != slots) {
+            cacheSamplesPerBucket = perBucket;
+            cachedBucket = new long[slots];
+            Arrays.fill(cachedBucket, -1);
+            cachedFirst = new float[slots];
+            cachedSecond = new float[slots];
+            cachedFirstIndex = new long[slots];
+            cachedSecondIndex = new long[slots];
+        }
+
+        pointCount = 0;
+        long end = samples.getAppendedCount();
+        long start = end - visibleCount;
+        ensurePoints(2 * (int) ((end - 1) / perBucket - start / perBucket + 1));
+        for (long bucket = start / perBucket; bucket * perBucket < end; bucket++) {
+            long lo = Math.max(start, bucket * perBucket);
+            long hi = Math.min(end, (bucket + 1) * perBucket);
+            int slot = (int) (bucket % slots);
+            boolean complete = lo == bucket * perBucket && hi == (bucket + 1) * perBucket;
+            if (complete && cachedBucket[slot] == bucket) {
+                first = cachedFirst[slot];
+                second = cachedSecond[slot];
+                firstIndex = cachedFirstIndex[slot];
+                secondIndex = cachedSecondIndex[slot];
+            } else {
+                scan(lo, hi);
+                if (complete) {
+                    cachedBucket[slot] = bucket;
+                    cachedFirst[slot] = first;
+                    cachedSecond[slot] = second;
+                    cachedFirstIndex[slot] = firstIndex;
+                    cachedSecondIndex[slot] = secondIndex;
+                }
+            }
+            addPoint(firstIndex - start, first);
+            if (secondIndex != firstIndex) {
+                addPoint(secondIndex - start, second);
+            }
+        }
+    }
+
+    // Finds the extremes of absolute samples [lo, hi) and orders them by position
+    void scan(long lo, long hi) {
+        float[] ring = samples.array();
+        int slot = samples.slotOf((int) (lo - (samples.getAppendedCount() - samples.size())));
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        long minIndex = lo;
+        long maxIndex = lo;
+        for (long index = lo; index < hi; index++) {
+            float value = ring[slot];
+            if (value < min) {
+                min = value;
+                minIndex = index;
+            }
+            if (value > max) {
+                max = value;
+                maxIndex = index;
+            }
+            if (++slot == ring.length) slot = 0;
+        }
+        if (minIndex <= maxIndex) {
+            first = min;
+            firstIndex = minIndex;
+            second = max;
+            secondIndex = maxIndex;
+        } else {
+            first = max;
+            firstIndex = maxIndex;
+            second = min;
+            secondIndex = minIndex;
+        }
+    }
+
+    float scannedMin() {
+        return Math.min(first, second);
+    }
+
+    float scannedMax() {
+        return Math.max(first, second);
+    }
+
+    /**
+     * Largest-triangle-three-buckets over the current points, in place: keeps the
+     * {@code threshold} points that best preserve the line's shape.
+     */
+    private void largestTriangleThreeBuckets(int threshold) {
+        int count = pointCount;
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+
+        // Output point k is written at or before the first input of its bucket, so nothing unread is overwritten
+        float previousX = points[0];
+        float previousY = points[1];
+        int kept = 1;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third corner of the triangle
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(count, (int) ((bucket + 2) * bucketSize) + 1);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += points[i * 2];
+                averageY += points[i * 2 + 1];
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = (int) ((bucket + 1) * bucketSize) + 1;
+            double bestArea = -1;
+            float bestX = 0;
+            float bestY = 0;
+            for (int i = from; i < to; i++) {
+                float x = points[i * 2];
+                float y = points[i * 2 + 1];
+                double area = Math.abs((previousX - averageX) * (y - previousY)
+                    - (previousX - x) * (averageY - previousY));
+                if (area > bestArea) {
+                    bestArea = area;
+                    bestX = x;
+                    bestY = y;
+                }
+            }
+            points[kept * 2] = bestX;
+            points[kept * 2 + 1] = bestY;
+            kept++;
+            previousX = bestX;
+            previousY = bestY;
+        }
+        points[kept * 2] = points[(count - 1) * 2];
+        points[kept * 2 + 1] = points[(count - 1) * 2 + 1];
+        pointCount = kept + 1;
+    }
+
+    private void ensurePoints(int count) {
+        if (points.length < count * 2) {
+            points = new float[count * 2];
+        }
+    }
+
+    private void addPoint(long x, float y) {
+        points[pointCount * 2] = x;
+        points[pointCount * 2 + 1] = y;
+        pointCount++;
+    }
+}
@@ -0,0 +1,101 @@
+package com.jembedui.components.chart;
+
+/**
+ * Fixed-capacity ring of floats. Appending is O(1) and never allocates; once the
+ * ring is full each new value replaces the oldest one.
+ * <p>
+ * Values are read by position from the oldest ({@code 0}) to the newest
+ * ({@code size() - 1}). {@link #getAppendedCount()} counts every value ever
+ * appended, so readers can tell which values arrived since they last looked.
+ */
+public final class FloatRingBuffer {
+
+    private final float[] values;
+    private int head = 0; // Slot the next value goes into
+    private int size = 0;
+    private long appended = 0;
+
+    public FloatRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.values = new float[capacity];
+    }
+
+    public void add(float value) {
+        values[head] = value;
+        head = head + 1 == values.length ? 0 : head + 1;
+        if (size < values.length) {
+            size++;
+        }
+        appended++;
+    }
+
+    /**
+     * Appends {@code count} values from {@code source}, starting at {@code offset}.
+     */
+    public void addAll(float[] source, int offset, int count) {
+        if (count < 0 || offset < 0 || offset + count > source.length) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + count + " of " + source.length);
+        }
+        // Only the last capacity values survive
+        int skip = Math.max(0, count - values.length);
+        appended += skip;
+        offset += skip;
+        count -= skip;
+        while (count > 0) {
+            int run = Math.min(count, values.length - head);
+            System.arraycopy(source, offset, values, head, run);
+            head = head + run == values.length ? 0 : head + run;
+            offset += run;
+            count -= run;
+            size = Math.min(values.length, size + run);
+            appended += run;
+        }
+    }
+
+    /**
+     * Returns the value at {@code index}, counting from the oldest retained value.
+     */
+    public float get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        int slot = head - size + index;
+        return values[slot < 0 ? slot + values.length : slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Returns how many values were ever appended, including ones already overwritten.
+     */
+    public long getAppendedCount() {
+        return appended;
+    }
+
+    /**
+     * Removes every value. The appended count keeps growing, so readers see a change.
+     */
+    public void clear() {
+        size = 0;
+        head = 0;
+    }
+
+    // Raw access for the decimators, which walk the ring without per-value bounds checks
+
+    float[] array() {
+        return values;
+    }
+
+    int slotOf(int index) {
+        int slot = head - size + index;
+        return slot < 0 ? slot + values.length : slot;
+    }
+}
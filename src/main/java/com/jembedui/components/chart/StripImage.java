@@ -0,0 +1,205 @@
+package com.jembedui.components.chart;
+
+import com.jembedui.render.NVGRenderer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Offscreen trace of a {@link UIChart} in strip-chart mode.
+ * <p>
+ * Each pixel column of the image shows one bucket of samples, and bucket
+ * {@code k} always lands in column {@code k % columns}, so the image is a ring:
+ * new buckets overwrite the oldest columns and drawing it at a wrap-around
+ * offset scrolls the trace. Each frame only the columns of buckets that gained
+ * samples, plus the columns the newest bucket has moved into, are rasterized
+ * and uploaded, so the cost follows the data rate, not the length of the
+ * history; a series that stalls or appends slowly does not hold others back. Everything is repainted when the size, the window,
+ * the series or the vertical range change.
+ */
+final class StripImage {
+
+    private NVGRenderer renderer;
+    private int image = 0;
+    private int columns = 0;
+    private int rows = 0;
+    private int perBucket = 0;
+    private float low;
+    private float high;
+    private boolean valid = false;
+
+    // Newest bucket painted, and each series' appended count when last painted, by index
+    private long paintedNewest = -1;
+    private long[] paintedCounts = new long[0];
+    private ByteBuffer staging;
+
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Deletes the image; the next render creates it again.
+     */
+    void release() {
+        if (image != 0) {
+            renderer.deleteImage(image);
+            image = 0;
+        }
+        valid = false;
+    }
+
+    void render(NVGRenderer renderer, List<ChartSeries> series, int window, boolean autoRange,
+                float minY, float maxY, float left, float top, float plotWidth, float plotHeight) {
+        int newColumns = Math.max(1, (int) Math.ceil(plotWidth));
+        int newRows = Math.max(1, (int) Math.ceil(plotHeight));
+        if (renderer != this.renderer || newColumns != columns || newRows != rows) {
+            release();
+            this.renderer = renderer;
+            columns = newColumns;
+            rows = newRows;
+            staging = ByteBuffer.allocateDirect(columns * rows * 4).order(ByteOrder.nativeOrder());
+            image = renderer.createImage(columns, rows, staging);
+        }
+        int bucketSize = (int) Math.ceil((double) window / columns);
+        if (bucketSize != perBucket) {
+            perBucket = bucketSize;
+            valid = false;
+        }
+        if (!autoRange && (minY != low || maxY != high)) {
+            valid = false;
+        }
+
+        if (paintedCounts.length != series.size()) {
+            paintedCounts = new long[series.size()];
+            valid = false;
+        }
+
+        // Repaint from the first bucket any series appended to, and every column newly in view
+        long newest = -1;
+        long from = paintedNewest + 1;
+        for (int i = 0; i < series.size(); i++) {
+            ChartSeries line = series.get(i);
+            if (!line.isVisible() || line.getSamples().size() == 0) continue;
+            long count = line.getSamples().getAppendedCount();
+            newest = Math.max(newest, (count - 1) / perBucket);
+            if (count != paintedCounts[i]) {
+                from = Math.min(from, paintedCounts[i] / perBucket);
+            }
+        }
+        if (newest < 0) return;
+
+        if (!valid || newest - from + 1 >= columns) {
+            if (autoRange) {
+                fitRange(series, window);
+            } else {
+                low = minY;
+                high = maxY;
+            }
+            from = newest - columns + 1;
+        }
+        if (from <= newest && !paint(series, window, from, newest, autoRange)) {
+            // A new sample left the fitted range: widen it and repaint everything
+            fitRange(series, window);
+            from = newest - columns + 1;
+            paint(series, window, from, newest, false);
+        }
+        valid = true;
+        paintedNewest = newest;
+        for (int i = 0; i < series.size(); i++) {
+            paintedCounts[i] = series.get(i).getSamples().getAppendedCount();
+        }
+
+        // The column after the newest bucket holds the oldest one and goes at the left edge
+        int head = (int) ((newest + 1) % columns);
+        float split = left + columns - head;
+        renderer.drawImage(image, left - head, top, columns, rows, left, top, split - left, plotHeight);
+        if (head > 0) {
+            renderer.drawImage(image, split, top, columns, rows, split, top, head, plotHeight);
+        }
+    }
+
+    // Rasterizes buckets [from, to] into their columns and uploads them in at most two runs
+    private boolean paint(List<ChartSeries> series, int window, long from, long to, boolean checkRange) {
+        long bucket = from;
+        while (bucket <= to) {
+            int column = (int) Math.floorMod(bucket, (long) columns);
+            int run = (int) Math.min(to - bucket + 1, columns - column);
+            for (int i = 0; i < run; i++) {
+                if (!paintColumn(series, window, bucket + i, i, run, checkRange)) {
+                    return false;
+                }
+            }
+            staging.limit(run * rows * 4).position(0);
+            renderer.updateImageRegion(image, column, 0, run, rows, staging);
+            staging.clear();
+            bucket += run;
+        }
+        return true;
+    }
+
+    private boolean paintColumn(List<ChartSeries> series, int window, long bucket, int column, int run,
+                                boolean checkRange) {
+        for (int row = 0; row < rows; row++) {
+            staging.putInt((row * run + column) * 4, 0);
+        }
+        if (bucket < 0) return true;
+
+        float scale = (rows - 1) / (high - low);
+        for (ChartSeries line : series) {
+            FloatRingBuffer samples = line.getSamples();
+            if (!line.isVisible() || samples.size() == 0) continue;
+            long end = samples.getAppendedCount();
+            long oldest = end - Math.min(samples.size(), window);
+            long lo = Math.max(bucket * perBucket, oldest);
+            long hi = Math.min((bucket + 1) * perBucket, end);
+            if (lo >= hi) continue;
+
+            // Include the previous sample so consecutive columns join up
+            line.scan(lo > oldest ? lo - 1 : lo, hi);
+            float min = line.scannedMin();
+            float max = line.scannedMax();
+            if (checkRange && (min < low || max > high)) {
+                return false;
+            }
+
+            int half = (int) (line.getStrokeWidth() / 2);
+            int top = clampRow((int) Math.floor((high - max) * scale) - half);
+            int bottom = clampRow((int) Math.ceil((high - min) * scale) + half);
+            int rgba = line.getColor().rgba();
+            byte r = (byte) (rgba >>> 24);
+            byte g = (byte) (rgba >>> 16);
+            byte b = (byte) (rgba >>> 8);
+            byte a = (byte) rgba;
+            for (int row = top; row <= bottom; row++) {
+                int offset = (row * run + column) * 4;
+                staging.put(offset, r);
+                staging.put(offset + 1, g);
+                staging.put(offset + 2, b);
+                staging.put(offset + 3, a);
+            }
+        }
+        return true;
+    }
+
+    private int clampRow(int row) {
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    // Fits the range to every retained sample in the window, with some headroom for new ones
+    private void fitRange(List<ChartSeries> series, int window) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (ChartSeries line : series) {
+            FloatRingBuffer samples = line.getSamples();
+            if (!line.isVisible() || samples.size() == 0) continue;
+            long end = samples.getAppendedCount();
+            line.scan(end - Math.min(samples.size(), window), end);
+            min = Math.min(min, line.scannedMin());
+            max = Math.max(max, line.scannedMax());
+        }
+        float margin = max > min ? (max - min) * 0.1f : 1;
+        low = min - margin;
+        high = max + margin;
+    }
+}
@@ -0,0 +1,224 @@
+package com.jembedui.components.chart;
+
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.render.NVGRenderer;
+import com.jembedui.style.Color;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Line chart for streams of equally spaced samples, such as sensor readings.
+ * <p>
+ * Each {@link ChartSeries} keeps its samples in a {@link FloatRingBuffer}. When
+ * drawing, the newest window of samples is reduced to a couple of points per
+ * pixel column and stroked as a single path, so the cost of a frame follows the
+ * chart's width rather than the number of samples. Bucket extremes are cached,
+ * so a frame only scans the samples that arrived since the last one.
+ * {@link Decimation#MIN_MAX} keeps every spike; {@link Decimation#LTTB}
+ * (largest-triangle-three-buckets) picks half as many points for a cleaner line.
+ * <p>
+ * In {@link #setStripMode strip mode} the trace is kept in an offscreen image
+ * instead: each frame rasterizes only the pixel columns that received samples
+ * and scrolls the image, so drawing no longer depends on the window length.
+ */
+public class UIChart extends UIBaseElement {
+
+    public enum Decimation {
+        MIN_MAX, LTTB
+    }
+
+    private final List<ChartSeries> series = new ArrayList<>();
+    private Decimation decimation = Decimation.MIN_MAX;
+    private int visibleSamples = 0;
+
+    private boolean autoRange = true;
+    private float minY = 0;
+    private float maxY = 1;
+
+    private boolean stripMode = false;
+    private final StripImage strip = new StripImage();
+
+    public UIChart() {
+        super();
+    }
+
+    /**
+     * Adds a series that retains up to {@code capacity} samples.
+     */
+    public ChartSeries addSeries(String name, Color color, int capacity) {
+        ChartSeries added = new ChartSeries(this, name, color, capacity);
+        series.add(added);
+        seriesChanged();
+        return added;
+    }
+
+    public void removeSeries(ChartSeries removed) {
+        if (series.remove(removed)) {
+            seriesChanged();
+        }
+    }
+
+    public List<ChartSeries> getSeries() {
+        return Collections.unmodifiableList(series);
+    }
+
+    public Decimation getDecimation() {
+        return decimation;
+    }
+
+    public void setDecimation(Decimation decimation) {
+        this.decimation = decimation;
+        markDirty();
+    }
+
+    /**
+     * Sets how many of the newest samples span the chart's width. The default of 0
+     * shows each series' full capacity.
+     */
+    public void setVisibleSamples(int visibleSamples) {
+        if (visibleSamples < 0) {
+            throw new IllegalArgumentException("Visible samples must not be negative: " + visibleSamples);
+        }
+        this.visibleSamples = visibleSamples;
+        markDirty();
+    }
+
+    public int getVisibleSamples() {
+        return visibleSamples;
+    }
+
+    /**
+     * Switches to a scrolling strip chart that keeps its trace in an offscreen image
+     * and draws only new pixel columns each frame. Each column shows the span from the
+     * lowest to the highest sample that arrived in it, and the newest samples are at
+     * the right edge. With an automatic range, the range only widens, repainting the
+     * whole trace when a sample falls outside it.
+     */
+    public void setStripMode(boolean stripMode) {
+        if (this.stripMode == stripMode) return;
+        this.stripMode = stripMode;
+        if (!stripMode) {
+            strip.release();
+        }
+        markDirty();
+    }
+
+    public boolean isStripMode() {
+        return stripMode;
+    }
+
+    /**
+     * Fixes the vertical range instead of fitting it to the visible samples.
+     */
+    public void setYRange(float minY, float maxY) {
+        if (maxY <= minY) {
+            throw new IllegalArgumentException("Range must not be empty: " + minY + " to " + maxY);
+        }
+        this.minY = minY;
+        this.maxY = maxY;
+        this.autoRange = false;
+        markDirty();
+    }
+
+    /**
+     * Fits the vertical range to the visible samples every frame (the default).
+     */
+    public void setAutoRange() {
+        this.autoRange = true;
+        strip.invalidate();
+        markDirty();
+    }
+
+    public boolean isAutoRange() {
+        return autoRange;
+    }
+
+    // Appends mark the chart dirty once per frame, not once per sample
+    void requestRedraw() {
+        if (!isDirty()) {
+            markDirty();
+        }
+    }
+
+    // Series were added, removed or restyled, so the strip image is stale
+    void seriesChanged() {
+        strip.invalidate();
+        markDirty();
+    }
+
+    @Override
+    protected void onDetach() {
+        strip.release();
+    }
+
+    @Override
+    public void render(NVGRenderer renderer) {
+        if (!visible) return;
+        super.render(renderer);
+
+        float left = getAbsoluteX() + getStyle().getPaddingLeft();
+        float top = getAbsoluteY() + getStyle().getPaddingTop();
+        float plotWidth = width - getStyle().getPaddingLeft() - getStyle().getPaddingRight();
+        float plotHeight = height - getStyle().getPaddingTop() - getStyle().getPaddingBottom();
+        if (plotWidth <= 0 || plotHeight <= 0) return;
+        int columns = Math.max(1, (int) Math.ceil(plotWidth));
+
+        if (stripMode) {
+            int window = 1;
+            for (ChartSeries line : series) {
+                window = Math.max(window, windowOf(line));
+            }
+            renderer.save();
+            renderer.setScissor(left, top, plotWidth, plotHeight);
+            strip.render(renderer, series, window, autoRange, minY, maxY, left, top, plotWidth, plotHeight);
+            renderer.resetScissor();
+            renderer.restore();
+            return;
+        }
+
+        float low = Float.POSITIVE_INFINITY;
+        float high = Float.NEGATIVE_INFINITY;
+        for (ChartSeries line : series) {
+            if (!line.isVisible()) continue;
+            line.decimate(windowOf(line), columns, decimation);
+            if (autoRange) {
+                for (int i = 0; i < line.pointCount; i++) {
+                    float value = line.points[i * 2 + 1];
+                    low = Math.min(low, value);
+                    high = Math.max(high, value);
+                }
+            }
+        }
+        if (!autoRange) {
+            low = minY;
+            high = maxY;
+        } else if (low > high) {
+            return; // Nothing to draw
+        } else if (low == high) {
+            low -= 1;
+            high += 1;
+        }
+
+        renderer.save();
+        renderer.setScissor(left, top, plotWidth, plotHeight);
+        float scaleY = plotHeight / (high - low);
+        for (ChartSeries line : series) {
+            if (!line.isVisible() || line.pointCount == 0) continue;
+            float scaleX = plotWidth / Math.max(1, windowOf(line) - 1);
+            float[] points = line.points;
+            for (int i = 0; i < line.pointCount; i++) {
+                points[i * 2] = left + points[i * 2] * scaleX;
+                points[i * 2 + 1] = top + (high - points[i * 2 + 1]) * scaleY;
+            }
+            renderer.drawPolyline(points, line.pointCount, line.getStrokeWidth(), line.getColor());
+        }
+        renderer.resetScissor();
+        renderer.restore();
+    }
+
+    private int windowOf(ChartSeries line) {
+        return visibleSamples > 0 ? visibleSamples : line.getSamples().capacity();
+    }
+}
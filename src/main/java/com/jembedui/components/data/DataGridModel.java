@@ -0,0 +1,230 @@
+package com.jembedui.components.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented table for {@link UIDataGrid}.
+ * <p>
+ * Each column is one contiguous buffer: numeric columns live off-heap in direct
+ * buffers and text columns in a plain {@code String[]}, so a table of 100k rows
+ * by tens of columns is a few dozen objects rather than millions of cells. Rows
+ * are addressed by model index; the grid keeps its own sorted and filtered order.
+ * <p>
+ * The model is not thread-safe: write to it from the UI thread. Every write bumps
+ * {@link #getVersion()}, which the grid polls once per frame.
+ */
+public final class DataGridModel {
+
+    public enum Type {
+        DOUBLE, INT, TEXT
+    }
+
+    private static final class Column {
+        final String name;
+        final Type type;
+        DoubleBuffer doubles;
+        IntBuffer ints;
+        String[] texts;
+
+        Column(String name, Type type, int capacity) {
+            this.name = name;
+            this.type = type;
+            allocate(capacity);
+        }
+
+        void allocate(int capacity) {
+            switch (type) {
+                case DOUBLE -> {
+                    DoubleBuffer grown = ByteBuffer.allocateDirect(capacity * Double.BYTES)
+                        .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+                    if (doubles != null) {
+                        grown.put(doubles.clear());
+                        grown.clear();
+                    }
+                    doubles = grown;
+                }
+                case INT -> {
+                    IntBuffer grown = ByteBuffer.allocateDirect(capacity * Integer.BYTES)
+                        .order(ByteOrder.nativeOrder()).asIntBuffer();
+                    if (ints != null) {
+                        grown.put(ints.clear());
+                        grown.clear();
+                    }
+                    ints = grown;
+                }
+                case TEXT -> texts = texts == null ? new String[capacity] : Arrays.copyOf(texts, capacity);
+            }
+        }
+    }
+
+    private final List<Column> columns = new ArrayList<>();
+    private int rowCount = 0;
+    private int capacity;
+    private int version = 0;
+    private int structureVersion = 0;
+
+    public DataGridModel() {
+        this(1024);
+    }
+
+    public DataGridModel(int initialCapacity) {
+        this.capacity = Math.max(16, initialCapacity);
+    }
+
+    /**
+     * Adds a column and returns its index. Existing rows get 0 or null in it.
+     */
+    public int addColumn(String name, Type type) {
+        columns.add(new Column(name, type, capacity));
+        structureVersion++;
+        version++;
+        return columns.size() - 1;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    public String getColumnName(int column) {
+        return columns.get(column).name;
+    }
+
+    public Type getColumnType(int column) {
+        return columns.get(column).type;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Grows or shrinks the table. New rows hold 0 or null in every column.
+     */
+    public void setRowCount(int rowCount) {
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("Row count must not be negative: " + rowCount);
+        }
+        if (rowCount > capacity) {
+            capacity = Math.max(rowCount, capacity * 2);
+            for (Column column : columns) {
+                column.allocate(capacity);
+            }
+        }
+        // Clear the rows being dropped or exposed, so they read as empty when reused
+        for (Column column : columns) {
+            int from = Math.min(rowCount, this.rowCount);
+            int to = Math.max(rowCount, this.rowCount);
+            for (int row = from; row < to; row++) {
+                switch (column.type) {
+                    case DOUBLE -> column.doubles.put(row, 0);
+                    case INT -> column.ints.put(row, 0);
+                    case TEXT -> column.texts[row] = null;
+                }
+            }
+        }
+        this.rowCount = rowCount;
+        structureVersion++;
+        version++;
+    }
+
+    /**
+     * Appends an empty row and returns its index.
+     */
+    public int addRow() {
+        setRowCount(rowCount + 1);
+        return rowCount - 1;
+    }
+
+    public double getDouble(int row, int column) {
+        checkRow(row);
+        Column c = columns.get(column);
+        return switch (c.type) {
+            case DOUBLE -> c.doubles.get(row);
+            case INT -> c.ints.get(row);
+            case TEXT -> throw new IllegalArgumentException("Column '" + c.name + "' holds text");
+        };
+    }
+
+    public int getInt(int row, int column) {
+        checkRow(row);
+        return column(column, Type.INT).ints.get(row);
+    }
+
+    public String getText(int row, int column) {
+        checkRow(row);
+        return column(column, Type.TEXT).texts[row];
+    }
+
+    public void setDouble(int row, int column, double value) {
+        checkRow(row);
+        column(column, Type.DOUBLE).doubles.put(row, value);
+        version++;
+    }
+
+    public void setInt(int row, int column, int value) {
+        checkRow(row);
+        column(column, Type.INT).ints.put(row, value);
+        version++;
+    }
+
+    public void setText(int row, int column, String value) {
+        checkRow(row);
+        column(column, Type.TEXT).texts[row] = value;
+        version++;
+    }
+
+    /**
+     * Counter bumped by every write; compare it between frames to detect changes.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Counter bumped when columns or the row count change.
+     */
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
+    // Copies for background sorting and filtering, taken on the UI thread
+
+    double[] copyNumbers(int column) {
+        Column c = columns.get(column);
+        double[] values = new double[rowCount];
+        if (c.type == Type.DOUBLE) {
+            c.doubles.get(0, values, 0, rowCount);
+        } else if (c.type == Type.INT) {
+            for (int row = 0; row < rowCount; row++) {
+                values[row] = c.ints.get(row);
+            }
+        } else {
+            throw new IllegalArgumentException("Column '" + c.name + "' holds text");
+        }
+        return values;
+    }
+
+    String[] copyTexts(int column) {
+        return Arrays.copyOf(column(column, Type.TEXT).texts, rowCount);
+    }
+
+    private Column column(int column, Type type) {
+        Column c = columns.get(column);
+        if (c.type != type) {
+            throw new IllegalArgumentException("Column '" + c.name + "' holds " + c.type + ", not " + type);
+        }
+        return c;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+    }
+}
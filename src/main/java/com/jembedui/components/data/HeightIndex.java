@@ -0,0 +1,91 @@
+package com.jembedui.components.data;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Prefix sums over item heights, for virtualized lists with variable row heights.
+ * <p>
+ * A Fenwick tree over doubles: building is O(n), and the offset of an item, the
+ * item at an offset and changing one height are O(log n). Offsets are doubles so
+ * a million rows stay exact to the pixel.
+ */
+final class HeightIndex {
+
+    private double[] tree = new double[1];
+    private float[] heights = new float[0];
+    private int count = 0;
+
+    /**
+     * Rebuilds the index for {@code count} items with the given heights.
+     */
+    void build(int count, IntToDoubleFunction heightOf) {
+        if (heights.length < count) {
+            heights = new float[count];
+            tree = new double[count + 1];
+        } else {
+            Arrays.fill(tree, 0, count + 1, 0);
+        }
+        this.count = count;
+        for (int i = 0; i < count; i++) {
+            float height = (float) Math.max(0, heightOf.applyAsDouble(i));
+            heights[i] = height;
+            tree[i + 1] += height;
+            int parent = (i + 1) + ((i + 1) & -(i + 1));
+            if (parent <= count) {
+                tree[parent] += tree[i + 1];
+            }
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    float getHeight(int index) {
+        return heights[index];
+    }
+
+    void setHeight(int index, float height) {
+        height = Math.max(0, height);
+        double delta = height - heights[index];
+        if (delta == 0) return;
+        heights[index] = height;
+        for (int i = index + 1; i <= count; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the total height of the items before {@code index}.
+     */
+    double offsetOf(int index) {
+        double sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    double totalHeight() {
+        return offsetOf(count);
+    }
+
+    /**
+     * Returns the item covering {@code offset}, clamped to {@code [0, size() - 1]}.
+     */
+    int indexAt(double offset) {
+        if (count == 0) return 0;
+        // Walk down the tree, keeping the largest prefix that still ends at or before the offset
+        int index = 0;
+        double remaining = offset;
+        for (int step = Integer.highestOneBit(count); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= count && tree[next] <= remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return Math.min(index, count - 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.jembedui.components.data;
+
+import com.jembedui.core.UIBaseElement;
+
+/**
+ * Supplies item views to virtualized components such as {@link UIGridView}.
+ * <p>
+ * Views are only created for items in view and are rebound to other items as
+ * the user scrolls, so {@link #bindView} should set every piece of state that
+ * differs between items.
+ */
+public interface ItemAdapter<V extends UIBaseElement> {
+
+    int getItemCount();
+
+    /**
+     * Creates an unbound view; it is sized and positioned by the component.
+     */
+    V createView();
+
+    void bindView(V view, int position);
+}
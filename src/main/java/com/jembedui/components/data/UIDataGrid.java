@@ -0,0 +1,643 @@
+package com.jembedui.components.data;
+
+import com.jembedui.components.Scrollbars;
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.events.MouseEvent;
+import com.jembedui.events.UIEvent;
+import com.jembedui.render.NVGRenderer;
+import com.jembedui.style.Color;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+import static org.lwjgl.nanovg.NanoVG.*;
+
+/**
+ * Scrolling table over a {@link DataGridModel}.
+ * <p>
+ * The grid has no child elements: it draws the cells in the viewport straight
+ * from the model's column buffers, so its cost per frame depends on the visible
+ * rows and columns, not on the size of the table. Formatted numbers are cached
+ * per visible cell and reused while the cell shows the same row and value.
+ * <p>
+ * Sorting and filtering copy the key columns on the UI thread and order the rows
+ * on a background thread; the new order replaces the old one in a single frame
+ * once it is ready, and a newer request makes an unfinished one obsolete. Filter
+ * predicates run on that background thread and must not touch the UI.
+ */
+public class UIDataGrid extends UIBaseElement {
+
+    private static final float CELL_PADDING = 6;
+    private static final float DEFAULT_COLUMN_WIDTH = 100;
+
+    // One worker shared by every grid; sorts are short and newer ones supersede older ones
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jembedui-datagrid");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Plain ASCII so the markers show in any font
+    private static final String ASCENDING_MARKER = " ^";
+    private static final String DESCENDING_MARKER = " v";
+
+    private static final DoubleFunction<String> DOUBLE_FORMAT = value -> String.format("%.2f", value);
+    private static final DoubleFunction<String> INT_FORMAT = value -> Integer.toString((int) value);
+
+    private DataGridModel model;
+    private float[] columnWidths = new float[0];
+    private DoubleFunction<String>[] formatters = newFormatters(0);
+
+    private float rowHeight = 24;
+    private float headerHeight = 28;
+    private float fontSize = 14;
+    private Color headerColor = new Color(0.22f, 0.22f, 0.26f);
+    private Color rowColor = new Color(0.15f, 0.15f, 0.17f);
+    private Color alternateRowColor = new Color(0.18f, 0.18f, 0.2f);
+    private Color textColor = new Color(0.9f, 0.9f, 0.9f);
+
+    private double scrollX = 0;
+    private double scrollY = 0;
+    private boolean showScrollbar = true;
+
+    // Row order: viewToModel[i] is the model row shown at view row i, or null for model order
+    private int[] viewToModel;
+    private int sortColumn = -1;
+    private boolean sortAscending = true;
+    private String[] headerLabels; // Column names with the sort marker, rebuilt when the sort changes
+    private int filterColumn = -1;
+    private DoublePredicate numberFilter;
+    private Predicate<String> textFilter;
+
+    // Background ordering; only the job whose generation is current may publish
+    private volatile int generation = 0;
+    private volatile Ordering pending;
+
+    private static final class Ordering {
+        final int generation;
+        final int[] order;
+
+        Ordering(int generation, int[] order) {
+            this.generation = generation;
+            this.order = order;
+        }
+    }
+
+    // Formatted numbers of the visible cells, slot (viewRow % cacheRows) * columns + column
+    private int cacheRows = 0;
+    private int cacheColumns = 0;
+    private int[] cachedRows = new int[0];
+    private long[] cachedValues = new long[0];
+    private String[] cachedText = new String[0];
+
+    public UIDataGrid() {
+        this(new DataGridModel());
+    }
+
+    public UIDataGrid(DataGridModel model) {
+        super();
+        setModel(model);
+        addEventListener(MouseEvent.class, this::handleMouseEvent);
+    }
+
+    private void handleMouseEvent(MouseEvent event) {
+        if (event.getPhase() == UIEvent.EventPhase.CAPTURE) return;
+        switch (event.getEventType()) {
+            case MOUSE_WHEEL -> {
+                setScrollY(scrollY + event.getWheelDeltaY() * Scrollbars.SCROLL_STEP);
+                setScrollX(scrollX + event.getWheelDeltaX() * Scrollbars.SCROLL_STEP);
+                event.stopPropagation();
+            }
+            case MOUSE_CLICK -> {
+                if (event.getY() - getAbsoluteY() < headerHeight) {
+                    int column = getColumnAt(event.getX());
+                    if (column >= 0) {
+                        sortBy(column, column == sortColumn ? !sortAscending : true);
+                    }
+                }
+            }
+            default -> { }
+        }
+    }
+
+    public DataGridModel getModel() {
+        return model;
+    }
+
+    /**
+     * Shows another model; sorting and filtering are cleared.
+     */
+    public void setModel(DataGridModel model) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model must not be null");
+        }
+        this.model = model;
+        sortColumn = -1;
+        headerLabels = null;
+        clearFilter();
+    }
+
+    // Columns
+
+    public void setColumnWidth(int column, float width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Column width must be positive: " + width);
+        }
+        syncColumns();
+        columnWidths[column] = width;
+        markDirty();
+    }
+
+    public float getColumnWidth(int column) {
+        syncColumns();
+        return columnWidths[column];
+    }
+
+    /**
+     * Sets how a numeric column turns values into text. INT columns get whole numbers
+     * and DOUBLE columns two decimals by default. Results are cached per visible cell.
+     */
+    public void setFormatter(int column, DoubleFunction<String> formatter) {
+        if (model.getColumnType(column) == DataGridModel.Type.TEXT) {
+            throw new IllegalArgumentException("Column '" + model.getColumnName(column) + "' holds text");
+        }
+        syncColumns();
+        formatters[column] = formatter;
+        Arrays.fill(cachedRows, -1);
+        markDirty();
+    }
+
+    // Picks up columns added to the model since the last call
+    private void syncColumns() {
+        int count = model.getColumnCount();
+        if (columnWidths.length == count) return;
+        int old = Math.min(columnWidths.length, count);
+        columnWidths = Arrays.copyOf(columnWidths, count);
+        Arrays.fill(columnWidths, old, count, DEFAULT_COLUMN_WIDTH);
+        formatters = Arrays.copyOf(formatters, count);
+        cacheColumns = 0;
+        headerLabels = null;
+    }
+
+    private String[] headerLabels() {
+        if (headerLabels == null) {
+            headerLabels = new String[columnWidths.length];
+            for (int column = 0; column < headerLabels.length; column++) {
+                String name = model.getColumnName(column);
+                if (column == sortColumn) {
+                    name += sortAscending ? ASCENDING_MARKER : DESCENDING_MARKER;
+                }
+                headerLabels[column] = name;
+            }
+        }
+        return headerLabels;
+    }
+
+    private double contentWidth() {
+        double total = 0;
+        for (float width : columnWidths) {
+            total += width;
+        }
+        return total;
+    }
+
+    // Sorting and filtering
+
+    /**
+     * Orders the rows by a column, in the background. Ties keep their model order.
+     */
+    public void sortBy(int column, boolean ascending) {
+        if (column < 0 || column >= model.getColumnCount()) {
+            throw new IllegalArgumentException("No column " + column);
+        }
+        this.sortColumn = column;
+        this.sortAscending = ascending;
+        headerLabels = null;
+        reorder();
+    }
+
+    /**
+     * Returns to model order, keeping any filter.
+     */
+    public void clearSort() {
+        sortColumn = -1;
+        headerLabels = null;
+        reorder();
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isSortAscending() {
+        return sortAscending;
+    }
+
+    /**
+     * Shows only rows whose value in a numeric column passes {@code filter}.
+     */
+    public void setFilter(int column, DoublePredicate filter) {
+        if (model.getColumnType(column) == DataGridModel.Type.TEXT) {
+            throw new IllegalArgumentException("Column '" + model.getColumnName(column) + "' holds text");
+        }
+        this.filterColumn = column;
+        this.numberFilter = filter;
+        this.textFilter = null;
+        reorder();
+    }
+
+    /**
+     * Shows only rows whose value in a text column passes {@code filter}.
+     */
+    public void setTextFilter(int column, Predicate<String> filter) {
+        if (model.getColumnType(column) != DataGridModel.Type.TEXT) {
+            throw new IllegalArgumentException("Column '" + model.getColumnName(column) + "' is not text");
+        }
+        this.filterColumn = column;
+        this.numberFilter = null;
+        this.textFilter = filter;
+        reorder();
+    }
+
+    public void clearFilter() {
+        filterColumn = -1;
+        numberFilter = null;
+        textFilter = null;
+        reorder();
+    }
+
+    /**
+     * Re-applies the sort and filter after rows were added, removed or edited.
+     * Edits alone only need {@link #markDirty()}: cached text is checked against the values.
+     */
+    public void notifyDataChanged() {
+        reorder();
+    }
+
+    /**
+     * Returns true while a sort or filter is being computed.
+     */
+    public boolean isReordering() {
+        return isTicking();
+    }
+
+    private void reorder() {
+        int jobGeneration = ++generation;
+        pending = null;
+        if (sortColumn < 0 && filterColumn < 0) {
+            viewToModel = null;
+            setTicking(false);
+            clampScroll();
+            markDirty();
+            return;
+        }
+
+        // Copy the keys here so the worker never reads the model while the UI thread writes it
+        int rows = model.getRowCount();
+        boolean textSort = sortColumn >= 0 && model.getColumnType(sortColumn) == DataGridModel.Type.TEXT;
+        double[] numberKeys = sortColumn >= 0 && !textSort ? model.copyNumbers(sortColumn) : null;
+        String[] textKeys = textSort ? model.copyTexts(sortColumn) : null;
+        double[] numberValues = numberFilter != null ? model.copyNumbers(filterColumn) : null;
+        String[] textValues = textFilter != null ? model.copyTexts(filterColumn) : null;
+        DoublePredicate numberTest = numberFilter;
+        Predicate<String> textTest = textFilter;
+        boolean ascending = sortAscending;
+
+        setTicking(true);
+        WORKER.execute(() -> {
+            if (jobGeneration != generation) return;
+            int[] order;
+            try {
+                order = new int[rows];
+                int count = 0;
+                for (int row = 0; row < rows; row++) {
+                    if ((numberTest == null || numberTest.test(numberValues[row]))
+                            && (textTest == null || textTest.test(textValues[row]))) {
+                        order[count++] = row;
+                    }
+                }
+                order = count == rows ? order : Arrays.copyOf(order, count);
+                if (numberKeys != null) {
+                    sort(order, new int[count], 0, count, numberKeys, null, ascending);
+                } else if (textKeys != null) {
+                    sort(order, new int[count], 0, count, null, textKeys, ascending);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Warning: UIDataGrid could not sort or filter rows: " + e);
+                order = null;
+            }
+            pending = new Ordering(jobGeneration, order);
+        });
+    }
+
+    // Stable merge sort of row indices by key
+    private static void sort(int[] rows, int[] scratch, int from, int to,
+                             double[] numbers, String[] texts, boolean ascending) {
+        if (to - from < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && compare(rows[j], row, numbers, texts, ascending) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(rows, scratch, from, mid, numbers, texts, ascending);
+        sort(rows, scratch, mid, to, numbers, texts, ascending);
+        if (compare(rows[mid - 1], rows[mid], numbers, texts, ascending) <= 0) return;
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compare(scratch[left], scratch[right], numbers, texts, ascending) <= 0)) {
+                rows[i] = scratch[left++];
+            } else {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+
+    private static int compare(int a, int b, double[] numbers, String[] texts, boolean ascending) {
+        int result;
+        if (numbers != null) {
+            result = Double.compare(numbers[a], numbers[b]);
+        } else {
+            String x = texts[a];
+            String y = texts[b];
+            result = x == null ? (y == null ? 0 : -1) : (y == null ? 1 : x.compareTo(y));
+        }
+        return ascending ? result : -result;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        Ordering ready = pending;
+        if (ready == null || ready.generation != generation) return;
+        pending = null;
+        if (ready.order != null) {
+            viewToModel = ready.order;
+            clampScroll();
+        }
+        setTicking(false);
+        markDirty();
+    }
+
+    // Rows
+
+    /**
+     * Returns the number of rows shown, after filtering.
+     */
+    public int getRowCount() {
+        return viewToModel != null ? viewToModel.length : model.getRowCount();
+    }
+
+    /**
+     * Returns the model row shown at {@code viewRow}.
+     */
+    public int getModelRow(int viewRow) {
+        return viewToModel != null ? viewToModel[viewRow] : viewRow;
+    }
+
+    /**
+     * Returns the view row under a point in window coordinates, or -1.
+     */
+    public int getRowAt(float x, float y) {
+        if (!containsPoint(x, y)) return -1;
+        double offset = scrollY + (y - getAbsoluteY()) - headerHeight;
+        if (offset < 0) return -1;
+        int row = (int) (offset / rowHeight);
+        return row < getRowCount() ? row : -1;
+    }
+
+    /**
+     * Returns the column under a point's x in window coordinates, or -1.
+     */
+    public int getColumnAt(float x) {
+        syncColumns();
+        double offset = scrollX + (x - getAbsoluteX());
+        for (int column = 0; column < columnWidths.length; column++) {
+            if (offset >= 0 && offset < columnWidths[column]) return column;
+            offset -= columnWidths[column];
+        }
+        return -1;
+    }
+
+    public void setRowHeight(float rowHeight) {
+        if (rowHeight <= 0) {
+            throw new IllegalArgumentException("Row height must be positive: " + rowHeight);
+        }
+        this.rowHeight = rowHeight;
+        cacheRows = 0;
+        clampScroll();
+        markDirty();
+    }
+
+    public float getRowHeight() {
+        return rowHeight;
+    }
+
+    public void setHeaderHeight(float headerHeight) {
+        this.headerHeight = Math.max(0, headerHeight);
+        cacheRows = 0;
+        clampScroll();
+        markDirty();
+    }
+
+    public float getHeaderHeight() {
+        return headerHeight;
+    }
+
+    public void setFontSize(float fontSize) {
+        this.fontSize = fontSize;
+        markDirty();
+    }
+
+    public void setHeaderColor(Color color) { this.headerColor = color; markDirty(); }
+    public void setRowColor(Color color) { this.rowColor = color; markDirty(); }
+    public void setAlternateRowColor(Color color) { this.alternateRowColor = color; markDirty(); }
+    public void setTextColor(Color color) { this.textColor = color; markDirty(); }
+
+    // Scrolling
+
+    public double getScrollX() {
+        return scrollX;
+    }
+
+    public void setScrollX(double scrollX) {
+        double clamped = Math.max(0, Math.min(scrollX, contentWidth() - width));
+        if (clamped == this.scrollX) return;
+        this.scrollX = clamped;
+        markDirty();
+    }
+
+    public double getScrollY() {
+        return scrollY;
+    }
+
+    public void setScrollY(double scrollY) {
+        double clamped = Math.max(0, Math.min(scrollY, maxScrollY()));
+        if (clamped == this.scrollY) return;
+        this.scrollY = clamped;
+        markDirty();
+    }
+
+    /**
+     * Scrolls the least distance that brings {@code viewRow} fully into view.
+     */
+    public void scrollToRow(int viewRow) {
+        double top = (double) viewRow * rowHeight;
+        double bodyHeight = height - headerHeight;
+        if (top < scrollY) {
+            setScrollY(top);
+        } else if (top + rowHeight > scrollY + bodyHeight) {
+            setScrollY(top + rowHeight - bodyHeight);
+        }
+    }
+
+    public void setShowScrollbar(boolean show) {
+        this.showScrollbar = show;
+        markDirty();
+    }
+
+    private double maxScrollY() {
+        return Math.max(0, (double) getRowCount() * rowHeight - (height - headerHeight));
+    }
+
+    private void clampScroll() {
+        syncColumns();
+        scrollY = Math.max(0, Math.min(scrollY, maxScrollY()));
+        scrollX = Math.max(0, Math.min(scrollX, contentWidth() - width));
+    }
+
+    @Override
+    public void layout() {
+        clampScroll();
+    }
+
+    // Rendering
+
+    @Override
+    public void render(NVGRenderer renderer) {
+        if (!visible) return;
+        super.render(renderer);
+        syncColumns();
+
+        float ax = getAbsoluteX();
+        float ay = getAbsoluteY();
+        float bodyHeight = Math.max(0, height - headerHeight);
+        int rowCount = getRowCount();
+        int modelRows = model.getRowCount();
+
+        int firstRow = (int) (scrollY / rowHeight);
+        int endRow = (int) Math.min(rowCount, Math.ceil((scrollY + bodyHeight) / rowHeight));
+        ensureCache((int) Math.ceil(bodyHeight / rowHeight) + 1);
+
+        // First visible column and its left edge on screen
+        int firstColumn = 0;
+        double left = -scrollX;
+        while (firstColumn < columnWidths.length && left + columnWidths[firstColumn] <= 0) {
+            left += columnWidths[firstColumn++];
+        }
+
+        renderer.save();
+        renderer.setScissor(ax, ay, width, height);
+
+        renderer.drawRect(ax, ay, width, headerHeight, headerColor, 0);
+        String[] labels = headerLabels();
+        float x = (float) (ax + left);
+        for (int column = firstColumn; column < columnWidths.length && x < ax + width; column++) {
+            renderer.save();
+            renderer.intersectScissor(x, ay, columnWidths[column], headerHeight);
+            renderer.drawText(x + CELL_PADDING, ay + headerHeight / 2, labels[column], "default", fontSize,
+                textColor, NVG_ALIGN_LEFT | NVG_ALIGN_MIDDLE);
+            renderer.restore();
+            x += columnWidths[column];
+        }
+
+        renderer.setScissor(ax, ay + headerHeight, width, bodyHeight);
+        for (int row = firstRow; row < endRow; row++) {
+            if (getModelRow(row) >= modelRows) continue; // Rows removed since the last reorder
+            float y = (float) (ay + headerHeight + row * (double) rowHeight - scrollY);
+            renderer.drawRect(ax, y, width, rowHeight, row % 2 == 0 ? rowColor : alternateRowColor, 0);
+        }
+
+        // Column by column, so each column's cells share one scissor that keeps long text out of its neighbours
+        x = (float) (ax + left);
+        for (int column = firstColumn; column < columnWidths.length && x < ax + width; column++) {
+            float cellWidth = columnWidths[column];
+            boolean text = model.getColumnType(column) == DataGridModel.Type.TEXT;
+            renderer.save();
+            renderer.intersectScissor(x, ay + headerHeight, cellWidth, bodyHeight);
+            for (int row = firstRow; row < endRow; row++) {
+                int modelRow = getModelRow(row);
+                if (modelRow >= modelRows) continue;
+                float cellY = (float) (ay + headerHeight + row * (double) rowHeight - scrollY) + rowHeight / 2;
+                if (text) {
+                    String value = model.getText(modelRow, column);
+                    if (value != null) {
+                        renderer.drawText(x + CELL_PADDING, cellY, value, "default", fontSize, textColor,
+                            NVG_ALIGN_LEFT | NVG_ALIGN_MIDDLE);
+                    }
+                } else {
+                    renderer.drawText(x + cellWidth - CELL_PADDING, cellY, formatCell(row, modelRow, column),
+                        "default", fontSize, textColor, NVG_ALIGN_RIGHT | NVG_ALIGN_MIDDLE);
+                }
+            }
+            renderer.restore();
+            x += cellWidth;
+        }
+
+        renderer.resetScissor();
+        renderer.restore();
+
+        double contentHeight = (double) rowCount * rowHeight;
+        if (showScrollbar) {
+            Scrollbars.drawVertical(renderer, ax + width - Scrollbars.WIDTH, ay + headerHeight, bodyHeight,
+                                    bodyHeight, contentHeight, scrollY);
+        }
+    }
+
+    // Returns the cached text of a numeric cell, formatting it only if the row or value changed
+    private String formatCell(int viewRow, int modelRow, int column) {
+        double value = model.getDouble(modelRow, column);
+        long bits = Double.doubleToRawLongBits(value);
+        int slot = (viewRow % cacheRows) * cacheColumns + column;
+        if (cachedRows[slot] == modelRow && cachedValues[slot] == bits && cachedText[slot] != null) {
+            return cachedText[slot];
+        }
+        DoubleFunction<String> formatter = formatters[column];
+        if (formatter == null) {
+            formatter = model.getColumnType(column) == DataGridModel.Type.INT ? INT_FORMAT : DOUBLE_FORMAT;
+        }
+        String text = formatter.apply(value);
+        cachedRows[slot] = modelRow;
+        cachedValues[slot] = bits;
+        cachedText[slot] = text;
+        return text;
+    }
+
+    private void ensureCache(int rows) {
+        int columns = columnWidths.length;
+        if (rows <= cacheRows && columns == cacheColumns) return;
+        cacheRows = Math.max(1, rows);
+        cacheColumns = columns;
+        int size = cacheRows * cacheColumns;
+        cachedRows = new int[size];
+        Arrays.fill(cachedRows, -1);
+        cachedValues = new long[size];
+        cachedText = new String[size];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DoubleFunction<String>[] newFormatters(int count) {
+        return (DoubleFunction<String>[]) new DoubleFunction[count];
+    }
+}
@@ -0,0 +1,218 @@
+package com.jembedui.components.data;
+
+import com.jembedui.components.Scrollbars;
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+import com.jembedui.events.MouseEvent;
+import com.jembedui.events.UIEvent;
+import com.jembedui.layout.GridLayout;
+import com.jembedui.render.NVGRenderer;
+
+/**
+ * Scrolling grid of adapter-backed item views, such as an image or channel gallery.
+ * <p>
+ * Cells follow an auto-flow {@link GridLayout}: the column count follows the width
+ * and rows are added for as many items as the adapter reports. Only the rows that
+ * intersect the viewport are realized; their views are created once and rebound
+ * as rows scroll in and out of view, so a grid of thousands of items holds about
+ * one screenful of views.
+ */
+public class UIGridView<V extends UIBaseElement> extends UIContainer {
+
+    private final GridLayout grid;
+    private ItemAdapter<V> adapter;
+
+    private final ViewPool<V> pool = new ViewPool<>(this, this::placeView);
+
+    // Geometry from the last layout
+    private int columns = 1;
+    private float cellWidth;
+    private float contentHeight = 0;
+    private float scrollY = 0;
+    private int firstPosition = 0;
+    private int endPosition = 0;
+    private boolean showScrollbar = true;
+
+    public UIGridView(float cellWidth, float cellHeight, float spacing) {
+        this(GridLayout.autoFlow(cellWidth, cellHeight, spacing));
+    }
+
+    public UIGridView(GridLayout grid) {
+        super();
+        if (!grid.isAutoFlow()) {
+            throw new IllegalArgumentException("UIGridView needs an auto-flow GridLayout");
+        }
+        this.grid = grid;
+        addEventListener(MouseEvent.class, this::handleMouseEvent);
+    }
+
+    private void handleMouseEvent(MouseEvent event) {
+        // Children get the first chance to scroll; handle it once, on the way up
+        if (event.getEventType() == MouseEvent.MouseEventType.MOUSE_WHEEL
+                && event.getPhase() != UIEvent.EventPhase.CAPTURE) {
+            setScrollY(scrollY + event.getWheelDeltaY() * Scrollbars.SCROLL_STEP);
+            event.stopPropagation();
+        }
+    }
+
+    public GridLayout getGridLayout() {
+        return grid;
+    }
+
+    public ItemAdapter<V> getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * Sets the adapter and discards views made by the previous one.
+     */
+    public void setAdapter(ItemAdapter<V> adapter) {
+        this.adapter = adapter;
+        pool.clear();
+        scrollY = 0;
+        layout();
+    }
+
+    /**
+     * Rebinds every realized view and recomputes the grid after items were added,
+     * removed or changed.
+     */
+    public void notifyDataSetChanged() {
+        pool.unbindAll();
+        layout();
+    }
+
+    /**
+     * Rebinds the view showing {@code position}, if that item is realized.
+     */
+    public void notifyItemChanged(int position) {
+        V view = pool.findView(position);
+        if (view != null) {
+            adapter.bindView(view, position);
+            view.layout();
+        }
+    }
+
+    // Scrolling
+
+    public float getScrollY() {
+        return scrollY;
+    }
+
+    public void setScrollY(float scrollY) {
+        float clamped = Math.max(0, Math.min(scrollY, Math.max(0, contentHeight - height)));
+        if (clamped == this.scrollY) return;
+        this.scrollY = clamped;
+        realize(false);
+    }
+
+    /**
+     * Scrolls the least distance that brings the row holding {@code position} fully into view.
+     */
+    public void scrollToPosition(int position) {
+        float top = getStyle().getPaddingTop() + (position / columns) * rowPitch();
+        float bottom = top + grid.getCellHeight();
+        if (top < scrollY) {
+            setScrollY(top);
+        } else if (bottom > scrollY + height) {
+            setScrollY(bottom - height);
+        }
+    }
+
+    public float getContentHeight() {
+        return contentHeight;
+    }
+
+    public int getColumnCount() {
+        return columns;
+    }
+
+    public int getFirstVisiblePosition() {
+        return firstPosition;
+    }
+
+    /**
+     * Returns the number of items currently realized; the last one is
+     * {@code getFirstVisiblePosition() + getVisibleItemCount() - 1}.
+     */
+    public int getVisibleItemCount() {
+        return endPosition - firstPosition;
+    }
+
+    /**
+     * Returns how many item views exist, realized or spare.
+     */
+    public int getViewCount() {
+        return pool.size();
+    }
+
+    public void setShowScrollbar(boolean show) {
+        this.showScrollbar = show;
+        markDirty();
+    }
+
+    // Layout
+
+    @Override
+    public void layout() {
+        float innerWidth = width - getStyle().getPaddingLeft() - getStyle().getPaddingRight();
+        columns = grid.resolveColumns(innerWidth);
+        cellWidth = grid.resolveCellWidth(innerWidth);
+        int count = adapter != null ? adapter.getItemCount() : 0;
+        int rows = (count + columns - 1) / columns;
+        contentHeight = rows > 0
+            ? rows * rowPitch() - grid.getVSpacing() + getStyle().getPaddingTop() + getStyle().getPaddingBottom()
+            : 0;
+        scrollY = Math.max(0, Math.min(scrollY, Math.max(0, contentHeight - height)));
+        realize(true);
+    }
+
+    private float rowPitch() {
+        return grid.getCellHeight() + grid.getVSpacing();
+    }
+
+    // Realizes the items in the rows that intersect the viewport
+    private void realize(boolean relayout) {
+        int count = adapter != null ? adapter.getItemCount() : 0;
+        float padTop = getStyle().getPaddingTop();
+        float pitch = rowPitch();
+        int rows = (count + columns - 1) / columns;
+        int firstRow = Math.max(0, (int) Math.floor((scrollY - padTop) / pitch));
+        int endRow = Math.min(rows, (int) Math.ceil((scrollY + height - padTop) / pitch));
+        firstPosition = Math.min(count, firstRow * columns);
+        endPosition = Math.max(firstPosition, Math.min(count, endRow * columns));
+        pool.realize(adapter, firstPosition, endPosition, relayout);
+    }
+
+    private void placeView(V view, int position) {
+        int row = position / columns;
+        int col = position % columns;
+        view.arrange(getStyle().getPaddingLeft() + col * (cellWidth + grid.getHSpacing()),
+                     getStyle().getPaddingTop() + row * rowPitch() - scrollY,
+                     cellWidth, grid.getCellHeight());
+    }
+
+    // Hit testing and rendering
+
+    @Override
+    public UIBaseElement getElementAt(float x, float y) {
+        // Realized views may overhang the viewport at the top and bottom
+        return containsPoint(x, y) ? super.getElementAt(x, y) : null;
+    }
+
+    @Override
+    public void render(NVGRenderer renderer) {
+        if (!visible) return;
+
+        renderer.save();
+        renderer.setScissor(getAbsoluteX(), getAbsoluteY(), width, height);
+        super.render(renderer);
+        renderer.resetScissor();
+        renderer.restore();
+
+        if (showScrollbar) {
+            Scrollbars.drawVertical(renderer, getAbsoluteX() + width - Scrollbars.WIDTH, getAbsoluteY(), height,
+                                    height, contentHeight, scrollY);
+        }
+    }
+}
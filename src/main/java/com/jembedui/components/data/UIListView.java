@@ -0,0 +1,267 @@
+package com.jembedui.components.data;
+
+import com.jembedui.components.Scrollbars;
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+import com.jembedui.events.MouseEvent;
+import com.jembedui.events.UIEvent;
+import com.jembedui.render.NVGRenderer;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Scrolling list of adapter-backed rows.
+ * <p>
+ * Only the rows in the viewport exist as elements: they are created once and
+ * rebound as the list scrolls, so a list of a million items holds about one
+ * screenful of rows. Rows are all {@link #setRowHeight the same height} or
+ * take {@link #setRowHeights per-item heights}, which are kept in a prefix-sum
+ * index so finding the rows at a scroll offset stays O(log n). Scroll offsets
+ * are doubles, so very long lists do not lose precision at the bottom.
+ */
+public class UIListView<V extends UIBaseElement> extends UIContainer {
+
+    private ItemAdapter<V> adapter;
+    private final ViewPool<V> pool = new ViewPool<>(this, this::placeView);
+
+    // Row heights: fixed, or per item through the prefix-sum index
+    private float rowHeight = 30;
+    private IntToDoubleFunction rowHeights;
+    private final HeightIndex heightIndex = new HeightIndex();
+
+    private int itemCount = 0;
+    private double contentHeight = 0;
+    private double scrollY = 0;
+    private int firstPosition = 0;
+    private int endPosition = 0;
+    private boolean showScrollbar = true;
+
+    public UIListView() {
+        super();
+        addEventListener(MouseEvent.class, this::handleMouseEvent);
+    }
+
+    private void handleMouseEvent(MouseEvent event) {
+        // Children get the first chance to scroll; handle it once, on the way up
+        if (event.getEventType() == MouseEvent.MouseEventType.MOUSE_WHEEL
+                && event.getPhase() != UIEvent.EventPhase.CAPTURE) {
+            setScrollY(scrollY + event.getWheelDeltaY() * Scrollbars.SCROLL_STEP);
+            event.stopPropagation();
+        }
+    }
+
+    public ItemAdapter<V> getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * Sets the adapter and discards rows made by the previous one.
+     */
+    public void setAdapter(ItemAdapter<V> adapter) {
+        this.adapter = adapter;
+        pool.clear();
+        scrollY = 0;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Gives every row the same height.
+     */
+    public void setRowHeight(float rowHeight) {
+        if (rowHeight <= 0) {
+            throw new IllegalArgumentException("Row height must be positive: " + rowHeight);
+        }
+        this.rowHeight = rowHeight;
+        this.rowHeights = null;
+        layout();
+    }
+
+    public float getRowHeight() {
+        return rowHeight;
+    }
+
+    /**
+     * Gives each item its own height. Heights are read for every item when the data
+     * set changes; use {@link #notifyItemHeightChanged} when a single one changes.
+     */
+    public void setRowHeights(IntToDoubleFunction rowHeights) {
+        this.rowHeights = rowHeights;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Recounts the items, re-reads variable row heights and rebinds every realized row.
+     */
+    public void notifyDataSetChanged() {
+        itemCount = adapter != null ? adapter.getItemCount() : 0;
+        if (rowHeights != null) {
+            heightIndex.build(itemCount, rowHeights);
+        }
+        pool.unbindAll();
+        layout();
+    }
+
+    /**
+     * Rebinds the row showing {@code position}, if it is realized.
+     */
+    public void notifyItemChanged(int position) {
+        V view = pool.findView(position);
+        if (view != null) {
+            adapter.bindView(view, position);
+            view.layout();
+        }
+    }
+
+    /**
+     * Re-reads the height of one item; rows below it move without rebinding.
+     */
+    public void notifyItemHeightChanged(int position) {
+        if (rowHeights == null) return;
+        heightIndex.setHeight(position, (float) rowHeights.applyAsDouble(position));
+        layout();
+    }
+
+    // Scrolling
+
+    public double getScrollY() {
+        return scrollY;
+    }
+
+    public void setScrollY(double scrollY) {
+        double clamped = Math.max(0, Math.min(scrollY, maxScrollY()));
+        if (clamped == this.scrollY) return;
+        this.scrollY = clamped;
+        realize(false);
+    }
+
+    /**
+     * Scrolls the least distance that brings {@code position} fully into view.
+     */
+    public void scrollToPosition(int position) {
+        double top = getStyle().getPaddingTop() + offsetOf(position);
+        double bottom = top + heightOf(position);
+        if (top < scrollY) {
+            setScrollY(top);
+        } else if (bottom > scrollY + height) {
+            setScrollY(bottom - height);
+        }
+    }
+
+    public double getContentHeight() {
+        return contentHeight;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getFirstVisiblePosition() {
+        return firstPosition;
+    }
+
+    /**
+     * Returns the number of rows currently realized; the last one is
+     * {@code getFirstVisiblePosition() + getVisibleItemCount() - 1}.
+     */
+    public int getVisibleItemCount() {
+        return endPosition - firstPosition;
+    }
+
+    /**
+     * Returns how many row elements exist, realized or spare.
+     */
+    public int getViewCount() {
+        return pool.size();
+    }
+
+    /**
+     * Returns the item under a point in window coordinates, or -1.
+     */
+    public int getPositionAt(float x, float y) {
+        if (!containsPoint(x, y) || itemCount == 0) return -1;
+        double offset = scrollY + (y - getAbsoluteY()) - getStyle().getPaddingTop();
+        if (offset < 0 || offset >= contentHeight - getStyle().getPaddingTop() - getStyle().getPaddingBottom()) {
+            return -1;
+        }
+        return indexAt(offset);
+    }
+
+    public void setShowScrollbar(boolean show) {
+        this.showScrollbar = show;
+        markDirty();
+    }
+
+    // Geometry
+
+    private double offsetOf(int position) {
+        return rowHeights != null ? heightIndex.offsetOf(position) : (double) position * rowHeight;
+    }
+
+    private float heightOf(int position) {
+        return rowHeights != null ? heightIndex.getHeight(position) : rowHeight;
+    }
+
+    private int indexAt(double offset) {
+        if (rowHeights != null) return heightIndex.indexAt(offset);
+        return (int) Math.min(itemCount - 1, Math.max(0, Math.floor(offset / rowHeight)));
+    }
+
+    private double maxScrollY() {
+        return Math.max(0, contentHeight - height);
+    }
+
+    // Layout
+
+    @Override
+    public void layout() {
+        double rows = rowHeights != null ? heightIndex.totalHeight() : (double) itemCount * rowHeight;
+        contentHeight = itemCount > 0 ? rows + getStyle().getPaddingTop() + getStyle().getPaddingBottom() : 0;
+        scrollY = Math.max(0, Math.min(scrollY, maxScrollY()));
+        realize(true);
+    }
+
+    // Realizes the rows that intersect the viewport
+    private void realize(boolean relayout) {
+        if (itemCount == 0) {
+            firstPosition = 0;
+            endPosition = 0;
+        } else {
+            double top = scrollY - getStyle().getPaddingTop();
+            firstPosition = indexAt(Math.max(0, top));
+            int last = indexAt(Math.max(0, top + height));
+            endPosition = Math.max(firstPosition, last + 1);
+        }
+        pool.realize(adapter, firstPosition, endPosition, relayout);
+    }
+
+    private void placeView(V view, int position) {
+        float padLeft = getStyle().getPaddingLeft();
+        float innerWidth = width - padLeft - getStyle().getPaddingRight();
+        float y = (float) (getStyle().getPaddingTop() + offsetOf(position) - scrollY);
+        view.arrange(padLeft, y, innerWidth, heightOf(position));
+    }
+
+    // Hit testing and rendering
+
+    @Override
+    public UIBaseElement getElementAt(float x, float y) {
+        // Realized rows may overhang the viewport at the top and bottom
+        return containsPoint(x, y) ? super.getElementAt(x, y) : null;
+    }
+
+    @Override
+    public void render(NVGRenderer renderer) {
+        if (!visible) return;
+
+        renderer.save();
+        renderer.setScissor(getAbsoluteX(), getAbsoluteY(), width, height);
+        super.render(renderer);
+        renderer.resetScissor();
+        renderer.restore();
+
+        if (showScrollbar) {
+            Scrollbars.drawVertical(renderer, getAbsoluteX() + width - Scrollbars.WIDTH, getAbsoluteY(), height,
+                                    height, contentHeight, scrollY);
+        }
+    }
+}
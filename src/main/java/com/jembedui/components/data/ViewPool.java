@@ -0,0 +1,143 @@
+package com.jembedui.components.data;
+
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recycled item views of a virtualized container.
+ * <p>
+ * Views are created on demand, added to the owner once and never removed:
+ * views not needed for the current range stay attached but hidden. When the
+ * range moves, views still showing an item in range keep it and only the
+ * others are rebound, so scrolling by one row rebinds one row.
+ */
+final class ViewPool<V extends UIBaseElement> {
+
+    /**
+     * Positions and sizes a realized view for its item.
+     */
+    interface Placer<V> {
+        void place(V view, int position);
+    }
+
+    private final UIContainer owner;
+    private final Placer<V> placer;
+
+    // Every view created so far, in child order; boundPositions[i] is the item views.get(i) shows, or -1
+    private final List<V> views = new ArrayList<>();
+    private int[] boundPositions = new int[0];
+    private int[] slotViews = new int[0];
+    private int[] freeViews = new int[0];
+
+    ViewPool(UIContainer owner, Placer<V> placer) {
+        this.owner = owner;
+        this.placer = placer;
+    }
+
+    int size() {
+        return views.size();
+    }
+
+    /**
+     * Realizes the items in {@code [first, end)} and hides every other view. Views
+     * that are rebound, or all realized views when {@code relayout} is set, are laid out.
+     */
+    void realize(ItemAdapter<V> adapter, int first, int end, boolean relayout) {
+        int needed = end - first;
+        owner.beginLayout();
+        try {
+            ensureViews(adapter, needed);
+
+            // Keep views already showing an item in range; collect the others
+            Arrays.fill(slotViews, 0, needed, -1);
+            int free = 0;
+            for (int i = 0, n = views.size(); i < n; i++) {
+                int position = boundPositions[i];
+                if (position >= first && position < end && slotViews[position - first] < 0) {
+                    slotViews[position - first] = i;
+                } else {
+                    freeViews[free++] = i;
+                }
+            }
+
+            for (int slot = 0; slot < needed; slot++) {
+                int position = first + slot;
+                boolean rebound = false;
+                int index = slotViews[slot];
+                if (index < 0) {
+                    index = freeViews[--free];
+                    boundPositions[index] = position;
+                    adapter.bindView(views.get(index), position);
+                    rebound = true;
+                }
+                V view = views.get(index);
+                placer.place(view, position);
+                view.setVisible(true);
+                if (rebound || relayout) {
+                    view.layout();
+                }
+            }
+
+            // Spare views stay attached but hidden until they are needed again
+            for (int i = 0; i < free; i++) {
+                int index = freeViews[i];
+                boundPositions[index] = -1;
+                views.get(index).setVisible(false);
+            }
+        } finally {
+            owner.endLayout();
+        }
+    }
+
+    /**
+     * Returns the view showing {@code position}, or null if it is not realized.
+     */
+    V findView(int position) {
+        for (int i = 0, n = views.size(); i < n; i++) {
+            if (boundPositions[i] == position) {
+                return views.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forgets which items the views show, so the next realize rebinds all of them.
+     */
+    void unbindAll() {
+        Arrays.fill(boundPositions, 0, views.size(), -1);
+    }
+
+    /**
+     * Drops every view, for example when the adapter that made them is replaced.
+     */
+    void clear() {
+        owner.removeAllChildren();
+        views.clear();
+        Arrays.fill(boundPositions, -1);
+    }
+
+    private void ensureViews(ItemAdapter<V> adapter, int needed) {
+        int existing = views.size();
+        if (needed > existing) {
+            List<V> created = new ArrayList<>(needed - existing);
+            for (int i = existing; i < needed; i++) {
+                created.add(adapter.createView());
+            }
+            views.addAll(created);
+            owner.addChildren(created);
+        }
+        if (boundPositions.length < views.size()) {
+            int capacity = Math.max(views.size(), boundPositions.length * 2);
+            int oldLength = boundPositions.length;
+            boundPositions = Arrays.copyOf(boundPositions, capacity);
+            Arrays.fill(boundPositions, oldLength, capacity, -1);
+            slotViews = new int[capacity];
+            freeViews = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.jembedui.components.display;
+
+/**
+ * Growing list of line start offsets, written by one indexing thread and read by the UI thread.
+ * <p>
+ * Offsets are stored in fixed-size blocks, so growing never copies the offsets
+ * already recorded. The list does not track its size: the writer fills entries
+ * first and then publishes the new count through a volatile field of its own,
+ * and a reader that reads that count first sees every entry below it.
+ */
+final class LineOffsets {
+
+    private static final int BLOCK_SHIFT = 16;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private volatile long[][] blocks = new long[16][];
+
+    long get(int index) {
+        return blocks[index >>> BLOCK_SHIFT][index & (BLOCK_SIZE - 1)];
+    }
+
+    /**
+     * Sets an entry without publishing it; the caller publishes the new count.
+     */
+    void add(int index, long offset) {
+        int block = index >>> BLOCK_SHIFT;
+        long[][] current = blocks;
+        if (block >= current.length) {
+            long[][] grown = new long[current.length * 2][];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            blocks = current = grown;
+        }
+        if (current[block] == null) {
+            current[block] = new long[BLOCK_SIZE];
+        }
+        current[block][index & (BLOCK_SIZE - 1)] = offset;
+    }
+}
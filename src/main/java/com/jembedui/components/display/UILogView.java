@@ -0,0 +1,477 @@
+package com.jembedui.components.display;
+
+import com.jembedui.components.Scrollbars;
+import com.jembedui.core.TimerWheel;
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.events.MouseEvent;
+import com.jembedui.events.UIEvent;
+import com.jembedui.render.NVGRenderer;
+import com.jembedui.style.Color;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.lwjgl.nanovg.NanoVG.NVG_ALIGN_LEFT;
+import static org.lwjgl.nanovg.NanoVG.NVG_ALIGN_MIDDLE;
+
+/**
+ * Read-only view of a text file of any size, such as a device log.
+ * <p>
+ * The file is memory-mapped, never read into the heap. Opening it only starts
+ * a background thread that records where each line starts; lines show up as
+ * they are indexed, and only the lines in view are decoded (as UTF-8) and
+ * drawn. While following, the view checks the file for appended data twice a
+ * second, indexes just the new bytes and keeps the last line in view, like
+ * {@code tail -f}. A file that shrinks is indexed again from the start.
+ */
+public class UILogView extends UIBaseElement {
+
+    private static final long FOLLOW_INTERVAL_MS = 500;
+    private static final int MAP_WINDOW = 1 << 26;
+    private static final int MAX_LINE_BYTES = 4096;
+
+    // One indexing thread shared by every log view
+    private static final ExecutorService INDEXER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jembedui-logindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * How far indexing has got: the number of line starts recorded and the file
+     * offset they cover. Published as one object so readers never pair a count
+     * with an end from a different pass.
+     */
+    private static final class Extent {
+        final int lineStarts;
+        final long end;
+
+        Extent(int lineStarts, long end) {
+            this.lineStarts = lineStarts;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Line starts of one file; replaced as a whole when the file is reopened or truncated.
+     */
+    private static final class Index {
+        final FileChannel channel;
+        final LineOffsets lines = new LineOffsets();
+        final AtomicInteger pendingJobs = new AtomicInteger();
+        // Written after the line starts it covers, so reading it first makes them visible
+        volatile Extent extent;
+        volatile boolean closed = false;
+        long requestedEnd = 0;   // UI thread only
+
+        Index(FileChannel channel) {
+            this.channel = channel;
+            lines.add(0, 0);
+            extent = new Extent(1, 0);
+        }
+    }
+
+    private Path path;
+    private Index index;
+    private boolean followTail = true;
+    private final TimerWheel.Timer followTimer = new TimerWheel.Timer(this::checkForGrowth);
+
+    // Mapped windows of the file for decoding visible lines, window w starting at w * MAP_WINDOW
+    private MappedByteBuffer[] windows = new MappedByteBuffer[0];
+    private long[] windowEnds = new long[0];
+    private final byte[] lineBytes = new byte[MAX_LINE_BYTES + 1];
+
+    private double scrollX = 0;
+    private double scrollY = 0;
+    private boolean atBottom = true; // Stays at the last line as lines arrive
+    private Extent seenExtent;
+    private boolean showScrollbar = true;
+
+    // Decoded visible lines, slot line % slots, valid while the line still ends at the same offset
+    private int[] cachedLines = new int[0];
+    private long[] cachedEnds = new long[0];
+    private String[] cachedText = new String[0];
+
+    public UILogView() {
+        super();
+        addEventListener(MouseEvent.class, this::handleMouseEvent);
+        style.setBackgroundColor(new Color(0.1f, 0.1f, 0.12f));
+        style.setForegroundColor(new Color(0.85f, 0.85f, 0.85f));
+    }
+
+    private void handleMouseEvent(MouseEvent event) {
+        if (event.getEventType() == MouseEvent.MouseEventType.MOUSE_WHEEL
+                && event.getPhase() != UIEvent.EventPhase.CAPTURE) {
+            setScrollY(scrollY + event.getWheelDeltaY() * Scrollbars.SCROLL_STEP);
+            setScrollX(scrollX + event.getWheelDeltaX() * Scrollbars.SCROLL_STEP);
+            event.stopPropagation();
+        }
+    }
+
+    // File
+
+    /**
+     * Shows a file. Returns as soon as the file is open; lines are indexed in the background.
+     */
+    public void open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        close();
+        this.path = path;
+        startIndex(channel);
+        if (getContext() != null && followTail) {
+            getContext().getTimers().schedule(followTimer, FOLLOW_INTERVAL_MS, FOLLOW_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Closes the file; the view becomes empty.
+     */
+    public void close() {
+        stopFollowTimer();
+        if (index != null) {
+            index.closed = true;
+            try {
+                index.channel.close();
+            } catch (IOException e) {
+                System.err.println("Warning: could not close " + path + ": " + e.getMessage());
+            }
+            index = null;
+        }
+        path = null;
+        resetView();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void startIndex(FileChannel channel) {
+        index = new Index(channel);
+        resetView();
+        checkForGrowth();
+    }
+
+    private void resetView() {
+        windows = new MappedByteBuffer[0];
+        windowEnds = new long[0];
+        Arrays.fill(cachedLines, -1);
+        scrollX = 0;
+        scrollY = 0;
+        atBottom = followTail;
+        seenExtent = null;
+        markDirty();
+    }
+
+    // Looks for appended data and indexes it in the background
+    private void checkForGrowth() {
+        Index current = index;
+        if (current == null) return;
+        long size;
+        try {
+            size = current.channel.size();
+        } catch (IOException e) {
+            System.err.println("Warning: could not read " + path + ": " + e.getMessage());
+            stopFollowTimer();
+            return;
+        }
+        if (size < current.requestedEnd) {
+            // Truncated or rotated in place: start over
+            current.closed = true;
+            startIndex(current.channel);
+            return;
+        }
+        if (size == current.requestedEnd) return;
+
+        long from = current.requestedEnd;
+        current.requestedEnd = size;
+        current.pendingJobs.incrementAndGet();
+        setTicking(true);
+        INDEXER.execute(() -> {
+            try {
+                indexRange(current, from, size);
+            } catch (IOException e) {
+                if (!current.closed) {
+                    System.err.println("Warning: could not index " + path + ": " + e.getMessage());
+                }
+            } finally {
+                current.pendingJobs.decrementAndGet();
+            }
+        });
+    }
+
+    // Runs on the indexing thread
+    private static void indexRange(Index target, long from, long to) throws IOException {
+        byte[] chunk = new byte[1 << 16];
+        int count = target.extent.lineStarts;
+        long position = from;
+        while (position < to && !target.closed) {
+            long windowSize = Math.min(MAP_WINDOW, to - position);
+            MappedByteBuffer window = target.channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            for (int offset = 0; offset < windowSize; offset += chunk.length) {
+                int length = (int) Math.min(chunk.length, windowSize - offset);
+                window.get(offset, chunk, 0, length);
+                for (int i = 0; i < length; i++) {
+                    if (chunk[i] == '\n') {
+                        target.lines.add(count++, position + offset + i + 1);
+                    }
+                }
+            }
+            position += windowSize;
+            target.extent = new Extent(count, position);
+        }
+    }
+
+    public boolean isIndexing() {
+        return index != null && index.pendingJobs.get() > 0;
+    }
+
+    /**
+     * Keeps checking the file for appended lines, and keeps the last line in view
+     * while the view is scrolled to the bottom.
+     */
+    public void setFollowTail(boolean followTail) {
+        this.followTail = followTail;
+        if (followTail && index != null && getContext() != null) {
+            getContext().getTimers().schedule(followTimer, FOLLOW_INTERVAL_MS, FOLLOW_INTERVAL_MS);
+        } else if (!followTail) {
+            stopFollowTimer();
+        }
+    }
+
+    public boolean isFollowTail() {
+        return followTail;
+    }
+
+    private void stopFollowTimer() {
+        if (getContext() != null) {
+            getContext().getTimers().cancel(followTimer);
+        }
+    }
+
+    @Override
+    protected void onAttach() {
+        if (followTail && index != null) {
+            getContext().getTimers().schedule(followTimer, FOLLOW_INTERVAL_MS, FOLLOW_INTERVAL_MS);
+        }
+    }
+
+    @Override
+    protected void onDetach() {
+        stopFollowTimer();
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        Index current = index;
+        if (current == null) {
+            setTicking(false);
+            return;
+        }
+        boolean busy = current.pendingJobs.get() > 0;
+        Extent extent = current.extent;
+        if (extent != seenExtent) {
+            seenExtent = extent;
+            if (atBottom && followTail) {
+                scrollY = maxScrollY();
+            }
+            markDirty();
+        }
+        if (!busy) {
+            setTicking(false);
+        }
+    }
+
+    // Lines
+
+    /**
+     * Returns the number of lines indexed so far. A newline at the very end of
+     * the file does not start another line.
+     */
+    public int getLineCount() {
+        Index current = index;
+        return current == null ? 0 : lineCount(current, current.extent);
+    }
+
+    private static int lineCount(Index index, Extent extent) {
+        int count = extent.lineStarts;
+        return count > 1 && index.lines.get(count - 1) == extent.end ? count - 1 : count;
+    }
+
+    /**
+     * Decodes one line, without its line break. Lines longer than 4096 bytes are cut off
+     * at the last whole character.
+     */
+    public String getLine(int line) {
+        Index current = index;
+        Extent extent = current == null ? null : current.extent;
+        int lineCount = current == null ? 0 : lineCount(current, extent);
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " of " + lineCount);
+        }
+        int slots = cachedLines.length;
+        long end = line + 1 < extent.lineStarts ? current.lines.get(line + 1) - 1 : extent.end;
+        if (slots > 0) {
+            int slot = line % slots;
+            if (cachedLines[slot] == line && cachedEnds[slot] == end) {
+                return cachedText[slot];
+            }
+        }
+        String text = decode(current.lines.get(line), end);
+        if (slots > 0) {
+            int slot = line % slots;
+            cachedLines[slot] = line;
+            cachedEnds[slot] = end;
+            cachedText[slot] = text;
+        }
+        return text;
+    }
+
+    private String decode(long start, long end) {
+        boolean truncated = end - start > MAX_LINE_BYTES;
+        // One byte past the limit shows whether the cut falls inside a character
+        int length = (int) Math.min(end - start, MAX_LINE_BYTES + 1);
+        if (length <= 0) return "";
+        try {
+            MappedByteBuffer window = windowFor(start, start + length);
+            window.get((int) (start - (start / MAP_WINDOW) * MAP_WINDOW), lineBytes, 0, length);
+        } catch (IOException e) {
+            System.err.println("Warning: could not read " + path + ": " + e.getMessage());
+            return "";
+        }
+        if (truncated) {
+            // Back up over continuation bytes to the start of the split character
+            length = MAX_LINE_BYTES;
+            while (length > MAX_LINE_BYTES - 3 && (lineBytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+        } else if (lineBytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Windows overlap by the longest decoded line, so any line fits in the window it starts in
+    private MappedByteBuffer windowFor(long start, long end) throws IOException {
+        int window = (int) (start / MAP_WINDOW);
+        if (window >= windows.length) {
+            windows = Arrays.copyOf(windows, window + 1);
+            windowEnds = Arrays.copyOf(windowEnds, window + 1);
+        }
+        if (windows[window] == null || windowEnds[window] < end) {
+            long base = (long) window * MAP_WINDOW;
+            long size = Math.min(index.extent.end, base + MAP_WINDOW + MAX_LINE_BYTES + 1) - base;
+            windows[window] = index.channel.map(FileChannel.MapMode.READ_ONLY, base, size);
+            windowEnds[window] = base + size;
+        }
+        return windows[window];
+    }
+
+    // Scrolling
+
+    public double getScrollY() {
+        return scrollY;
+    }
+
+    public void setScrollY(double scrollY) {
+        double clamped = Math.max(0, Math.min(scrollY, maxScrollY()));
+        atBottom = clamped >= maxScrollY();
+        if (clamped == this.scrollY) return;
+        this.scrollY = clamped;
+        markDirty();
+    }
+
+    public double getScrollX() {
+        return scrollX;
+    }
+
+    public void setScrollX(double scrollX) {
+        double clamped = Math.max(0, scrollX);
+        if (clamped == this.scrollX) return;
+        this.scrollX = clamped;
+        markDirty();
+    }
+
+    /**
+     * Scrolls the least distance that brings {@code line} into view.
+     */
+    public void scrollToLine(int line) {
+        double top = (double) line * lineHeight();
+        double viewHeight = viewHeight();
+        if (top < scrollY) {
+            setScrollY(top);
+        } else if (top + lineHeight() > scrollY + viewHeight) {
+            setScrollY(top + lineHeight() - viewHeight);
+        }
+    }
+
+    public void setShowScrollbar(boolean show) {
+        this.showScrollbar = show;
+        markDirty();
+    }
+
+    private float lineHeight() {
+        return style.getFontSize() * 1.3f;
+    }
+
+    private double viewHeight() {
+        return height - style.getPaddingTop() - style.getPaddingBottom();
+    }
+
+    private double maxScrollY() {
+        return Math.max(0, (double) getLineCount() * lineHeight() - viewHeight());
+    }
+
+    // Rendering
+
+    @Override
+    public void render(NVGRenderer renderer) {
+        if (!visible) return;
+        super.render(renderer);
+
+        float left = getAbsoluteX() + style.getPaddingLeft();
+        float top = getAbsoluteY() + style.getPaddingTop();
+        float viewWidth = width - style.getPaddingLeft() - style.getPaddingRight();
+        float viewHeight = (float) viewHeight();
+        float lineHeight = lineHeight();
+        int visibleLines = (int) Math.ceil(viewHeight / lineHeight) + 1;
+        if (cachedLines.length < visibleLines * 2) {
+            cachedLines = new int[visibleLines * 2];
+            Arrays.fill(cachedLines, -1);
+            cachedEnds = new long[visibleLines * 2];
+            cachedText = new String[visibleLines * 2];
+        }
+
+        int lineCount = getLineCount();
+        renderer.save();
+        renderer.setScissor(left, top, viewWidth, viewHeight);
+        int first = (int) (scrollY / lineHeight);
+        int end = Math.min(lineCount, first + visibleLines);
+        float x = (float) (left - scrollX);
+        int color = style.getForegroundRGBA();
+        for (int line = first; line < end; line++) {
+            String text = getLine(line);
+            if (text.isEmpty()) continue;
+            float y = (float) (top + line * (double) lineHeight - scrollY);
+            renderer.drawText(x, y + lineHeight / 2, text, "default", style.getFontSize(), color,
+                NVG_ALIGN_LEFT | NVG_ALIGN_MIDDLE);
+        }
+        renderer.resetScissor();
+        renderer.restore();
+
+        double contentHeight = (double) lineCount * lineHeight;
+        if (showScrollbar) {
+            // The track spans the whole view, padding included; the thumb shows the share of lines in view
+            Scrollbars.drawVertical(renderer, getAbsoluteX() + width - Scrollbars.WIDTH, getAbsoluteY(), height,
+                                    viewHeight, contentHeight, scrollY);
+        }
+        markClean();
+    }
+}
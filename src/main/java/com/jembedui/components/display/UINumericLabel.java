@@ -0,0 +1,234 @@
+package com.jembedui.components.display;
+
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.render.NVGRenderer;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.lwjgl.nanovg.NanoVG.*;
+
+/**
+ * Label for a number that changes often, such as an RPM, voltage or temperature readout.
+ * <p>
+ * Values are passed as primitives and formatted with a fixed precision, zero padding
+ * and unit suffix straight into a reused UTF-8 buffer, which the renderer draws
+ * as is. Updating and drawing the value allocate nothing, unlike
+ * {@code UIText.setText(String.format(...))}. Values too large for a {@code long}
+ * after scaling fall back to {@link Double#toString}.
+ */
+public class UINumericLabel extends UIBaseElement {
+
+    private static final float LINE_HEIGHT = 1.2f;
+    private static final int MAX_PRECISION = 9;
+    private static final long[] POWERS_OF_TEN = {
+        1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+    };
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INFINITY = "Inf".getBytes(StandardCharsets.US_ASCII);
+
+    private int precision;
+    private int minIntegerDigits = 1;
+    private byte[] units = new byte[0];
+    private String unitsText = "";
+    private int align = NVG_ALIGN_RIGHT | NVG_ALIGN_MIDDLE;
+
+    private double value = 0;
+    private final byte[] digits = new byte[20];
+    private ByteBuffer utf8;
+
+    public UINumericLabel() {
+        this(0, "");
+    }
+
+    public UINumericLabel(int precision, String units) {
+        super();
+        setPrecision(precision);
+        setUnits(units);
+    }
+
+    // Value
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Shows {@code value} rounded to the label's precision. Does nothing, not even
+     * a redraw, when the value is unchanged.
+     */
+    public void setValue(double value) {
+        if (Double.doubleToLongBits(value) == Double.doubleToLongBits(this.value)) return;
+        this.value = value;
+        format();
+    }
+
+    /**
+     * Returns the text currently shown. Allocates; meant for tests and debugging.
+     */
+    public String getText() {
+        byte[] bytes = new byte[utf8.remaining()];
+        utf8.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Format
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Sets the number of digits after the decimal point, from 0 to 9.
+     */
+    public void setPrecision(int precision) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        reformat();
+    }
+
+    public int getMinIntegerDigits() {
+        return minIntegerDigits;
+    }
+
+    /**
+     * Pads the integer part with leading zeros to at least this many digits.
+     */
+    public void setMinIntegerDigits(int minIntegerDigits) {
+        if (minIntegerDigits < 1 || minIntegerDigits > digits.length) {
+            throw new IllegalArgumentException("Min integer digits must be between 1 and " + digits.length
+                                               + ": " + minIntegerDigits);
+        }
+        this.minIntegerDigits = minIntegerDigits;
+        reformat();
+    }
+
+    public String getUnits() {
+        return unitsText;
+    }
+
+    /**
+     * Sets the suffix drawn after the number, such as {@code " rpm"} or {@code "°C"}.
+     */
+    public void setUnits(String units) {
+        this.unitsText = units == null ? "" : units;
+        this.units = unitsText.getBytes(StandardCharsets.UTF_8);
+        reformat();
+    }
+
+    public int getAlign() {
+        return align;
+    }
+
+    public void setAlign(int align) {
+        this.align = align;
+        markDirty();
+    }
+
+    // Format changes may need a bigger buffer and change the measured width
+    private void reformat() {
+        // Sign, integer digits, decimal point, fraction and units
+        int capacity = 1 + Math.max(digits.length, minIntegerDigits) + 1 + precision + units.length;
+        if (utf8 == null || utf8.capacity() < capacity) {
+            utf8 = BufferUtils.createByteBuffer(capacity);
+        }
+        format();
+        invalidateMeasure();
+    }
+
+    private void format() {
+        ByteBuffer out = utf8;
+        out.clear();
+        double magnitude = Math.abs(value);
+        long scale = POWERS_OF_TEN[precision];
+        if (Double.isNaN(value)) {
+            out.put(NAN);
+        } else if (Double.isInfinite(value)) {
+            if (value < 0) out.put((byte) '-');
+            out.put(INFINITY);
+        } else if (magnitude * scale >= 9e18) {
+            // Rare enough that allocating here is acceptable
+            String text = Double.toString(value);
+            if (out.capacity() < text.length() + units.length) {
+                utf8 = out = BufferUtils.createByteBuffer(text.length() + units.length);
+            }
+            out.put(text.getBytes(StandardCharsets.US_ASCII));
+        } else {
+            long scaled = Math.round(magnitude * scale);
+            if (value < 0 && scaled != 0) out.put((byte) '-');
+            writeDigits(out, scaled / scale, minIntegerDigits);
+            if (precision > 0) {
+                out.put((byte) '.');
+                writeDigits(out, scaled % scale, precision);
+            }
+        }
+        out.put(units);
+        out.flip();
+        markDirty();
+    }
+
+    private void writeDigits(ByteBuffer out, long number, int minDigits) {
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+        while (digits.length - start < minDigits) {
+            digits[--start] = '0';
+        }
+        out.put(digits, start, digits.length - start);
+    }
+
+    // Measure and render
+
+    /**
+     * When auto-sized, measures a sample with a sign, the minimum integer digits and
+     * the full precision, so the width stays put as the value changes.
+     */
+    @Override
+    protected void onMeasure(float availableWidth, float availableHeight) {
+        if (!isAutoSize()) {
+            super.onMeasure(availableWidth, availableHeight);
+            return;
+        }
+        String sample = "-" + "0".repeat(minIntegerDigits) + (precision > 0 ? "." + "0".repeat(precision) : "")
+                        + unitsText;
+        float fontSize = style.getFontSize();
+        setMeasuredSize(measureTextWidth(sample, fontSize) + style.getPaddingLeft() + style.getPaddingRight(),
+                        fontSize * LINE_HEIGHT + style.getPaddingTop() + style.getPaddingBottom());
+    }
+
+    @Override
+    public void render(NVGRenderer renderer) {
+        if (!visible) return;
+
+        super.render(renderer);
+
+        float ax = getAbsoluteX();
+        float ay = getAbsoluteY();
+        float textX;
+        if ((align & NVG_ALIGN_CENTER) != 0) {
+            textX = ax + (style.getPaddingLeft() + width - style.getPaddingRight()) / 2;
+        } else if ((align & NVG_ALIGN_RIGHT) != 0) {
+            textX = ax + width - style.getPaddingRight();
+        } else {
+            textX = ax + style.getPaddingLeft();
+        }
+        float textY;
+        if ((align & NVG_ALIGN_MIDDLE) != 0) {
+            textY = ay + (style.getPaddingTop() + height - style.getPaddingBottom()) / 2;
+        } else if ((align & NVG_ALIGN_BOTTOM) != 0) {
+            textY = ay + height - style.getPaddingBottom();
+        } else {
+            textY = ay + style.getPaddingTop();
+        }
+
+        int color = style.getForegroundRGBA();
+        renderer.drawText(textX, textY, utf8, "default", style.getFontSize(), color, align);
+
+        markClean();
+    }
+}
@@ -1,18 +1,61 @@
 package com.jembedui.components.display;
 
 import com.jembedui.core.UIBaseElement;
+import com.jembedui.render.EncodedText;
 import com.jembedui.render.NVGRenderer;
-import com.jembedui.style.Color;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.lwjgl.nanovg.NanoVG.*;
 
 /**
  * Text display component.
+ * <p>
+ * With an {@link Overflow} other than {@code VISIBLE}, the text is clipped to the
+ * element, shortened with an ellipsis or wrapped onto several lines. The resulting
+ * lines are computed once per text, width and font size and reused by every frame
+ * until one of them changes.
  */
 public class UIText extends UIBaseElement {
     
+    private static final float LINE_HEIGHT = 1.2f;
+    private static final String ELLIPSIS = "\u2026";
+    private static final String[] NO_LINES = new String[0];
+    
+    /**
+     * What to do with text wider than the element.
+     */
+    public enum Overflow {
+        /** Draw the text as one line, past the element's bounds if needed. */
+        VISIBLE,
+        /** Draw one line, clipped to the element. */
+        CLIP,
+        /** Draw one line, cut short with an ellipsis when it does not fit. */
+        ELLIPSIS,
+        /** Break the text into lines at word boundaries. */
+        WRAP
+    }
+    
     private String text = "";
     private int align = NVG_ALIGN_LEFT | NVG_ALIGN_TOP;
+    private Overflow overflow = Overflow.VISIBLE;
+    private int maxLines = 0;
+    
+    // Lines for the current layout key; recomputed only when the key changes
+    private String[] lines = NO_LINES;
+    private float linesWidth = 0;
+    private String layoutText;
+    private float layoutWidth = Float.NaN;
+    private float layoutFontSize;
+    private Overflow layoutOverflow;
+    private int layoutMaxLines;
+    private boolean layoutMeasured;
+    
+    // UTF-8 copies of the drawn lines, re-encoded only when a line changes
+    private EncodedText[] encoded = new EncodedText[0];
     
     public UIText() {
         super();
@@ -37,6 +80,7 @@ public class UIText extends UIBaseElement {
     public void setText(String text) {
         this.text = text;
         markDirty();
+        invalidateMeasure();
     }
     
     public void setAlign(int align) {
@@ -44,6 +88,63 @@ public class UIText extends UIBaseElement {
         markDirty();
     }
     
+    public int getAlign() {
+        return align;
+    }
+    
+    public Overflow getOverflow() {
+        return overflow;
+    }
+    
+    public void setOverflow(Overflow overflow) {
+        if (overflow == null) {
+            throw new IllegalArgumentException("Overflow must not be null");
+        }
+        if (this.overflow == overflow) return;
+        this.overflow = overflow;
+        markDirty();
+        invalidateMeasure();
+    }
+    
+    public int getMaxLines() {
+        return maxLines;
+    }
+    
+    /**
+     * Limits wrapped text to this many lines, ending the last one with an
+     * ellipsis when text is cut. Zero means no limit.
+     */
+    public void setMaxLines(int maxLines) {
+        if (maxLines < 0) {
+            throw new IllegalArgumentException("Max lines must be non-negative: " + maxLines);
+        }
+        if (this.maxLines == maxLines) return;
+        this.maxLines = maxLines;
+        markDirty();
+        invalidateMeasure();
+    }
+    
+    @Override
+    protected void onMeasure(float availableWidth, float availableHeight) {
+        if (!isAutoSize()) {
+            super.onMeasure(availableWidth, availableHeight);
+            return;
+        }
+        float fontSize = style.getFontSize();
+        float padX = style.getPaddingLeft() + style.getPaddingRight();
+        float padY = style.getPaddingTop() + style.getPaddingBottom();
+        switch (overflow) {
+            case VISIBLE -> setMeasuredSize(measureTextWidth(text, fontSize) + padX, fontSize * LINE_HEIGHT + padY);
+            case CLIP, ELLIPSIS -> setMeasuredSize(Math.min(measureTextWidth(text, fontSize) + padX, availableWidth),
+                                                   fontSize * LINE_HEIGHT + padY);
+            case WRAP -> {
+                // Unbounded width keeps each paragraph on one line
+                layout(Float.isFinite(availableWidth) ? Math.max(0, availableWidth - padX) : Float.POSITIVE_INFINITY);
+                setMeasuredSize(linesWidth + padX, Math.max(1, lines.length) * fontSize * LINE_HEIGHT + padY);
+            }
+        }
+    }
+    
     @Override
     public void render(NVGRenderer renderer) {
         if (!visible) return;
@@ -51,12 +152,146 @@ public class UIText extends UIBaseElement {
         super.render(renderer);
         
         float fontSize = style.getFontSize();
-        Color color = style.getForegroundColor();
+        int color = style.getForegroundRGBA();
+        
+        if (overflow == Overflow.VISIBLE) {
+            renderer.drawText(getAbsoluteX() + style.getPaddingLeft(), 
+                             getAbsoluteY() + style.getPaddingTop() + fontSize, 
+                             encoded(0, text), "default", fontSize, color, align);
+            markClean();
+            return;
+        }
+        
+        float ax = getAbsoluteX();
+        float ay = getAbsoluteY();
+        float contentWidth = Math.max(0, width - style.getPaddingLeft() - style.getPaddingRight());
+        String[] shown = layout(contentWidth);
+        
+        float textX;
+        if ((align & NVG_ALIGN_CENTER) != 0) {
+            textX = ax + style.getPaddingLeft() + contentWidth / 2;
+        } else if ((align & NVG_ALIGN_RIGHT) != 0) {
+            textX = ax + width - style.getPaddingRight();
+        } else {
+            textX = ax + style.getPaddingLeft();
+        }
+        float textY = ay + style.getPaddingTop() + fontSize;
         
-        renderer.drawText(getAbsoluteX() + style.getPaddingLeft(), 
-                         getAbsoluteY() + style.getPaddingTop() + fontSize, 
-                         text, "default", fontSize, color, align);
+        renderer.save();
+        renderer.intersectScissor(ax, ay, width, height);
+        for (int i = 0; i < shown.length; i++) {
+            if (textY - fontSize > ay + height) break;
+            renderer.drawText(textX, textY, encoded(i, shown[i]), "default", fontSize, color, align);
+            textY += fontSize * LINE_HEIGHT;
+        }
+        renderer.restore();
 
         markClean();
     }
+    
+    private ByteBuffer encoded(int line, String text) {
+        if (line >= encoded.length) {
+            encoded = Arrays.copyOf(encoded, Math.max(line + 1, encoded.length * 2));
+        }
+        if (encoded[line] == null) {
+            encoded[line] = new EncodedText();
+        }
+        return encoded[line].encode(text);
+    }
+    
+    // Layout
+    
+    /**
+     * Returns the lines to draw within {@code contentWidth}, reusing the last
+     * result while the text, width, font size and overflow settings are unchanged.
+     * Results estimated while detached are replaced once a renderer is available.
+     */
+    private String[] layout(float contentWidth) {
+        float fontSize = style.getFontSize();
+        boolean measured = getContext() != null && getContext().getRenderer() != null;
+        if (text == layoutText && contentWidth == layoutWidth && fontSize == layoutFontSize
+                && overflow == layoutOverflow && maxLines == layoutMaxLines && measured == layoutMeasured) {
+            return lines;
+        }
+        layoutText = text;
+        layoutWidth = contentWidth;
+        layoutFontSize = fontSize;
+        layoutOverflow = overflow;
+        layoutMaxLines = maxLines;
+        layoutMeasured = measured;
+        
+        if (text.isEmpty()) {
+            lines = NO_LINES;
+        } else {
+            lines = switch (overflow) {
+                case VISIBLE, CLIP -> new String[] { text };
+                case ELLIPSIS -> new String[] { ellipsize(text, contentWidth, fontSize, false) };
+                case WRAP -> wrap(contentWidth, fontSize, measured);
+            };
+        }
+        
+        linesWidth = 0;
+        for (String line : lines) {
+            linesWidth = Math.max(linesWidth, measureTextWidth(line, fontSize));
+        }
+        return lines;
+    }
+    
+    private String[] wrap(float contentWidth, float fontSize, boolean measured) {
+        String[] wrapped;
+        if (measured) {
+            wrapped = getContext().getRenderer().breakLines(text, fontSize, contentWidth);
+        } else {
+            wrapped = estimateBreaks(contentWidth, fontSize);
+        }
+        if (maxLines > 0 && wrapped.length > maxLines) {
+            String[] limited = new String[maxLines];
+            System.arraycopy(wrapped, 0, limited, 0, maxLines);
+            limited[maxLines - 1] = ellipsize(limited[maxLines - 1], contentWidth, fontSize, true);
+            return limited;
+        }
+        return wrapped;
+    }
+    
+    // Greedy word wrap on estimated widths, used until a renderer is available
+    private String[] estimateBreaks(float contentWidth, float fontSize) {
+        List<String> result = new ArrayList<>();
+        for (String paragraph : text.split("\n", -1)) {
+            StringBuilder line = new StringBuilder();
+            for (String word : paragraph.split(" ")) {
+                if (word.isEmpty()) continue;
+                if (line.length() > 0 && measureTextWidth(line + " " + word, fontSize) > contentWidth) {
+                    result.add(line.toString());
+                    line.setLength(0);
+                }
+                if (line.length() > 0) line.append(' ');
+                line.append(word);
+            }
+            result.add(line.toString());
+        }
+        return result.toArray(NO_LINES);
+    }
+    
+    /**
+     * Shortens {@code line} to fit {@code maxWidth} with a trailing ellipsis.
+     * Unless {@code force} is set, a line that already fits is returned as is.
+     */
+    private String ellipsize(String line, float maxWidth, float fontSize, boolean force) {
+        if (!force && measureTextWidth(line, fontSize) <= maxWidth) {
+            return line;
+        }
+        // Longest prefix that still fits together with the ellipsis
+        int low = 0;
+        int high = line.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (measureTextWidth(line.substring(0, mid) + ELLIPSIS, fontSize) <= maxWidth) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (low > 0 && Character.isHighSurrogate(line.charAt(low - 1))) low--;
+        return line.substring(0, low).stripTrailing() + ELLIPSIS;
+    }
 }
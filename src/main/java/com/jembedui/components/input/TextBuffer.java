@@ -0,0 +1,207 @@
+package com.jembedui.components.input;
+
+import java.util.Arrays;
+
+/**
+ * Editable text with a line index, for {@link UITextArea}.
+ * <p>
+ * Characters live in a gap buffer: the free space sits at the last edit, so
+ * typing and deleting there are O(1) and moving to another spot costs the
+ * distance moved. Line starts use the same trick: starts before the gap are
+ * stored as offsets from the beginning of the text and starts after it as
+ * offsets from the end, so an edit only touches the lines it adds or removes
+ * and the lines below it shift for free.
+ */
+final class TextBuffer {
+
+    private char[] chars = new char[64];
+    private int gapStart = 0;
+    private int gapEnd = chars.length;
+
+    // Line 0 starts at 0 and is always stored; lines [lineGapEnd, starts.length) are stored from the end
+    private int[] starts = new int[16];
+    private int lineGapStart = 1;
+    private int lineGapEnd = starts.length;
+
+    int length() {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    char charAt(int index) {
+        return index < gapStart ? chars[index] : chars[index + gapEnd - gapStart];
+    }
+
+    /**
+     * Replaces the whole text in O(n).
+     */
+    void setText(CharSequence text) {
+        int length = text.length();
+        chars = new char[Math.max(64, length + length / 4)];
+        for (int i = 0; i < length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        gapStart = length;
+        gapEnd = chars.length;
+
+        starts = new int[16];
+        lineGapStart = 1;
+        lineGapEnd = starts.length;
+        for (int i = 0; i < length; i++) {
+            if (chars[i] == '\n') {
+                addLineStart(i + 1);
+            }
+        }
+    }
+
+    void insert(int position, CharSequence text) {
+        checkPosition(position);
+        int count = text.length();
+        if (count == 0) return;
+        int line = lineOf(position);
+        moveLineGap(line + 1);
+        moveGap(position);
+        ensureGap(count);
+        for (int i = 0; i < count; i++) {
+            char c = text.charAt(i);
+            chars[gapStart++] = c;
+            if (c == '\n') {
+                addLineStart(position + i + 1);
+            }
+        }
+    }
+
+    void delete(int position, int count) {
+        checkPosition(position);
+        if (count < 0 || position + count > length()) {
+            throw new IndexOutOfBoundsException("Range " + position + "+" + count + " of " + length());
+        }
+        if (count == 0) return;
+        // Lines that start inside the deleted range, that is after a deleted newline, go away
+        int line = lineOf(position);
+        moveLineGap(line + 1);
+        int length = length();
+        while (lineGapEnd < starts.length && length - starts[lineGapEnd] <= position + count) {
+            lineGapEnd++;
+        }
+        moveGap(position);
+        gapEnd += count;
+    }
+
+    String substring(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("Range " + start + ".." + end + " of " + length());
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        appendTo(builder, start, end);
+        return builder.toString();
+    }
+
+    void appendTo(StringBuilder builder, int start, int end) {
+        if (start < gapStart) {
+            builder.append(chars, start, Math.min(end, gapStart) - start);
+        }
+        if (end > gapStart) {
+            int from = Math.max(start, gapStart) + gapEnd - gapStart;
+            builder.append(chars, from, end + gapEnd - gapStart - from);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return substring(0, length());
+    }
+
+    // Lines
+
+    int lineCount() {
+        return lineGapStart + (starts.length - lineGapEnd);
+    }
+
+    int lineStart(int line) {
+        if (line < lineGapStart) {
+            return starts[line];
+        }
+        return length() - starts[line + lineGapEnd - lineGapStart];
+    }
+
+    /**
+     * Returns where the line ends, not counting its newline.
+     */
+    int lineEnd(int line) {
+        return line + 1 < lineCount() ? lineStart(line + 1) - 1 : length();
+    }
+
+    /**
+     * Returns the line containing {@code position}.
+     */
+    int lineOf(int position) {
+        int low = 0;
+        int high = lineCount() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lineStart(mid) <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Gap management
+
+    private void moveGap(int position) {
+        if (position < gapStart) {
+            int count = gapStart - position;
+            System.arraycopy(chars, position, chars, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (position > gapStart) {
+            int count = position - gapStart;
+            System.arraycopy(chars, gapEnd, chars, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    private void ensureGap(int needed) {
+        if (gapEnd - gapStart >= needed) return;
+        int length = length();
+        int capacity = Math.max(length + needed, chars.length * 2);
+        char[] grown = new char[capacity];
+        int tail = chars.length - gapEnd;
+        System.arraycopy(chars, 0, grown, 0, gapStart);
+        System.arraycopy(chars, gapEnd, grown, capacity - tail, tail);
+        chars = grown;
+        gapEnd = capacity - tail;
+    }
+
+    // Moves the line gap so that lines before {@code line} are stored from the start
+    private void moveLineGap(int line) {
+        int length = length();
+        while (lineGapStart > line) {
+            starts[--lineGapEnd] = length - starts[--lineGapStart];
+        }
+        while (lineGapStart < line) {
+            starts[lineGapStart++] = length - starts[lineGapEnd++];
+        }
+    }
+
+    // Adds a line start right after the line gap; the text before it must already be in place
+    private void addLineStart(int start) {
+        if (lineGapStart == lineGapEnd) {
+            int tail = starts.length - lineGapEnd;
+            int[] grown = Arrays.copyOf(starts, starts.length * 2);
+            System.arraycopy(starts, lineGapEnd, grown, grown.length - tail, tail);
+            lineGapEnd = grown.length - tail;
+            starts = grown;
+        }
+        starts[lineGapStart++] = start;
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position > length()) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + length());
+        }
+    }
+}
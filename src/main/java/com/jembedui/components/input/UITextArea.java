@@ -0,0 +1,516 @@
+package com.jembedui.components.input;
+
+import com.jembedui.core.TimerWheel;
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.events.KeyboardEvent;
+import com.jembedui.events.MouseEvent;
+import com.jembedui.events.UIEvent;
+import com.jembedui.render.NVGRenderer;
+import com.jembedui.style.Color;
+
+import java.util.Arrays;
+
+import static org.lwjgl.glfw.GLFW.*;
+import static org.lwjgl.nanovg.NanoVG.NVG_ALIGN_LEFT;
+import static org.lwjgl.nanovg.NanoVG.NVG_ALIGN_MIDDLE;
+
+/**
+ * Multi-line text editor.
+ * <p>
+ * The text is kept in a gap buffer with a line index, so typing is O(1) and
+ * finding a line is O(log n) however large the text is. Only the lines in view
+ * are turned into strings and measured, and those are cached until the line is
+ * edited, so scrolling through a multi-megabyte file redraws a screenful of
+ * cached lines.
+ */
+public class UITextArea extends UIBaseElement {
+
+    private static final long CURSOR_BLINK_INTERVAL_MS = 1000;
+    private static final float SCROLL_STEP = 20;
+    private static final float TEXT_INSET = 5;
+    private static final int FOCUSED_BACKGROUND = Color.WHITE.rgba();
+    private static final int BACKGROUND = Color.pack(0.95f, 0.95f, 0.95f);
+    private static final int FOCUSED_BORDER = Color.pack(0.2f, 0.6f, 0.8f);
+    private static final int BORDER = Color.pack(0.5f, 0.5f, 0.5f);
+    private static final int PLACEHOLDER = Color.pack(0.6f, 0.6f, 0.6f);
+
+    private final TextBuffer buffer = new TextBuffer();
+    private int cursorPosition = 0;
+    private int preferredColumn = -1; // Kept while moving up and down through shorter lines
+    private boolean focused = false;
+    private String placeholder = "";
+    private Runnable onChangeHandler;
+
+    private double scrollX = 0;
+    private double scrollY = 0;
+    private float widestLine = 0;
+
+    private final TimerWheel.Timer blinkTimer = new TimerWheel.Timer(this::toggleCursor);
+    private boolean cursorVisible = true;
+
+    // Strings, widths and caret positions of recently drawn lines, slot line % slots
+    private int[] cachedLines = new int[0];
+    private String[] cachedText = new String[0];
+    private float[] cachedWidths = new float[0];
+    private float[][] cachedCarets = new float[0][];
+
+    public UITextArea() {
+        super();
+        addEventListener(MouseEvent.class, this::handleMouseEvent);
+        addEventListener(KeyboardEvent.class, this::handleKeyboardEvent);
+        width = 300;
+        height = 150;
+    }
+
+    public UITextArea(String placeholder) {
+        this();
+        this.placeholder = placeholder;
+    }
+
+    private void handleMouseEvent(MouseEvent event) {
+        switch (event.getEventType()) {
+            case MOUSE_DOWN -> {
+                if (!focused) {
+                    focused = true;
+                    restartCursorBlink();
+                }
+                moveCursor(positionAt(event.getX(), event.getY()));
+            }
+            case MOUSE_WHEEL -> {
+                if (event.getPhase() == UIEvent.EventPhase.CAPTURE) return;
+                setScrollY(scrollY + event.getWheelDeltaY() * SCROLL_STEP);
+                setScrollX(scrollX + event.getWheelDeltaX() * SCROLL_STEP);
+                event.stopPropagation();
+            }
+            default -> { }
+        }
+    }
+
+    public void loseFocus() {
+        if (focused) {
+            focused = false;
+            stopCursorBlink();
+            markDirty();
+        }
+    }
+
+    @Override
+    protected void onFocusLost() {
+        loseFocus();
+    }
+
+    public boolean isFocused() {
+        return focused;
+    }
+
+    private void handleKeyboardEvent(KeyboardEvent event) {
+        if (!focused || !enabled) return;
+        if (event.getEventType() != KeyboardEvent.KeyEventType.KEY_DOWN) return;
+
+        restartCursorBlink();
+        int key = event.getKey();
+        int line = buffer.lineOf(cursorPosition);
+        int column = cursorPosition - buffer.lineStart(line);
+
+        switch (key) {
+            case GLFW_KEY_BACKSPACE -> {
+                if (cursorPosition > 0) delete(cursorPosition - 1, 1);
+            }
+            case GLFW_KEY_DELETE -> {
+                if (cursorPosition < buffer.length()) delete(cursorPosition, 1);
+            }
+            case GLFW_KEY_ENTER -> insert(cursorPosition, "\n");
+            case GLFW_KEY_TAB -> insert(cursorPosition, "    ");
+            case GLFW_KEY_LEFT -> moveCursor(cursorPosition - 1);
+            case GLFW_KEY_RIGHT -> moveCursor(cursorPosition + 1);
+            case GLFW_KEY_UP -> moveVertically(line, column, -1);
+            case GLFW_KEY_DOWN -> moveVertically(line, column, 1);
+            case GLFW_KEY_PAGE_UP -> moveVertically(line, column, -Math.max(1, visibleLineCount() - 1));
+            case GLFW_KEY_PAGE_DOWN -> moveVertically(line, column, Math.max(1, visibleLineCount() - 1));
+            case GLFW_KEY_HOME -> moveCursor(event.isControlDown() ? 0 : buffer.lineStart(line));
+            case GLFW_KEY_END -> moveCursor(event.isControlDown() ? buffer.length() : buffer.lineEnd(line));
+            default -> {
+                char c = event.getCharacter();
+                if (c >= 32 && c != 127) {
+                    insert(cursorPosition, String.valueOf(c));
+                }
+            }
+        }
+    }
+
+    private void moveVertically(int line, int column, int lines) {
+        if (preferredColumn < 0) {
+            preferredColumn = column;
+        }
+        int target = Math.max(0, Math.min(buffer.lineCount() - 1, line + lines));
+        int start = buffer.lineStart(target);
+        int keep = preferredColumn;
+        moveCursor(Math.min(start + keep, buffer.lineEnd(target)));
+        preferredColumn = keep;
+    }
+
+    private void notifyChange() {
+        if (onChangeHandler != null) {
+            onChangeHandler.run();
+        }
+    }
+
+    // Content
+
+    /**
+     * Builds the whole text as a string; prefer {@link #getLine} for large texts.
+     */
+    public String getText() {
+        return buffer.toString();
+    }
+
+    public void setText(String text) {
+        buffer.setText(text);
+        cursorPosition = 0;
+        preferredColumn = -1;
+        scrollX = 0;
+        scrollY = 0;
+        widestLine = 0;
+        Arrays.fill(cachedLines, -1);
+        markDirty();
+    }
+
+    public int getLength() {
+        return buffer.length();
+    }
+
+    public int getLineCount() {
+        return buffer.lineCount();
+    }
+
+    /**
+     * Returns a line without its newline.
+     */
+    public String getLine(int line) {
+        if (line < 0 || line >= buffer.lineCount()) {
+            throw new IndexOutOfBoundsException("Line " + line + " of " + buffer.lineCount());
+        }
+        return buffer.substring(buffer.lineStart(line), buffer.lineEnd(line));
+    }
+
+    /**
+     * Returns the line containing a character position.
+     */
+    public int getLineOf(int position) {
+        return buffer.lineOf(position);
+    }
+
+    public int getLineStart(int line) {
+        return buffer.lineStart(line);
+    }
+
+    public void insert(int position, String text) {
+        if (text.isEmpty()) return;
+        int line = buffer.lineOf(position);
+        buffer.insert(position, text);
+        int added = buffer.lineOf(position + text.length()) - line;
+        shiftCache(line, 0, added);
+        if (cursorPosition >= position) {
+            cursorPosition += text.length();
+        }
+        edited();
+    }
+
+    public void delete(int position, int count) {
+        if (count == 0) return;
+        int line = buffer.lineOf(position);
+        int removed = buffer.lineOf(Math.min(buffer.length(), position + count)) - line;
+        buffer.delete(position, count);
+        shiftCache(line, removed, -removed);
+        if (cursorPosition > position) {
+            cursorPosition = Math.max(position, cursorPosition - count);
+        }
+        edited();
+    }
+
+    private void edited() {
+        preferredColumn = -1;
+        scrollToCursor();
+        markDirty();
+        notifyChange();
+    }
+
+    public void setPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+        markDirty();
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    public void setOnChange(Runnable handler) {
+        this.onChangeHandler = handler;
+    }
+
+    // Cursor
+
+    public int getCursorPosition() {
+        return cursorPosition;
+    }
+
+    public void setCursorPosition(int position) {
+        moveCursor(position);
+    }
+
+    private void moveCursor(int position) {
+        position = Math.max(0, Math.min(buffer.length(), position));
+        preferredColumn = -1;
+        if (position == cursorPosition) return;
+        cursorPosition = position;
+        scrollToCursor();
+        markDirty();
+    }
+
+    private void scrollToCursor() {
+        int line = buffer.lineOf(cursorPosition);
+        double top = (double) line * lineHeight();
+        double viewHeight = height - 2 * TEXT_INSET;
+        if (top < scrollY) {
+            scrollY = top;
+        } else if (top + lineHeight() > scrollY + viewHeight) {
+            scrollY = top + lineHeight() - viewHeight;
+        }
+        float x = cursorOffset(line);
+        double viewWidth = width - 2 * TEXT_INSET;
+        if (x < scrollX) {
+            scrollX = x;
+        } else if (x > scrollX + viewWidth) {
+            scrollX = x - viewWidth;
+        }
+    }
+
+    // Scrolling
+
+    public double getScrollY() {
+        return scrollY;
+    }
+
+    public void setScrollY(double scrollY) {
+        double max = Math.max(0, (double) buffer.lineCount() * lineHeight() - (height - 2 * TEXT_INSET));
+        double clamped = Math.max(0, Math.min(scrollY, max));
+        if (clamped == this.scrollY) return;
+        this.scrollY = clamped;
+        markDirty();
+    }
+
+    public double getScrollX() {
+        return scrollX;
+    }
+
+    public void setScrollX(double scrollX) {
+        double clamped = Math.max(0, Math.min(scrollX, widestLine - (width - 2 * TEXT_INSET)));
+        if (clamped == this.scrollX) return;
+        this.scrollX = clamped;
+        markDirty();
+    }
+
+    // Geometry
+
+    private float lineHeight() {
+        return style.getFontSize() * 1.3f;
+    }
+
+    private int visibleLineCount() {
+        return (int) Math.ceil((height - 2 * TEXT_INSET) / lineHeight()) + 1;
+    }
+
+    // Character position under a point in window coordinates
+    private int positionAt(float x, float y) {
+        double offsetY = scrollY + (y - getAbsoluteY() - TEXT_INSET);
+        int line = (int) Math.max(0, Math.min(buffer.lineCount() - 1, Math.floor(offsetY / lineHeight())));
+        float[] carets = caretPositions(line);
+        double offsetX = scrollX + (x - getAbsoluteX() - TEXT_INSET);
+
+        // Binary search for the first column whose character's middle lies past the point
+        int low = 0;
+        int high = carets.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if ((carets[mid] + carets[mid + 1]) / 2 < offsetX) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return buffer.lineStart(line) + low;
+    }
+
+    private float cursorOffset(int line) {
+        return caretPositions(line)[cursorPosition - buffer.lineStart(line)];
+    }
+
+    // Line cache
+
+    private String lineText(int line) {
+        int slots = cachedLines.length;
+        if (slots > 0) {
+            int slot = line % slots;
+            if (cachedLines[slot] == line) {
+                return cachedText[slot];
+            }
+        }
+        String text = buffer.substring(buffer.lineStart(line), buffer.lineEnd(line));
+        if (slots > 0) {
+            int slot = line % slots;
+            cachedLines[slot] = line;
+            cachedText[slot] = text;
+            cachedWidths[slot] = -1;
+            cachedCarets[slot] = null;
+        }
+        return text;
+    }
+
+    private float lineWidth(int line) {
+        String text = lineText(line);
+        int slot = line % cachedLines.length;
+        if (cachedWidths[slot] < 0) {
+            cachedWidths[slot] = measureTextWidth(text, style.getFontSize());
+            widestLine = Math.max(widestLine, cachedWidths[slot]);
+        }
+        return cachedWidths[slot];
+    }
+
+    // Caret x before each column, measured in one pass per line and reused for clicks and the cursor
+    private float[] caretPositions(int line) {
+        String text = lineText(line);
+        int slots = cachedLines.length;
+        if (slots == 0) {
+            return measureCarets(text);
+        }
+        int slot = line % slots;
+        if (cachedCarets[slot] == null) {
+            cachedCarets[slot] = measureCarets(text);
+        }
+        return cachedCarets[slot];
+    }
+
+    private float[] measureCarets(String text) {
+        if (getContext() != null && getContext().getRenderer() != null) {
+            return getContext().getRenderer().caretPositions(text, style.getFontSize());
+        }
+        // Detached: fall back to the estimated prefix widths
+        float[] carets = new float[text.length() + 1];
+        for (int i = 1; i <= text.length(); i++) {
+            carets[i] = measureTextWidth(text.substring(0, i), style.getFontSize());
+        }
+        return carets;
+    }
+
+    private void ensureCache(int slots) {
+        if (cachedLines.length >= slots) return;
+        cachedLines = new int[slots];
+        Arrays.fill(cachedLines, -1);
+        cachedText = new String[slots];
+        cachedWidths = new float[slots];
+        cachedCarets = new float[slots][];
+    }
+
+    // An edit at {@code line} replaced lines [line, line + removed] and moved the lines below by delta
+    private void shiftCache(int line, int removed, int delta) {
+        int slots = cachedLines.length;
+        if (slots == 0) return;
+        int[] lines = cachedLines.clone();
+        String[] texts = cachedText.clone();
+        float[] widths = cachedWidths.clone();
+        float[][] carets = cachedCarets.clone();
+        Arrays.fill(cachedLines, -1);
+        for (int i = 0; i < slots; i++) {
+            int cached = lines[i];
+            if (cached < 0 || (cached >= line && cached <= line + removed)) continue;
+            int moved = cached > line ? cached + delta : cached;
+            int slot = moved % slots;
+            cachedLines[slot] = moved;
+            cachedText[slot] = texts[i];
+            cachedWidths[slot] = widths[i];
+            cachedCarets[slot] = carets[i];
+        }
+    }
+
+    // Cursor blinking runs on the context's timer wheel while focused
+    private void restartCursorBlink() {
+        cursorVisible = true;
+        if (getContext() != null) {
+            getContext().getTimers().schedule(blinkTimer, CURSOR_BLINK_INTERVAL_MS, CURSOR_BLINK_INTERVAL_MS);
+        }
+    }
+
+    private void stopCursorBlink() {
+        if (getContext() != null) {
+            getContext().getTimers().cancel(blinkTimer);
+        }
+    }
+
+    private void toggleCursor() {
+        cursorVisible = !cursorVisible;
+        markDirty();
+    }
+
+    @Override
+    protected void onAttach() {
+        Arrays.fill(cachedWidths, -1);
+        Arrays.fill(cachedCarets, null);
+        if (focused) {
+            restartCursorBlink();
+        }
+    }
+
+    @Override
+    protected void onDetach() {
+        stopCursorBlink();
+    }
+
+    @Override
+    public void render(NVGRenderer renderer) {
+        if (!visible) return;
+
+        float ax = getAbsoluteX();
+        float ay = getAbsoluteY();
+        renderer.drawRect(ax, ay, width, height, focused ? FOCUSED_BACKGROUND : BACKGROUND, 4);
+        renderer.drawRectOutline(ax, ay, width, height, focused ? 2 : 1, focused ? FOCUSED_BORDER : BORDER, 4);
+
+        float fontSize = style.getFontSize();
+        float lineHeight = lineHeight();
+        float left = ax + TEXT_INSET;
+        float top = ay + TEXT_INSET;
+        int visibleLines = visibleLineCount();
+        ensureCache(visibleLines * 2);
+
+        renderer.save();
+        renderer.setScissor(left, top, width - 2 * TEXT_INSET, height - 2 * TEXT_INSET);
+
+        if (buffer.length() == 0 && !placeholder.isEmpty()) {
+            renderer.drawText(left, top + lineHeight / 2, placeholder, "default", fontSize, PLACEHOLDER,
+                NVG_ALIGN_LEFT | NVG_ALIGN_MIDDLE);
+        }
+
+        int first = (int) (scrollY / lineHeight);
+        int end = Math.min(buffer.lineCount(), first + visibleLines);
+        float x = (float) (left - scrollX);
+        for (int line = first; line < end; line++) {
+            float y = (float) (top + line * (double) lineHeight - scrollY);
+            String text = lineText(line);
+            if (!text.isEmpty()) {
+                lineWidth(line);
+                renderer.drawText(x, y + lineHeight / 2, text, "default", fontSize, Color.BLACK,
+                    NVG_ALIGN_LEFT | NVG_ALIGN_MIDDLE);
+            }
+        }
+
+        if (focused && cursorVisible) {
+            int line = buffer.lineOf(cursorPosition);
+            float cursorY = (float) (top + line * (double) lineHeight - scrollY);
+            float cx = x + cursorOffset(line);
+            renderer.drawLine(cx, cursorY + 2, cx, cursorY + lineHeight - 2, 1, Color.BLACK);
+        }
+
+        renderer.resetScissor();
+        renderer.restore();
+        markClean();
+    }
+}
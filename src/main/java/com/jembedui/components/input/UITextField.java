@@ -1,8 +1,10 @@
 package com.jembedui.components.input;
 
+import com.jembedui.core.TimerWheel;
 import com.jembedui.core.UIBaseElement;
 import com.jembedui.events.KeyboardEvent;
 import com.jembedui.events.MouseEvent;
+import com.jembedui.render.EncodedText;
 import com.jembedui.render.NVGRenderer;
 import com.jembedui.style.Color;
 
@@ -13,15 +15,25 @@ import static org.lwjgl.glfw.GLFW.*;
  */
 public class UITextField extends UIBaseElement {
     
+    private static final int BACKGROUND_COLOR = Color.pack(0.95f, 0.95f, 0.95f);
+    private static final int FOCUSED_BACKGROUND_COLOR = Color.WHITE.rgba();
+    private static final int BORDER_COLOR = Color.pack(0.5f, 0.5f, 0.5f);
+    private static final int FOCUSED_BORDER_COLOR = Color.pack(0.2f, 0.6f, 0.8f);
+    private static final int TEXT_COLOR = Color.BLACK.rgba();
+    private static final int PLACEHOLDER_COLOR = Color.pack(0.6f, 0.6f, 0.6f);
+    
     private StringBuilder text = new StringBuilder();
+    private String textString = "";  // Cached text.toString(), cleared on edits
     private int cursorPosition = 0;
     private boolean focused = false;
     private String placeholder = "";
     private Runnable onChangeHandler;
+    private final EncodedText encodedText = new EncodedText();
+    private final EncodedText encodedPlaceholder = new EncodedText();
     
     // Cursor blinking
-    private double cursorBlinkTime = 0.0;
-    private static final double CURSOR_BLINK_INTERVAL = 1; // Blink every 1000ms
+    private static final long CURSOR_BLINK_INTERVAL_MS = 1000; // Blink every 1000ms
+    private final TimerWheel.Timer blinkTimer = new TimerWheel.Timer(this::toggleCursor);
     private boolean cursorVisible = true;
 
     public UITextField() {
@@ -46,8 +58,7 @@ public class UITextField extends UIBaseElement {
             // Only gain focus if clicking inside this text field
             if (!focused) {
                 focused = true;
-                cursorBlinkTime = 0.0;
-                cursorVisible = true;
+                restartCursorBlink();
                 markDirty();
             }
         }
@@ -56,10 +67,16 @@ public class UITextField extends UIBaseElement {
     public void loseFocus() {
         if (focused) {
             focused = false;
+            stopCursorBlink();
             markDirty();
         }
     }
 
+    @Override
+    protected void onFocusLost() {
+        loseFocus();
+    }
+
     public boolean isFocused() {
         return focused;
     }
@@ -69,18 +86,19 @@ public class UITextField extends UIBaseElement {
         if (event.getEventType() != KeyboardEvent.KeyEventType.KEY_DOWN) return;
         
         // Reset cursor blink when typing
-        cursorBlinkTime = 0.0;
-        cursorVisible = true;
+        restartCursorBlink();
 
         int key = event.getKey();
         
         if (key == GLFW_KEY_BACKSPACE && cursorPosition > 0) {
             text.deleteCharAt(cursorPosition - 1);
+            textString = null;
             cursorPosition--;
             markDirty();
             notifyChange();
         } else if (key == GLFW_KEY_DELETE && cursorPosition < text.length()) {
             text.deleteCharAt(cursorPosition);
+            textString = null;
             markDirty();
             notifyChange();
         } else if (key == GLFW_KEY_LEFT && cursorPosition > 0) {
@@ -99,6 +117,7 @@ public class UITextField extends UIBaseElement {
             char c = event.getCharacter();
             if (c >= 32 && c < 127) {  // Printable ASCII
                 text.insert(cursorPosition, c);
+                textString = null;
                 cursorPosition++;
                 markDirty();
                 notifyChange();
@@ -113,11 +132,15 @@ public class UITextField extends UIBaseElement {
     }
     
     public String getText() {
-        return text.toString();
+        if (textString == null) {
+            textString = text.toString();
+        }
+        return textString;
     }
     
     public void setText(String text) {
         this.text = new StringBuilder(text);
+        textString = text;
         cursorPosition = text.length();
         markDirty();
     }
@@ -127,25 +150,45 @@ public class UITextField extends UIBaseElement {
         markDirty();
     }
     
+    public String getPlaceholder() {
+        return placeholder;
+    }
+    
     public void setOnChange(Runnable handler) {
         this.onChangeHandler = handler;
     }
     
-    @Override
-    public void update(float deltaTime) {
-        super.update(deltaTime);
+    // Cursor blinking runs on the context's timer wheel while focused
+    private void restartCursorBlink() {
+        cursorVisible = true;
+        if (getContext() != null) {
+            getContext().getTimers().schedule(blinkTimer, CURSOR_BLINK_INTERVAL_MS, CURSOR_BLINK_INTERVAL_MS);
+        }
+    }
 
-        // Update cursor blinking when focused
+    private void stopCursorBlink() {
+        if (getContext() != null) {
+            getContext().getTimers().cancel(blinkTimer);
+        }
+    }
+
+    private void toggleCursor() {
+        cursorVisible = !cursorVisible;
+        markDirty();
+    }
+
+    @Override
+    protected void onAttach() {
         if (focused) {
-            cursorBlinkTime += deltaTime;
-            if (cursorBlinkTime >= CURSOR_BLINK_INTERVAL) {
-                cursorBlinkTime = 0.0;
-                cursorVisible = !cursorVisible;
-                markDirty();
-            }
+            restartCursorBlink();
         }
     }
 
+    @Override
+    protected void onDetach() {
+        stopCursorBlink();
+    }
+
     @Override
     public void render(NVGRenderer renderer) {
         if (!visible) return;
@@ -154,11 +197,11 @@ public class UITextField extends UIBaseElement {
         float ay = getAbsoluteY();
         
         // Draw background
-        Color bgColor = focused ? Color.WHITE : new Color(0.95f, 0.95f, 0.95f);
+        int bgColor = focused ? FOCUSED_BACKGROUND_COLOR : BACKGROUND_COLOR;
         renderer.drawRect(ax, ay, width, height, bgColor, 4);
         
         // Draw border
-        Color borderColor = focused ? new Color(0.2f, 0.6f, 0.8f) : new Color(0.5f, 0.5f, 0.5f);
+        int borderColor = focused ? FOCUSED_BORDER_COLOR : BORDER_COLOR;
         float borderWidth = focused ? 2 : 1;
         renderer.drawRectOutline(ax, ay, width, height, borderWidth, borderColor, 4);
         
@@ -168,10 +211,10 @@ public class UITextField extends UIBaseElement {
         float textY = ay + height / 2;
 
         if (text.length() > 0) {
-            renderer.drawText(textX, textY, text.toString(), "default", fontSize, Color.BLACK,
+            renderer.drawText(textX, textY, encodedText.encode(getText()), "default", fontSize, TEXT_COLOR,
                              org.lwjgl.nanovg.NanoVG.NVG_ALIGN_LEFT | org.lwjgl.nanovg.NanoVG.NVG_ALIGN_MIDDLE);
         } else if (!placeholder.isEmpty()) {
-            renderer.drawText(textX, textY, placeholder, "default", fontSize, new Color(0.6f, 0.6f, 0.6f),
+            renderer.drawText(textX, textY, encodedPlaceholder.encode(placeholder), "default", fontSize, PLACEHOLDER_COLOR,
                              org.lwjgl.nanovg.NanoVG.NVG_ALIGN_LEFT | org.lwjgl.nanovg.NanoVG.NVG_ALIGN_MIDDLE);
         }
         
@@ -181,7 +224,7 @@ public class UITextField extends UIBaseElement {
             float[] cursorOffset = renderer.measureText(beforeCursor, fontSize);
             renderer.drawLine(textX + cursorOffset[0], ay + 5, 
                             textX + cursorOffset[0], ay + height - 5, 
-                            1, Color.BLACK);
+                            1, TEXT_COLOR);
         }
         
         markClean();
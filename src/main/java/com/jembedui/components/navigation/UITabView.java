@@ -1,58 +1,185 @@
 package com.jembedui.components.navigation;
 
+import com.jembedui.components.buttons.UIButton;
+import com.jembedui.core.UIBaseElement;
 import com.jembedui.core.UIContainer;
 import com.jembedui.layout.HorizontalLayout;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
 /**
  * Tab view for switching between different panels.
+ * <p>
+ * Tabs added with a content factory are built on first activation. With an
+ * inactive-tab budget set, the least recently used factory-built tabs are
+ * disposed when inactive content exceeds the budget, and rebuilt when they
+ * are opened again.
  */
 public class UITabView extends UIContainer {
-    
+
+    private static class Tab {
+        final Supplier<? extends UIContainer> factory;
+        UIContainer content;
+        long lastUsed;
+
+        Tab(UIContainer content, Supplier<? extends UIContainer> factory) {
+            this.content = content;
+            this.factory = factory;
+        }
+    }
+
     private UIContainer tabBar;
     private UIContainer contentArea;
+    private final List<Tab> tabs = new ArrayList<>();
     private int activeTab = 0;
-    
+    private int inactiveBudget = Integer.MAX_VALUE;
+    private long useCounter = 0;
+
     public UITabView() {
         super();
-        
+
         tabBar = new UIContainer();
         tabBar.setLayoutManager(new HorizontalLayout(2));
         tabBar.setBounds(0, 0, width, 30);
         tabBar.getStyle().setBackgroundColor(new com.jembedui.style.Color(0.2f, 0.2f, 0.2f));
         addChild(tabBar);
-        
+
         contentArea = new UIContainer();
         contentArea.setBounds(0, 30, width, height - 30);
         contentArea.getStyle().setBackgroundColor(new com.jembedui.style.Color(0.15f, 0.15f, 0.15f));
         addChild(contentArea);
     }
-    
+
+    /**
+     * Adds a tab with prebuilt content. Such tabs stay resident.
+     */
     public void addTab(String title, UIContainer content) {
-        int tabIndex = tabBar.getChildCount();
-        
-        com.jembedui.components.buttons.UIButton tabButton = 
-            new com.jembedui.components.buttons.UIButton(title);
+        addTab(title, content, null);
+    }
+
+    /**
+     * Adds a tab whose content is built by {@code factory} the first time the tab
+     * is shown, and rebuilt if it was disposed under the inactive-tab budget.
+     */
+    public void addTab(String title, Supplier<? extends UIContainer> factory) {
+        addTab(title, null, factory);
+    }
+
+    private void addTab(String title, UIContainer content, Supplier<? extends UIContainer> factory) {
+        int tabIndex = tabs.size();
+
+        UIButton tabButton = new UIButton(title);
         tabButton.setWidth(100);
         tabButton.setHeight(30);
         tabButton.setOnClick(() -> switchToTab(tabIndex));
-        
         tabBar.addChild(tabButton);
-        content.setVisible(tabIndex == activeTab);
-        contentArea.addChild(content);
-        
+
+        Tab tab = new Tab(content, factory);
+        tabs.add(tab);
+        if (content != null) {
+            content.setVisible(tabIndex == activeTab);
+            contentArea.addChild(content);
+        } else if (tabIndex == activeTab) {
+            load(tab);
+        }
+        if (tabIndex == activeTab) {
+            tab.lastUsed = ++useCounter;
+        }
+
         layout();
     }
-    
+
     public void switchToTab(int index) {
-        if (index >= 0 && index < contentArea.getChildCount()) {
-            for (int i = 0; i < contentArea.getChildCount(); i++) {
-                contentArea.getChildAt(i).setVisible(i == index);
+        if (index >= 0 && index < tabs.size()) {
+            Tab tab = tabs.get(index);
+            if (tab.content == null) {
+                load(tab);
+                tab.content.layout();
+            }
+            for (int i = 0; i < tabs.size(); i++) {
+                UIContainer content = tabs.get(i).content;
+                if (content != null) {
+                    content.setVisible(i == index);
+                }
             }
             activeTab = index;
+            tab.lastUsed = ++useCounter;
+            enforceBudget();
             markDirty();
         }
     }
-    
+
+    public int getActiveTab() {
+        return activeTab;
+    }
+
+    public int getTabCount() {
+        return tabs.size();
+    }
+
+    public boolean isTabLoaded(int index) {
+        return tabs.get(index).content != null;
+    }
+
+    /**
+     * Limits how many elements inactive factory-built tabs may keep resident.
+     * The least recently used tabs are disposed first. Tabs added with prebuilt
+     * content are never disposed. Defaults to no limit.
+     */
+    public void setInactiveTabBudget(int maxElements) {
+        this.inactiveBudget = Math.max(0, maxElements);
+        enforceBudget();
+    }
+
+    public int getInactiveTabBudget() {
+        return inactiveBudget;
+    }
+
+    private void load(Tab tab) {
+        tab.content = tab.factory.get();
+        tab.content.setVisible(true);
+        contentArea.addChild(tab.content);
+    }
+
+    private void enforceBudget() {
+        if (inactiveBudget == Integer.MAX_VALUE) return;
+
+        int resident = 0;
+        for (int i = 0; i < tabs.size(); i++) {
+            Tab tab = tabs.get(i);
+            if (i != activeTab && tab.factory != null && tab.content != null) {
+                resident += countElements(tab.content);
+            }
+        }
+        while (resident > inactiveBudget) {
+            Tab oldest = null;
+            for (int i = 0; i < tabs.size(); i++) {
+                Tab tab = tabs.get(i);
+                if (i != activeTab && tab.factory != null && tab.content != null
+                        && (oldest == null || tab.lastUsed < oldest.lastUsed)) {
+                    oldest = tab;
+                }
+            }
+            if (oldest == null) break;
+            resident -= countElements(oldest.content);
+            contentArea.removeChild(oldest.content);
+            oldest.content = null;
+        }
+    }
+
+    private static int countElements(UIBaseElement element) {
+        int count = 1;
+        if (element instanceof UIContainer) {
+            UIContainer container = (UIContainer) element;
+            for (int i = 0; i < container.getChildCount(); i++) {
+                count += countElements(container.getChildAt(i));
+            }
+        }
+        return count;
+    }
+
     @Override
     public void layout() {
         super.layout();
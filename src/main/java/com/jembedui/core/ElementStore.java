@@ -0,0 +1,202 @@
+package com.jembedui.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact struct-of-arrays mirror of a container's children.
+ * <p>
+ * Geometry (relative to the owning container), visibility, enabled state and
+ * dirty bits live in parallel primitive arrays indexed by slot, where a slot is
+ * the child's index in the container. Elements keep their normal API and write
+ * through to their slot, so hit-testing, culling and bulk layout can run as
+ * tight loops over the arrays instead of chasing element pointers.
+ * <p>
+ * Enable it with {@link UIContainer#setCompactStore(boolean)}.
+ */
+public final class ElementStore {
+
+    public static final byte VISIBLE = 1;
+    public static final byte ENABLED = 2;
+    public static final byte DIRTY = 4;
+    public static final byte CONTAINER = 8;
+
+    private float[] x;
+    private float[] y;
+    private float[] width;
+    private float[] height;
+    private byte[] flags;
+    private UIBaseElement[] elements;
+    private int size = 0;
+
+    ElementStore(int capacity) {
+        capacity = Math.max(16, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        flags = new byte[capacity];
+        elements = new UIBaseElement[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public UIBaseElement getElement(int slot) { return elements[slot]; }
+    public float getX(int slot) { return x[slot]; }
+    public float getY(int slot) { return y[slot]; }
+    public float getWidth(int slot) { return width[slot]; }
+    public float getHeight(int slot) { return height[slot]; }
+    public boolean isVisible(int slot) { return (flags[slot] & VISIBLE) != 0; }
+    public boolean isEnabled(int slot) { return (flags[slot] & ENABLED) != 0; }
+    public boolean isDirty(int slot) { return (flags[slot] & DIRTY) != 0; }
+    public boolean isContainer(int slot) { return (flags[slot] & CONTAINER) != 0; }
+
+    public boolean contains(int slot, float localX, float localY) {
+        float left = x[slot];
+        float top = y[slot];
+        return localX >= left && localX <= left + width[slot]
+                && localY >= top && localY <= top + height[slot];
+    }
+
+    /**
+     * Returns the topmost visible and enabled slot containing the local point, or -1.
+     */
+    public int hitTest(float localX, float localY) {
+        final byte mask = VISIBLE | ENABLED;
+        for (int i = size - 1; i >= 0; i--) {
+            if ((flags[i] & mask) == mask && contains(i, localX, localY)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if the slot is visible and overlaps the given local rectangle.
+     */
+    public boolean isInView(int slot, float left, float top, float right, float bottom) {
+        return (flags[slot] & VISIBLE) != 0
+                && x[slot] < right && x[slot] + width[slot] > left
+                && y[slot] < bottom && y[slot] + height[slot] > top;
+    }
+
+    /**
+     * Writes bounds for a slot and its element without walking the dirty chain.
+     * Returns true if anything changed; the caller owns the single invalidation.
+     */
+    public boolean setBounds(int slot, float x, float y, float width, float height) {
+        if (this.x[slot] == x && this.y[slot] == y
+                && this.width[slot] == width && this.height[slot] == height) {
+            return false;
+        }
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        flags[slot] |= DIRTY;
+        elements[slot].assignBounds(x, y, width, height);
+        return true;
+    }
+
+    // Maintenance, driven by the owning container
+
+    void add(UIBaseElement element) {
+        insert(size, element);
+    }
+
+    void insert(int slot, UIBaseElement element) {
+        ensureCapacity(size + 1);
+        int tail = size - slot;
+        if (tail > 0) {
+            System.arraycopy(x, slot, x, slot + 1, tail);
+            System.arraycopy(y, slot, y, slot + 1, tail);
+            System.arraycopy(width, slot, width, slot + 1, tail);
+            System.arraycopy(height, slot, height, slot + 1, tail);
+            System.arraycopy(flags, slot, flags, slot + 1, tail);
+            System.arraycopy(elements, slot, elements, slot + 1, tail);
+            for (int i = slot + 1; i <= size; i++) {
+                elements[i].storeSlot = i;
+            }
+        }
+        elements[slot] = element;
+        element.store = this;
+        element.storeSlot = slot;
+        size++;
+        sync(element);
+    }
+
+    void remove(int slot) {
+        UIBaseElement element = elements[slot];
+        int tail = size - slot - 1;
+        if (tail > 0) {
+            System.arraycopy(x, slot + 1, x, slot, tail);
+            System.arraycopy(y, slot + 1, y, slot, tail);
+            System.arraycopy(width, slot + 1, width, slot, tail);
+            System.arraycopy(height, slot + 1, height, slot, tail);
+            System.arraycopy(flags, slot + 1, flags, slot, tail);
+            System.arraycopy(elements, slot + 1, elements, slot, tail);
+            for (int i = slot; i < size - 1; i++) {
+                elements[i].storeSlot = i;
+            }
+        }
+        size--;
+        elements[size] = null;
+        element.store = null;
+        element.storeSlot = -1;
+    }
+
+    void rebuild(List<UIBaseElement> children) {
+        clear();
+        ensureCapacity(children.size());
+        for (int i = 0, n = children.size(); i < n; i++) {
+            UIBaseElement element = children.get(i);
+            elements[i] = element;
+            element.store = this;
+            element.storeSlot = i;
+            size++;
+            sync(element);
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[i].store = null;
+            elements[i].storeSlot = -1;
+            elements[i] = null;
+        }
+        size = 0;
+    }
+
+    void sync(UIBaseElement element) {
+        int slot = element.storeSlot;
+        x[slot] = element.x;
+        y[slot] = element.y;
+        width[slot] = element.width;
+        height[slot] = element.height;
+        flags[slot] = (byte) ((element.visible ? VISIBLE : 0)
+                | (element.enabled ? ENABLED : 0)
+                | (element.dirty ? DIRTY : 0)
+                | (element instanceof UIContainer ? CONTAINER : 0));
+    }
+
+    void setFlag(int slot, byte flag, boolean value) {
+        if (value) {
+            flags[slot] |= flag;
+        } else {
+            flags[slot] &= (byte) ~flag;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= elements.length) return;
+        int newSize = Math.max(capacity, elements.length * 2);
+        x = Arrays.copyOf(x, newSize);
+        y = Arrays.copyOf(y, newSize);
+        width = Arrays.copyOf(width, newSize);
+        height = Arrays.copyOf(height, newSize);
+        flags = Arrays.copyOf(flags, newSize);
+        elements = Arrays.copyOf(elements, newSize);
+    }
+}
@@ -0,0 +1,239 @@
+package com.jembedui.core;
+
+import java.util.ArrayDeque;
+import java.util.function.IntConsumer;
+
+/**
+ * Cooperative scheduler that spreads long jobs across frames.
+ * <p>
+ * A {@link Task} does its work in slices and reports whether more remains. Each
+ * frame, {@link UIContext#update(float)} calls {@link #runFrame()}, which runs
+ * tasks until the per-frame budget is used up: the highest priority first, and
+ * first-in first-out within a priority. A task keeps running until it finishes
+ * or the budget runs out, so it resumes exactly where it stopped next frame.
+ * A slice that ends more than the overrun tolerance (1 ms by default) past the
+ * frame's deadline is an overrun; overruns are counted and passed to the
+ * {@link OverrunListener}, if one is set, so slices that are too coarse show up.
+ */
+public final class TaskScheduler {
+
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    /**
+     * A resumable job. Do a bounded amount of work per call, checking
+     * {@link Budget#hasTimeLeft()} in loops, and return true while work remains.
+     */
+    @FunctionalInterface
+    public interface Task {
+        boolean run(Budget budget);
+    }
+
+    /**
+     * Time left in the current frame's budget.
+     */
+    public static final class Budget {
+        private long deadline;
+
+        public boolean hasTimeLeft() {
+            return System.nanoTime() < deadline;
+        }
+
+        public long getRemainingNanos() {
+            return Math.max(0, deadline - System.nanoTime());
+        }
+    }
+
+    public interface OverrunListener {
+        void onOverrun(ScheduledTask task, long overrunNanos);
+    }
+
+    /**
+     * Handle to a scheduled task.
+     */
+    public static final class ScheduledTask {
+        private final Task task;
+        private final Priority priority;
+        private boolean done;
+        private boolean cancelled;
+        private long runNanos;
+
+        private ScheduledTask(Task task, Priority priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+
+        public Priority getPriority() { return priority; }
+        public boolean isDone() { return done; }
+        public boolean isCancelled() { return cancelled; }
+
+        /**
+         * Returns the total time spent running this task so far.
+         */
+        public long getRunNanos() { return runNanos; }
+
+        /**
+         * Stops the task before its next slice. Has no effect once it is done.
+         */
+        public void cancel() {
+            if (!done) {
+                cancelled = true;
+                done = true;
+            }
+        }
+    }
+
+    private final ArrayDeque<ScheduledTask>[] queues;
+    private final Budget budget = new Budget();
+    private long frameBudgetNanos = 4_000_000;
+    private long overrunToleranceNanos = 1_000_000;
+    private OverrunListener overrunListener;
+    private long overrunCount = 0;
+    private long lastFrameNanos = 0;
+
+    @SuppressWarnings("unchecked")
+    public TaskScheduler() {
+        queues = new ArrayDeque[Priority.values().length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    public ScheduledTask schedule(Task task) {
+        return schedule(task, Priority.NORMAL);
+    }
+
+    public ScheduledTask schedule(Task task, Priority priority) {
+        ScheduledTask scheduled = new ScheduledTask(task, priority);
+        queues[priority.ordinal()].addLast(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Wraps a loop over {@code count} items as a task that calls {@code body} for
+     * each index in order, stopping between items when the frame budget is spent.
+     */
+    public static Task forEach(int count, IntConsumer body) {
+        int[] next = {0};
+        return budget -> {
+            int i = next[0];
+            while (i < count) {
+                body.accept(i++);
+                if (!budget.hasTimeLeft()) break;
+            }
+            next[0] = i;
+            return i < count;
+        };
+    }
+
+    /**
+     * Sets how much time tasks may use per frame. Rendering and input need the rest of
+     * the frame, so keep it well under the frame interval.
+     */
+    public void setFrameBudgetMillis(double millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Frame budget must be positive: " + millis);
+        }
+        this.frameBudgetNanos = (long) (millis * 1_000_000);
+    }
+
+    public double getFrameBudgetMillis() {
+        return frameBudgetNanos / 1_000_000.0;
+    }
+
+    public void setOverrunToleranceMillis(double millis) {
+        this.overrunToleranceNanos = (long) (Math.max(0, millis) * 1_000_000);
+    }
+
+    public double getOverrunToleranceMillis() {
+        return overrunToleranceNanos / 1_000_000.0;
+    }
+
+    public void setOverrunListener(OverrunListener overrunListener) {
+        this.overrunListener = overrunListener;
+    }
+
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * Returns how long the last {@link #runFrame()} spent running tasks.
+     */
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    public boolean isEmpty() {
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            if (!queue.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    public int getPendingCount() {
+        int count = 0;
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Runs tasks until they are all done or this frame's budget is used up.
+     * Returns true if work remains for later frames.
+     */
+    public boolean runFrame() {
+        long start = System.nanoTime();
+        budget.deadline = start + frameBudgetNanos;
+        long now = start;
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            while (!queue.isEmpty() && now < budget.deadline) {
+                ScheduledTask scheduled = queue.peekFirst();
+                if (scheduled.done) {
+                    queue.pollFirst();
+                    continue;
+                }
+                boolean more;
+                try {
+                    more = scheduled.task.run(budget);
+                } catch (RuntimeException e) {
+                    // Drop the failed task so it is not retried every frame
+                    scheduled.done = true;
+                    queue.pollFirst();
+                    throw e;
+                } finally {
+                    long end = System.nanoTime();
+                    scheduled.runNanos += end - now;
+                    now = end;
+                }
+                if (!more) {
+                    scheduled.done = true;
+                    queue.pollFirst();
+                }
+                if (now - budget.deadline > overrunToleranceNanos) {
+                    overrunCount++;
+                    if (overrunListener != null) {
+                        overrunListener.onOverrun(scheduled, now - budget.deadline);
+                    }
+                }
+            }
+            if (now >= budget.deadline) break;
+        }
+        lastFrameNanos = now - start;
+        return !isEmpty();
+    }
+
+    /**
+     * Cancels every pending task.
+     */
+    public void clear() {
+        for (ArrayDeque<ScheduledTask> queue : queues) {
+            for (ScheduledTask scheduled : queue) {
+                scheduled.cancel();
+            }
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.jembedui.core;
+
+/**
+ * Hierarchical timer wheel for cursor blinks, delays, timeouts and auto-repeat.
+ * <p>
+ * Time is measured in whole milliseconds. Four levels of 64 slots cover about
+ * 4.6 hours; later deadlines are parked in the top level and re-filed when it
+ * cascades. Scheduling and cancelling are O(1), and timers are intrusive list
+ * nodes, so re-arming an existing {@link Timer} never allocates.
+ */
+public final class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * A reusable timer. Create it once and re-arm it as often as needed.
+     */
+    public static final class Timer {
+        private final Runnable callback;
+        private long deadline;
+        private long period;
+        private int slot = -1;
+        private Timer prev;
+        private Timer next;
+
+        public Timer(Runnable callback) {
+            this.callback = callback;
+        }
+
+        public boolean isScheduled() {
+            return slot >= 0;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public long getPeriod() {
+            return period;
+        }
+    }
+
+    private final Timer[] slots = new Timer[LEVELS * SLOTS];
+    private long currentTime;
+    private int size;
+
+    public TimerWheel() {
+        this(0);
+    }
+
+    public TimerWheel(long startTime) {
+        this.currentTime = startTime;
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Arms the timer to fire once after the given delay, replacing any pending deadline.
+     */
+    public void schedule(Timer timer, long delayMillis) {
+        schedule(timer, delayMillis, 0);
+    }
+
+    /**
+     * Arms the timer to fire after the given delay and then every {@code periodMillis}.
+     * A period of 0 makes it a one-shot timer.
+     */
+    public void schedule(Timer timer, long delayMillis, long periodMillis) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        } else {
+            size++;
+        }
+        timer.deadline = currentTime + Math.max(0, delayMillis);
+        timer.period = Math.max(0, periodMillis);
+        insert(timer);
+    }
+
+    public void cancel(Timer timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Advances the wheel to {@code now}, firing every timer whose deadline has passed.
+     */
+    public void advance(long now) {
+        if (size == 0) {
+            currentTime = Math.max(currentTime, now);
+            return;
+        }
+        while (currentTime < now) {
+            currentTime++;
+            cascade();
+
+            int index = (int) (currentTime & SLOT_MASK);
+            Timer timer;
+            while ((timer = slots[index]) != null) {
+                unlink(timer);
+                if (timer.period > 0) {
+                    // Re-arm before running so the callback may cancel it
+                    timer.deadline += timer.period;
+                    insert(timer);
+                } else {
+                    size--;
+                }
+                timer.callback.run();
+            }
+            if (size == 0) {
+                currentTime = now;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the earliest pending deadline, or {@link Long#MAX_VALUE} if no timer is armed.
+     */
+    public long nextDeadline() {
+        if (size == 0) return Long.MAX_VALUE;
+
+        long earliest = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            long group = currentTime >> shift;
+            // Every level only holds groups after the current one
+            for (int i = 1; i <= SLOTS; i++) {
+                Timer head = slots[level * SLOTS + (int) ((group + i) & SLOT_MASK)];
+                if (head != null) {
+                    for (Timer t = head; t != null; t = t.next) {
+                        earliest = Math.min(earliest, t.deadline);
+                    }
+                    break;
+                }
+            }
+        }
+        return Math.max(earliest, currentTime + 1);
+    }
+
+    // Re-files the next slot of each higher level once the level below wraps around
+    private void cascade() {
+        int wrapLevel = 0;
+        while (wrapLevel < LEVELS - 1
+                && ((currentTime >> (wrapLevel * SLOT_BITS)) & SLOT_MASK) == 0) {
+            wrapLevel++;
+        }
+        for (int level = wrapLevel; level >= 1; level--) {
+            int index = level * SLOTS + (int) ((currentTime >> (level * SLOT_BITS)) & SLOT_MASK);
+            Timer timer = slots[index];
+            slots[index] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timer.slot = -1;
+                // The current tick's slot is processed right after cascading
+                insert(timer, currentTime);
+                timer = next;
+            }
+        }
+    }
+
+    private void insert(Timer timer) {
+        // Overdue timers fire on the next tick
+        insert(timer, currentTime + 1);
+    }
+
+    private void insert(Timer timer, long earliest) {
+        long when = Math.max(timer.deadline, earliest);
+        long delta = Math.min(when - currentTime, MAX_DELTA);
+        if (delta == MAX_DELTA) {
+            when = currentTime + MAX_DELTA;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << ((level + 1) * SLOT_BITS))) {
+            level++;
+        }
+        int index = level * SLOTS + (int) ((when >> (level * SLOT_BITS)) & SLOT_MASK);
+
+        Timer head = slots[index];
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[index] = timer;
+        timer.slot = index;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.slot = -1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.jembedui.core;
 
+import com.jembedui.animation.TweenOwner;
 import com.jembedui.events.*;
 import com.jembedui.render.NVGRenderer;
 import com.jembedui.style.Style;
@@ -9,7 +10,7 @@ import java.util.*;
 /**
  * Base class for all UI elements.
  */
-public abstract class UIBaseElement {
+public abstract class UIBaseElement implements TweenOwner {
     
     protected float x = 0;
     protected float y = 0;
@@ -21,30 +22,245 @@ public abstract class UIBaseElement {
     protected UIContainer parent;
     protected boolean dirty = true;
     
+    // Lookup keys, indexed by the context while attached
+    private String id;
+    private String group;
+    
+    // Owning context, set while the element is attached to a context's tree
+    private UIContext context;
+    private boolean ticking = false;
+    int activeIndex = -1;
+    private int activeTweens = 0; // Tweens this element owns in the context's animator
+    
+    ElementStore store;
+    int storeSlot = -1;
+    
+    // Position in the parent's child list; only trusted below the parent's valid mark
+    int childIndex = -1;
+    
+    // Size before layout first resized the element; NaN while it follows the current size
+    private float naturalWidth = Float.NaN;
+    private float naturalHeight = Float.NaN;
+    private int measureVersion = 0;
+    private Object layoutData;
+    
+    // Measure pass results, memoized per constraint pair for one measure version
+    private static final int MEASURE_CACHE_SIZE = 4;
+    private static final float TEXT_WIDTH_ESTIMATE = 0.55f;
+    private boolean autoSize = false;
+    private float measuredWidth;
+    private float measuredHeight;
+    private float[] measureCache;
+    private int measureCacheVersion = -1;
+    private int measureCacheCount = 0;
+    private int measureCacheNext = 0;
+    
     // Event listeners
     private final Map<Class<? extends UIEvent>, List<com.jembedui.events.EventListener>> eventListeners = new HashMap<>();
     
     public UIBaseElement() {
     }
     
-    // Position and size
+    // Position and size; setters that change nothing invalidate nothing
     public float getX() { return x; }
-    public void setX(float x) { this.x = x; markDirty(); }
+    public void setX(float x) {
+        if (x == this.x) return;
+        this.x = x;
+        syncStore();
+        markDirty();
+    }
     
     public float getY() { return y; }
-    public void setY(float y) { this.y = y; markDirty(); }
+    public void setY(float y) {
+        if (y == this.y) return;
+        this.y = y;
+        syncStore();
+        markDirty();
+    }
     
     public float getWidth() { return width; }
-    public void setWidth(float width) { this.width = width; markDirty(); }
+    public void setWidth(float width) {
+        float oldNatural = getNaturalWidth();
+        naturalWidth = Float.NaN;
+        if (width != this.width) {
+            this.width = width;
+            syncStore();
+            markDirty();
+        }
+        if (width != oldNatural) invalidateMeasure();
+    }
     
     public float getHeight() { return height; }
-    public void setHeight(float height) { this.height = height; markDirty(); }
+    public void setHeight(float height) {
+        float oldNatural = getNaturalHeight();
+        naturalHeight = Float.NaN;
+        if (height != this.height) {
+            this.height = height;
+            syncStore();
+            markDirty();
+        }
+        if (height != oldNatural) invalidateMeasure();
+    }
     
     public void setBounds(float x, float y, float width, float height) {
+        boolean naturalChanged = width != getNaturalWidth() || height != getNaturalHeight();
+        naturalWidth = Float.NaN;
+        naturalHeight = Float.NaN;
+        if (x != this.x || y != this.y || width != this.width || height != this.height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            syncStore();
+            markDirty();
+        }
+        if (naturalChanged) invalidateMeasure();
+    }
+    
+    /**
+     * Positions and sizes this element on behalf of its parent's layout manager.
+     * Unlike {@link #setBounds}, the size the element had before layout first
+     * resized it is kept as its natural size, and nothing is invalidated if the
+     * bounds are unchanged.
+     */
+    public void arrange(float x, float y, float width, float height) {
+        if (x == this.x && y == this.y && width == this.width && height == this.height) return;
+        keepNaturalSize();
         this.x = x;
         this.y = y;
         this.width = width;
         this.height = height;
+        syncStore();
+        markDirty();
+    }
+    
+    // Bulk layout path: the store already holds the new bounds and the caller invalidates once
+    void assignBounds(float x, float y, float width, float height) {
+        keepNaturalSize();
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.dirty = true;
+    }
+    
+    private void keepNaturalSize() {
+        if (Float.isNaN(naturalWidth)) naturalWidth = width;
+        if (Float.isNaN(naturalHeight)) naturalHeight = height;
+    }
+    
+    // Natural size and measurement
+    
+    /**
+     * Returns the width this element was given outside of layout, which stays
+     * put while layout managers stretch or shrink it.
+     */
+    public float getNaturalWidth() { return Float.isNaN(naturalWidth) ? width : naturalWidth; }
+    
+    public float getNaturalHeight() { return Float.isNaN(naturalHeight) ? height : naturalHeight; }
+    
+    /**
+     * Counter bumped whenever something that affects this element's natural or
+     * measured size changes, in this element or any descendant. Layout managers
+     * use it to keep measurement caches.
+     */
+    public int getMeasureVersion() { return measureVersion; }
+    
+    /**
+     * Marks this element's content as changed so cached measurements of it and
+     * its ancestors are recomputed on the next layout.
+     */
+    public void invalidateMeasure() {
+        measureVersion++;
+        if (parent != null) {
+            parent.invalidateMeasure();
+        }
+    }
+    
+    /**
+     * Measures the size this element wants within the available space. Pass
+     * {@link Float#POSITIVE_INFINITY} for an unbounded axis. The result is read with
+     * {@link #getMeasuredWidth()} and {@link #getMeasuredHeight()}, and is memoized per
+     * constraint pair until the measure version changes.
+     */
+    public final void measure(float availableWidth, float availableHeight) {
+        if (measureCacheVersion != measureVersion) {
+            measureCacheVersion = measureVersion;
+            measureCacheCount = 0;
+        }
+        for (int i = 0; i < measureCacheCount; i++) {
+            int k = i * 4;
+            if (measureCache[k] == availableWidth && measureCache[k + 1] == availableHeight) {
+                measuredWidth = measureCache[k + 2];
+                measuredHeight = measureCache[k + 3];
+                return;
+            }
+        }
+        
+        onMeasure(availableWidth, availableHeight);
+        
+        if (measureCache == null) {
+            measureCache = new float[MEASURE_CACHE_SIZE * 4];
+        }
+        int k = measureCacheNext * 4;
+        measureCache[k] = availableWidth;
+        measureCache[k + 1] = availableHeight;
+        measureCache[k + 2] = measuredWidth;
+        measureCache[k + 3] = measuredHeight;
+        measureCacheNext = (measureCacheNext + 1) % MEASURE_CACHE_SIZE;
+        measureCacheCount = Math.min(measureCacheCount + 1, MEASURE_CACHE_SIZE);
+    }
+    
+    /**
+     * Computes the measured size and reports it with {@link #setMeasuredSize}.
+     * The default is the natural size; auto-sized components override this to
+     * report their intrinsic size.
+     */
+    protected void onMeasure(float availableWidth, float availableHeight) {
+        setMeasuredSize(getNaturalWidth(), getNaturalHeight());
+    }
+    
+    protected final void setMeasuredSize(float width, float height) {
+        this.measuredWidth = width;
+        this.measuredHeight = height;
+    }
+    
+    public float getMeasuredWidth() { return measuredWidth; }
+    
+    public float getMeasuredHeight() { return measuredHeight; }
+    
+    public boolean isAutoSize() { return autoSize; }
+    
+    /**
+     * When enabled, layouts size this element to its intrinsic size, such as the
+     * extent of its text or the content of its layout, instead of its natural size.
+     */
+    public void setAutoSize(boolean autoSize) {
+        if (this.autoSize == autoSize) return;
+        this.autoSize = autoSize;
+        invalidateMeasure();
+        markDirty();
+    }
+    
+    /**
+     * Measures text with the context's renderer, or estimates its width while detached.
+     */
+    protected float measureTextWidth(String text, float fontSize) {
+        if (text == null || text.isEmpty()) return 0;
+        if (context != null && context.getRenderer() != null) {
+            return context.getRenderer().measureText(text, fontSize)[0];
+        }
+        return text.length() * fontSize * TEXT_WIDTH_ESTIMATE;
+    }
+    
+    /**
+     * Per-child settings owned by the parent's layout manager, such as {@code FlexLayout.Item}.
+     */
+    public Object getLayoutData() { return layoutData; }
+    
+    public void setLayoutData(Object layoutData) {
+        this.layoutData = layoutData;
+        invalidateMeasure();
         markDirty();
     }
     
@@ -60,13 +276,18 @@ public abstract class UIBaseElement {
     // Visibility
     public boolean isVisible() { return visible; }
     public void setVisible(boolean visible) { 
+        if (visible == this.visible) return;
         this.visible = visible; 
+        syncStore();
         markDirty();
+        if (parent != null) parent.invalidateMeasure();
     }
     
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { 
+        if (enabled == this.enabled) return;
         this.enabled = enabled; 
+        syncStore();
         markDirty();
     }
     
@@ -75,6 +296,7 @@ public abstract class UIBaseElement {
     public void setStyle(Style style) { 
         this.style = style; 
         markDirty();
+        invalidateMeasure();
     }
     
     // Parent
@@ -83,15 +305,132 @@ public abstract class UIBaseElement {
         this.parent = parent; 
     }
     
+    // Identity
+    public String getId() { return id; }
+    
+    /**
+     * Sets a stable id that {@link UIContext#findById(String)} resolves in O(1).
+     * Ids should be unique within a context; while several attached elements share
+     * one, lookups resolve to the most recently attached of them.
+     */
+    public void setId(String id) {
+        if (context != null && this.id != null) {
+            context.unregisterId(this.id, this);
+        }
+        this.id = id;
+        if (context != null && id != null) {
+            context.registerId(id, this);
+        }
+    }
+    
+    public String getGroup() { return group; }
+    
+    /**
+     * Tags this element with a group name for {@link UIContext#findByGroup(String)}.
+     */
+    public void setGroup(String group) {
+        if (context != null && this.group != null) {
+            context.unregisterGroup(this.group, this);
+        }
+        this.group = group;
+        if (context != null && group != null) {
+            context.registerGroup(group, this);
+        }
+    }
+    
+    // Context
+    public UIContext getContext() { return context; }
+    
+    void attach(UIContext context) {
+        this.context = context;
+        // Text measured while detached was only estimated
+        measureVersion++;
+        if (id != null) {
+            context.registerId(id, this);
+        }
+        if (group != null) {
+            context.registerGroup(group, this);
+        }
+        if (ticking) {
+            context.addActiveElement(this);
+        }
+        onAttach();
+    }
+    
+    void detach() {
+        onDetach();
+        // Tweens owned by this element would otherwise keep writing to it and keep the context busy;
+        // cancelAll scans every tween, so skip it for the usual element that has none
+        if (activeTweens > 0) {
+            context.getAnimator().cancelAll(this);
+        }
+        if (ticking) {
+            context.removeActiveElement(this);
+        }
+        if (id != null) {
+            context.unregisterId(id, this);
+        }
+        if (group != null) {
+            context.unregisterGroup(group, this);
+        }
+        this.context = null;
+    }
+    
+    /**
+     * Called after this element joins a context's tree; {@link #getContext()} is set.
+     */
+    protected void onAttach() {
+    }
+    
+    /**
+     * Called before this element leaves a context's tree; {@link #getContext()} is still set.
+     * Tweens owned by this element are cancelled right after.
+     */
+    protected void onDetach() {
+    }
+    
+    /**
+     * Called by the animator as tweens owned by this element start and end.
+     */
+    @Override
+    public final void tweenCountChanged(int delta) {
+        activeTweens += delta;
+    }
+    
+    /**
+     * Called when this element stops being its context's focused element.
+     */
+    protected void onFocusLost() {
+    }
+    
     // Dirty flag for optimized rendering
     public boolean isDirty() { return dirty; }
     public void markDirty() { 
-        this.dirty = true;
+        markSelfDirty();
         if (parent != null) {
             parent.markDirty();
         }
     }
-    public void markClean() { this.dirty = false; }
+    
+    void markSelfDirty() {
+        this.dirty = true;
+        if (store != null) {
+            store.setFlag(storeSlot, ElementStore.DIRTY, true);
+        }
+    }
+    public void markClean() { 
+        this.dirty = false;
+        if (store != null) {
+            store.setFlag(storeSlot, ElementStore.DIRTY, false);
+        }
+    }
+    
+    // Compact store mirror, set while the parent keeps its children in an ElementStore
+    private void syncStore() {
+        if (store != null) {
+            store.sync(this);
+        }
+    }
     
     // Hit testing
     public boolean containsPoint(float px, float py) {
@@ -137,15 +476,15 @@ public abstract class UIBaseElement {
         if (!visible) return;
         
         // Render background
-        if (style.getBackgroundColor().a() > 0) {
+        if ((style.getBackgroundRGBA() & 0xFF) != 0) {
             renderer.drawRect(getAbsoluteX(), getAbsoluteY(), width, height, 
-                            style.getBackgroundColor(), style.getBorderRadius());
+                            style.getBackgroundRGBA(), style.getBorderRadius());
         }
         
         // Render border
-        if (style.getBorderWidth() > 0 && style.getBorderColor().a() > 0) {
+        if (style.getBorderWidth() > 0 && (style.getBorderRGBA() & 0xFF) != 0) {
             renderer.drawRectOutline(getAbsoluteX(), getAbsoluteY(), width, height, 
-                                   style.getBorderWidth(), style.getBorderColor(), 
+                                   style.getBorderWidth(), style.getBorderRGBA(), 
                                    style.getBorderRadius());
         }
         
@@ -153,6 +492,29 @@ public abstract class UIBaseElement {
     }
     
     // Update (for animations, etc.)
+    
+    /**
+     * Registers or unregisters this element with the context's active-tick set.
+     * Only ticking elements receive {@link #update(float)} calls, so elements
+     * should tick only while they are animating.
+     */
+    protected void setTicking(boolean ticking) {
+        if (this.ticking == ticking) return;
+        this.ticking = ticking;
+        if (context != null) {
+            if (ticking) {
+                context.addActiveElement(this);
+            } else {
+                context.removeActiveElement(this);
+            }
+        }
+    }
+    
+    public boolean isTicking() { return ticking; }
+    
+    /**
+     * Called once per frame while this element is ticking (see {@link #setTicking(boolean)}).
+     */
     public void update(float deltaTime) {
         // Override in subclasses that need updates
     }
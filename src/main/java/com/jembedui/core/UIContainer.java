@@ -4,7 +4,13 @@ import com.jembedui.layout.LayoutManager;
 import com.jembedui.render.NVGRenderer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Container that can hold child elements.
@@ -13,6 +19,16 @@ public class UIContainer extends UIBaseElement {
     
     protected final List<UIBaseElement> children = new ArrayList<>();
     protected LayoutManager layoutManager;
+    private ElementStore compactStore;
+    
+    // Layout transaction: while open, invalidations from below stop here until it ends
+    private int layoutDepth = 0;
+    private boolean layoutInvalidated = false;
+    
+    // Children before this index have an exact childIndex; later ones may be stale
+    private int childIndexValid = 0;
+    private static final int KEPT = -2;
+    private static final int JOINING = -3;
     
     public UIContainer() {
         super();
@@ -20,25 +36,261 @@ public class UIContainer extends UIBaseElement {
     
     // Child management
     public void addChild(UIBaseElement child) {
+        addChild(children.size(), child);
+    }
+    
+    /**
+     * Inserts a child at the given index, moving it if it already belongs to this container.
+     */
+    public void addChild(int index, UIBaseElement child) {
         if (child.parent != null) {
             child.parent.removeChild(child);
         }
-        children.add(child);
+        index = Math.min(index, children.size());
+        children.add(index, child);
         child.setParent(this);
+        child.childIndex = index;
+        childIndexValid = Math.min(childIndexValid, index);
+        if (compactStore != null) {
+            compactStore.insert(index, child);
+        }
+        if (getContext() != null) {
+            child.attach(getContext());
+        }
+        markDirty();
+        invalidateMeasure();
+    }
+    
+    public void addChildren(Collection<? extends UIBaseElement> newChildren) {
+        addChildren(children.size(), newChildren);
+    }
+    
+    /**
+     * Inserts several children at the given index in one pass over the child list,
+     * invalidating this container once. Elements that belong to another container
+     * are moved; to reorder this container's own children use {@link #moveChild}.
+     */
+    public void addChildren(int index, Collection<? extends UIBaseElement> newChildren) {
+        UIBaseElement[] added = newChildren.toArray(new UIBaseElement[0]);
+        if (added.length == 0) return;
+        // Detached elements are marked through their cached index, as in replaceChildren()
+        Set<UIBaseElement> moving = null;
+        for (int i = 0; i < added.length; i++) {
+            UIBaseElement child = added[i];
+            String problem = null;
+            if (child.parent == this) {
+                problem = "Element is already a child of this container; use moveChild()";
+            } else if (child.parent == null) {
+                if (child.childIndex == JOINING) problem = "Element is listed more than once";
+                child.childIndex = JOINING;
+            } else {
+                if (moving == null) {
+                    moving = Collections.newSetFromMap(new IdentityHashMap<>());
+                }
+                if (!moving.add(child)) problem = "Element is listed more than once";
+            }
+            if (problem != null) {
+                clearMarks(added, i);
+                throw new IllegalArgumentException(problem);
+            }
+        }
+        
+        for (UIBaseElement child : added) {
+            if (child.parent != null) {
+                child.parent.removeChild(child);
+            }
+            child.setParent(this);
+        }
+        index = Math.min(index, children.size());
+        boolean append = index == children.size();
+        children.addAll(index, Arrays.asList(added));
+        for (int i = 0; i < added.length; i++) {
+            added[i].childIndex = index + i;
+        }
+        childIndexValid = Math.min(childIndexValid, index);
+        if (compactStore != null) {
+            if (append) {
+                for (UIBaseElement child : added) {
+                    compactStore.add(child);
+                }
+            } else {
+                compactStore.rebuild(children);
+            }
+        }
+        UIContext context = getContext();
+        if (context != null) {
+            for (UIBaseElement child : added) {
+                child.attach(context);
+            }
+        }
+        markDirty();
+        invalidateMeasure();
+    }
+    
+    /**
+     * Makes {@code newChildren} the children of this container, in order, invalidating
+     * it once. Elements that were already children stay attached and keep their state;
+     * the others are removed. Elements from other containers are moved here.
+     */
+    public void replaceChildren(Collection<? extends UIBaseElement> newChildren) {
+        UIBaseElement[] next = newChildren.toArray(new UIBaseElement[0]);
+        // Children that stay and detached newcomers are marked through their cached
+        // index, which is rebuilt below; only elements from other containers need a set
+        childIndexValid = 0;
+        Set<UIBaseElement> moving = null;
+        for (int i = 0; i < next.length; i++) {
+            UIBaseElement child = next[i];
+            boolean duplicate;
+            if (child.parent == this) {
+                duplicate = child.childIndex == KEPT;
+                child.childIndex = KEPT;
+            } else if (child.parent == null) {
+                duplicate = child.childIndex == JOINING;
+                child.childIndex = JOINING;
+            } else {
+                if (moving == null) {
+                    moving = Collections.newSetFromMap(new IdentityHashMap<>());
+                }
+                duplicate = !moving.add(child);
+            }
+            if (duplicate) {
+                clearMarks(next, i);
+                throw new IllegalArgumentException("Element is listed more than once");
+            }
+        }
+        
+        for (UIBaseElement child : children) {
+            if (child.childIndex != KEPT) {
+                release(child);
+            }
+        }
+        boolean[] joined = new boolean[next.length];
+        for (int i = 0; i < next.length; i++) {
+            UIBaseElement child = next[i];
+            if (child.parent != this) {
+                if (child.parent != null) {
+                    child.parent.removeChild(child);
+                }
+                child.setParent(this);
+                joined[i] = true;
+            }
+        }
+        children.clear();
+        children.addAll(Arrays.asList(next));
+        for (int i = 0; i < next.length; i++) {
+            next[i].childIndex = i;
+        }
+        childIndexValid = next.length;
+        if (compactStore != null) {
+            compactStore.rebuild(children);
+        }
+        UIContext context = getContext();
+        if (context != null) {
+            for (int i = 0; i < next.length; i++) {
+                if (joined[i]) {
+                    next[i].attach(context);
+                }
+            }
+        }
         markDirty();
+        invalidateMeasure();
     }
     
     public void removeChild(UIBaseElement child) {
-        if (children.remove(child)) {
-            child.setParent(null);
+        int index = indexOfChild(child);
+        if (index >= 0) {
+            children.remove(index);
+            childIndexValid = Math.min(childIndexValid, index);
+            if (compactStore != null) {
+                compactStore.remove(index);
+            }
+            release(child);
             markDirty();
+            invalidateMeasure();
         }
     }
     
+    /**
+     * Removes the children in {@code [fromIndex, toIndex)} with a single shift of
+     * the child list and a single invalidation.
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, children.size());
+        if (fromIndex == toIndex) return;
+        List<UIBaseElement> range = children.subList(fromIndex, toIndex);
+        UIBaseElement[] removed = range.toArray(new UIBaseElement[0]);
+        range.clear();
+        childIndexValid = Math.min(childIndexValid, fromIndex);
+        if (compactStore != null) {
+            compactStore.rebuild(children);
+        }
+        for (UIBaseElement child : removed) {
+            release(child);
+        }
+        markDirty();
+        invalidateMeasure();
+    }
+    
     public void removeAllChildren() {
-        for (UIBaseElement child : new ArrayList<>(children)) {
-            removeChild(child);
+        removeRange(0, children.size());
+    }
+    
+    /**
+     * Moves one of this container's children to {@code index} without detaching it.
+     */
+    public void moveChild(UIBaseElement child, int index) {
+        int from = indexOfChild(child);
+        if (from < 0) {
+            throw new IllegalArgumentException("Element is not a child of this container");
+        }
+        Objects.checkIndex(index, children.size());
+        if (from == index) return;
+        children.remove(from);
+        children.add(index, child);
+        child.childIndex = index;
+        childIndexValid = Math.min(childIndexValid, Math.min(from, index));
+        if (compactStore != null) {
+            compactStore.remove(from);
+            compactStore.insert(index, child);
+        }
+        markDirty();
+        invalidateMeasure();
+    }
+    
+    /**
+     * Returns the index of {@code child} in this container, or -1 if it is not a child.
+     * Indices are cached on the children and renumbered lazily after the list changes.
+     */
+    public int indexOfChild(UIBaseElement child) {
+        if (child == null || child.parent != this) return -1;
+        int hint = child.childIndex;
+        if (hint >= 0 && hint < children.size() && children.get(hint) == child) {
+            return hint;
         }
+        // Children before the valid mark have exact indices, so it is further on; renumber up to it
+        for (int i = childIndexValid, n = children.size(); i < n; i++) {
+            UIBaseElement next = children.get(i);
+            next.childIndex = i;
+            childIndexValid = i + 1;
+            if (next == child) return i;
+        }
+        return -1;
+    }
+    
+    private static void clearMarks(UIBaseElement[] elements, int count) {
+        for (int i = 0; i < count; i++) {
+            if (elements[i].childIndex == KEPT || elements[i].childIndex == JOINING) {
+                elements[i].childIndex = -1;
+            }
+        }
+    }
+    
+    private void release(UIBaseElement child) {
+        if (child.getContext() != null) {
+            child.detach();
+        }
+        child.setParent(null);
+        child.childIndex = -1;
     }
     
     public List<UIBaseElement> getChildren() {
@@ -53,30 +305,127 @@ public class UIContainer extends UIBaseElement {
         return children.get(index);
     }
     
+    // Compact storage
+    
+    /**
+     * Mirrors the children's geometry, visibility and dirty bits into parallel
+     * primitive arrays. Hit-testing then scans the arrays, and rendering skips
+     * children that lie entirely outside this container's bounds. Meant for
+     * containers with very many children, such as large status walls.
+     */
+    public void setCompactStore(boolean enabled) {
+        if (enabled == (compactStore != null)) return;
+        if (enabled) {
+            compactStore = new ElementStore(children.size());
+            for (UIBaseElement child : children) {
+                compactStore.add(child);
+            }
+        } else {
+            compactStore.clear();
+            compactStore = null;
+        }
+    }
+    
+    public ElementStore getCompactStore() {
+        return compactStore;
+    }
+    
+    @Override
+    void attach(UIContext context) {
+        super.attach(context);
+        for (UIBaseElement child : children) {
+            child.attach(context);
+        }
+    }
+    
+    @Override
+    void detach() {
+        for (UIBaseElement child : children) {
+            child.detach();
+        }
+        super.detach();
+    }
+    
     // Layout
     public void setLayoutManager(LayoutManager layoutManager) {
         this.layoutManager = layoutManager;
         markDirty();
+        invalidateMeasure();
     }
     
     public LayoutManager getLayoutManager() {
         return layoutManager;
     }
     
+    @Override
+    protected void onMeasure(float availableWidth, float availableHeight) {
+        if (isAutoSize() && layoutManager != null) {
+            float[] size = layoutManager.measure(this, availableWidth, availableHeight);
+            if (size != null) {
+                setMeasuredSize(size[0], size[1]);
+                return;
+            }
+        }
+        super.onMeasure(availableWidth, availableHeight);
+    }
+    
     @Override
     public void layout() {
-        if (layoutManager != null) {
-            layoutManager.layout(this);
+        beginLayout();
+        try {
+            if (layoutManager != null) {
+                layoutManager.layout(this);
+            }
+            
+            // Layout children
+            for (UIBaseElement child : children) {
+                child.layout();
+            }
+        } finally {
+            endLayout();
         }
-        
-        // Layout children
-        for (UIBaseElement child : children) {
-            child.layout();
+    }
+    
+    /**
+     * Opens a layout transaction. Until the matching {@link #endLayout()}, children
+     * still update their bounds and dirty flags immediately, but the walk up to the
+     * root stops at this container and happens once when the outermost transaction
+     * ends. {@link #layout()} runs inside one automatically.
+     */
+    public void beginLayout() {
+        layoutDepth++;
+    }
+    
+    public void endLayout() {
+        if (layoutDepth == 0) {
+            throw new IllegalStateException("endLayout() without beginLayout()");
+        }
+        if (--layoutDepth == 0 && layoutInvalidated) {
+            layoutInvalidated = false;
+            markDirty();
+        }
+    }
+    
+    public boolean isInLayout() {
+        return layoutDepth > 0;
+    }
+    
+    @Override
+    public void markDirty() {
+        if (layoutDepth > 0) {
+            markSelfDirty();
+            layoutInvalidated = true;
+            return;
         }
+        super.markDirty();
     }
     
     // Hit testing
     public UIBaseElement getElementAt(float x, float y) {
+        if (compactStore != null) {
+            return getElementAtCompact(x, y);
+        }
+        
         // Check children in reverse order (top to bottom)
         for (int i = children.size() - 1; i >= 0; i--) {
             UIBaseElement child = children.get(i);
@@ -98,6 +447,25 @@ public class UIContainer extends UIBaseElement {
         return null;
     }
     
+    private UIBaseElement getElementAtCompact(float x, float y) {
+        ElementStore store = compactStore;
+        float localX = x - getAbsoluteX();
+        float localY = y - getAbsoluteY();
+        
+        // Nested containers may overflow their bounds, so they are always searched
+        for (int i = store.size() - 1; i >= 0; i--) {
+            if (!store.isVisible(i) || !store.isEnabled(i)) continue;
+            if (store.isContainer(i)) {
+                UIBaseElement found = ((UIContainer) store.getElement(i)).getElementAt(x, y);
+                if (found != null) return found;
+            } else if (store.contains(i, localX, localY)) {
+                return store.getElement(i);
+            }
+        }
+        
+        return containsPoint(x, y) ? this : null;
+    }
+    
     @Override
     public void render(NVGRenderer renderer) {
         if (!visible) return;
@@ -106,20 +474,19 @@ public class UIContainer extends UIBaseElement {
         super.render(renderer);
         
         // Render children
+        if (compactStore != null) {
+            ElementStore store = compactStore;
+            for (int i = 0, n = store.size(); i < n; i++) {
+                if (store.isInView(i, 0, 0, width, height)) {
+                    store.getElement(i).render(renderer);
+                }
+            }
+            return;
+        }
         for (UIBaseElement child : children) {
             if (child.isVisible()) {
                 child.render(renderer);
             }
         }
     }
-    
-    @Override
-    public void update(float deltaTime) {
-        super.update(deltaTime);
-        
-        // Update children
-        for (UIBaseElement child : children) {
-            child.update(deltaTime);
-        }
-    }
 }
@@ -1,10 +1,18 @@
 package com.jembedui.core;
 
+import com.jembedui.animation.Animator;
 import com.jembedui.events.*;
 import com.jembedui.render.NVGRenderer;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Root manager for the UI system.
@@ -22,6 +30,24 @@ public class UIContext {
     private UIBaseElement focusedElement;
     private UIBaseElement pressedElement;
     
+    // Elements that asked to be updated every frame
+    private final List<UIBaseElement> activeElements = new ArrayList<>();
+    private UIBaseElement[] tickBuffer = new UIBaseElement[16];
+    
+    // Id index: hash map for O(1) lookup, sorted map for prefix queries
+    private final Map<String, UIBaseElement> elementsById = new HashMap<>();
+    private final TreeMap<String, UIBaseElement> sortedIds = new TreeMap<>();
+    // Older elements hidden by a duplicate id, oldest first; they resolve again once the newer ones leave
+    private final Map<String, List<UIBaseElement>> shadowedIds = new HashMap<>();
+    private final Map<String, Set<UIBaseElement>> elementsByGroup = new HashMap<>();
+    
+    // Timers run on the context clock, which advances with update()
+    private final TimerWheel timers = new TimerWheel();
+    private double clockMillis = 0;
+    
+    private final Animator animator = new Animator();
+    private final TaskScheduler scheduler = new TaskScheduler();
+    
     public UIContext(float windowWidth, float windowHeight, float pixelRatio) {
         this.windowWidth = windowWidth;
         this.windowHeight = windowHeight;
@@ -29,6 +55,7 @@ public class UIContext {
         this.renderer = new NVGRenderer();
         this.root = new UIContainer();
         this.root.setBounds(0, 0, windowWidth, windowHeight);
+        this.root.attach(this);
     }
     
     public UIContainer getRoot() {
@@ -60,10 +87,7 @@ public class UIContext {
         if (focusedElement != element) {
             // Notify previous focused element that it lost focus
             if (focusedElement != null) {
-                // Check if it's a text field and call loseFocus
-                if (focusedElement instanceof com.jembedui.components.input.UITextField) {
-                    ((com.jembedui.components.input.UITextField) focusedElement).loseFocus();
-                }
+                focusedElement.onFocusLost();
             }
             focusedElement = element;
         }
@@ -175,9 +199,165 @@ public class UIContext {
         }
     }
     
+    // Active-tick set
+    void addActiveElement(UIBaseElement element) {
+        if (element.activeIndex >= 0) return;
+        element.activeIndex = activeElements.size();
+        activeElements.add(element);
+    }
+    
+    void removeActiveElement(UIBaseElement element) {
+        int index = element.activeIndex;
+        if (index < 0) return;
+        // Swap-remove so unregistering is O(1)
+        UIBaseElement last = activeElements.remove(activeElements.size() - 1);
+        if (last != element) {
+            activeElements.set(index, last);
+            last.activeIndex = index;
+        }
+        element.activeIndex = -1;
+    }
+    
+    public int getActiveElementCount() {
+        return activeElements.size();
+    }
+    
+    // Id registry, maintained as elements join and leave the tree
+    void registerId(String id, UIBaseElement element) {
+        UIBaseElement previous = elementsById.put(id, element);
+        if (previous != null && previous != element) {
+            System.err.println("Warning: duplicate element id '" + id
+                               + "', lookups resolve to the newest element until it is detached");
+            shadowedIds.computeIfAbsent(id, k -> new ArrayList<>()).add(previous);
+        }
+        sortedIds.put(id, element);
+    }
+    
+    void unregisterId(String id, UIBaseElement element) {
+        List<UIBaseElement> shadowed = shadowedIds.get(id);
+        if (elementsById.get(id) != element) {
+            // A duplicate took the entry over; just forget this element
+            if (shadowed != null && shadowed.remove(element) && shadowed.isEmpty()) {
+                shadowedIds.remove(id);
+            }
+            return;
+        }
+        if (shadowed == null) {
+            elementsById.remove(id);
+            sortedIds.remove(id);
+            return;
+        }
+        // Hand the id back to the most recent older element still attached
+        UIBaseElement restored = shadowed.remove(shadowed.size() - 1);
+        if (shadowed.isEmpty()) {
+            shadowedIds.remove(id);
+        }
+        elementsById.put(id, restored);
+        sortedIds.put(id, restored);
+    }
+    
+    void registerGroup(String group, UIBaseElement element) {
+        elementsByGroup.computeIfAbsent(group, k -> new LinkedHashSet<>()).add(element);
+    }
+    
+    void unregisterGroup(String group, UIBaseElement element) {
+        Set<UIBaseElement> members = elementsByGroup.get(group);
+        if (members != null) {
+            members.remove(element);
+            if (members.isEmpty()) {
+                elementsByGroup.remove(group);
+            }
+        }
+    }
+    
+    public UIBaseElement findById(String id) {
+        return elementsById.get(id);
+    }
+    
+    /**
+     * Returns the element with the given id if it is an instance of {@code type}, otherwise null.
+     */
+    public <T extends UIBaseElement> T findById(String id, Class<T> type) {
+        UIBaseElement element = elementsById.get(id);
+        return type.isInstance(element) ? type.cast(element) : null;
+    }
+    
+    /**
+     * Returns all attached elements whose id starts with {@code prefix}, in id order.
+     */
+    public Collection<UIBaseElement> findByPrefix(String prefix) {
+        return Collections.unmodifiableCollection(
+            sortedIds.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values());
+    }
+    
+    public Collection<UIBaseElement> findByGroup(String group) {
+        Set<UIBaseElement> members = elementsByGroup.get(group);
+        return members != null ? Collections.unmodifiableSet(members) : Collections.emptySet();
+    }
+    
+    // Timers
+    public TimerWheel getTimers() {
+        return timers;
+    }
+    
+    public long getTimeMillis() {
+        return timers.getCurrentTime();
+    }
+    
+    /**
+     * Returns how long the main loop may sleep before the next timer is due,
+     * or {@link Long#MAX_VALUE} if no timer is armed.
+     */
+    public long getMillisUntilNextTimer() {
+        long deadline = timers.nextDeadline();
+        if (deadline == Long.MAX_VALUE) return Long.MAX_VALUE;
+        return Math.max(0, deadline - timers.getCurrentTime());
+    }
+    
+    /**
+     * Returns true when nothing is ticking, animating or scheduled and nothing changed since the last render,
+     * so the main loop can wait for input or the next timer instead of drawing.
+     */
+    public boolean isIdle() {
+        return activeElements.isEmpty() && animator.isEmpty() && scheduler.isEmpty() && !root.isDirty();
+    }
+    
+    // Animation
+    public Animator getAnimator() {
+        return animator;
+    }
+    
+    // Background work
+    
+    /**
+     * Returns the scheduler whose tasks run in time slices at the end of each {@link #update(float)}.
+     */
+    public TaskScheduler getScheduler() {
+        return scheduler;
+    }
+    
     // Update and render
     public void update(float deltaTime) {
-        root.update(deltaTime);
+        clockMillis += deltaTime * 1000.0;
+        timers.advance((long) clockMillis);
+        animator.update(deltaTime);
+        
+        // Tick from a snapshot so elements may (un)register themselves during update
+        int count = activeElements.size();
+        if (tickBuffer.length < count) {
+            tickBuffer = new UIBaseElement[Math.max(count, tickBuffer.length * 2)];
+        }
+        activeElements.toArray(tickBuffer);
+        for (int i = 0; i < count; i++) {
+            UIBaseElement element = tickBuffer[i];
+            tickBuffer[i] = null;
+            if (element.activeIndex >= 0) {
+                element.update(deltaTime);
+            }
+        }
+        
+        // Long jobs get whatever is left of their per-frame budget
+        scheduler.runFrame();
     }
     
     public void render() {
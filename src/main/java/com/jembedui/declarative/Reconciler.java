@@ -0,0 +1,167 @@
+package com.jembedui.declarative;
+
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Applies {@link UISpec} trees to live containers by key.
+ * <p>
+ * Children whose key (or, for unkeyed specs, position) and type match the
+ * previous pass are reused, only properties whose values changed are set again,
+ * and only containers whose children moved, appeared, disappeared or changed
+ * geometry are laid out again. Children the reconciler did not create are
+ * removed from containers it manages.
+ * <p>
+ * A property set by the previous spec but missing from the new one is undone:
+ * if it was set with a reset value, the setter is called with that value;
+ * otherwise the element is recreated from the new spec, since its old value
+ * cannot be taken back.
+ */
+public final class Reconciler {
+
+    private static final Set<String> LAYOUT_PROPS =
+        Set.of("x", "y", "width", "height", "visible", "layout");
+
+    // How much an element changed in one pass
+    private static final int UNCHANGED = 0;
+    private static final int PROPS_CHANGED = 1;
+    private static final int LAYOUT_CHANGED = 2;
+
+    // Spec last applied to each element this reconciler created
+    private final Map<UIBaseElement, UISpec<?>> applied = new WeakHashMap<>();
+
+    /**
+     * Makes the children of {@code parent} match {@code specs}.
+     * Returns true if anything in the live tree changed.
+     */
+    public boolean reconcile(UIContainer parent, List<UISpec<?>> specs) {
+        return reconcileChildren(parent, specs, true);
+    }
+
+    public boolean reconcile(UIContainer parent, UISpec<?>... specs) {
+        return reconcileChildren(parent, Arrays.asList(specs), true);
+    }
+
+    /**
+     * Builds a new element tree for the spec; later passes can reconcile it.
+     */
+    public <E extends UIBaseElement> E create(UISpec<E> spec) {
+        E element = spec.factory.get();
+        for (UISpec.Prop<E, ?> prop : spec.props) {
+            prop.apply(element);
+        }
+        applied.put(element, spec);
+        if (spec.children != null && element instanceof UIContainer) {
+            // The new subtree is laid out by whichever container it gets added to
+            reconcileChildren((UIContainer) element, spec.children, false);
+        }
+        return element;
+    }
+
+    private boolean reconcileChildren(UIContainer parent, List<UISpec<?>> specs, boolean layout) {
+        // Index the reusable children: keyed ones by key, unkeyed ones by position
+        Map<Object, UIBaseElement> keyed = new HashMap<>();
+        List<UIBaseElement> unkeyed = new ArrayList<>();
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            UIBaseElement child = parent.getChildAt(i);
+            UISpec<?> previous = applied.get(child);
+            if (previous == null) continue;
+            if (previous.key != null) {
+                keyed.put(previous.key, child);
+            } else {
+                unkeyed.add(child);
+            }
+        }
+
+        boolean changed = false;
+        boolean needsLayout = false;
+        List<UIBaseElement> desired = new ArrayList<>(specs.size());
+        int unkeyedIndex = 0;
+        for (UISpec<?> spec : specs) {
+            UIBaseElement candidate = spec.key != null
+                ? keyed.remove(spec.key)
+                : (unkeyedIndex < unkeyed.size() ? unkeyed.get(unkeyedIndex++) : null);
+
+            UISpec<?> previous = candidate != null ? applied.get(candidate) : null;
+            if (previous != null && previous.type == spec.type && canUpdate(previous, spec)) {
+                int result = update(candidate, previous, spec);
+                changed |= result != UNCHANGED;
+                needsLayout |= result == LAYOUT_CHANGED;
+                desired.add(candidate);
+            } else {
+                desired.add(create(spec));
+                changed = true;
+                needsLayout = true;
+            }
+        }
+
+        // Apply removals, insertions and moves as one change to the child list
+        if (!sameChildren(parent, desired)) {
+            Set<UIBaseElement> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+            keep.addAll(desired);
+            for (int i = 0; i < parent.getChildCount(); i++) {
+                UIBaseElement child = parent.getChildAt(i);
+                if (!keep.contains(child)) {
+                    applied.remove(child);
+                }
+            }
+            parent.replaceChildren(desired);
+            changed = true;
+            needsLayout = true;
+        }
+
+        if (needsLayout && layout) {
+            parent.layout();
+        }
+        return changed;
+    }
+
+    private static boolean sameChildren(UIContainer parent, List<UIBaseElement> desired) {
+        if (parent.getChildCount() != desired.size()) return false;
+        for (int i = 0; i < desired.size(); i++) {
+            if (parent.getChildAt(i) != desired.get(i)) return false;
+        }
+        return true;
+    }
+
+    // An element can be updated in place unless the new spec drops a property that has no reset value
+    private static boolean canUpdate(UISpec<?> previous, UISpec<?> spec) {
+        for (UISpec.Prop<?, ?> prop : previous.props) {
+            if (!prop.resettable && spec.findProp(prop.name) == null) return false;
+        }
+        return true;
+    }
+
+    private int update(UIBaseElement element, UISpec<?> previous, UISpec<?> spec) {
+        int result = UNCHANGED;
+        for (UISpec.Prop<?, ?> prop : previous.props) {
+            if (spec.findProp(prop.name) == null) {
+                prop.reset(element);
+                result = Math.max(result, LAYOUT_PROPS.contains(prop.name) ? LAYOUT_CHANGED : PROPS_CHANGED);
+            }
+        }
+        for (UISpec.Prop<?, ?> prop : spec.props) {
+            if (!UISpec.sameValue(prop, previous.findProp(prop.name))) {
+                prop.apply(element);
+                result = Math.max(result, LAYOUT_PROPS.contains(prop.name) ? LAYOUT_CHANGED : PROPS_CHANGED);
+            }
+        }
+        applied.put(element, spec);
+        if (spec.children != null && element instanceof UIContainer) {
+            if (reconcileChildren((UIContainer) element, spec.children, true)) {
+                result = Math.max(result, PROPS_CHANGED);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,184 @@
+package com.jembedui.declarative;
+
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+import com.jembedui.layout.LayoutManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Lightweight description of one element: its type, key, property values and children.
+ * <p>
+ * Specs are cheap to build every time a screen changes. A {@link Reconciler}
+ * compares them against the previously applied specs and only touches the live
+ * elements whose properties or children actually differ.
+ *
+ * <pre>{@code
+ * UISpec.of(UIPanel.class, UIPanel::new).key("status")
+ *     .layout(statusLayout)
+ *     .children(
+ *         UISpec.of(UILabel.class, UILabel::new).key("rpm").set("text", UILabel::setText, rpmText),
+ *         UISpec.of(UIButton.class, UIButton::new).key("reset").set("label", UIButton::setLabel, "Reset"));
+ * }</pre>
+ */
+public final class UISpec<E extends UIBaseElement> {
+
+    /**
+     * One named property value, the setter that applies it and, optionally, the
+     * value that undoes it when a later spec drops the property.
+     */
+    static final class Prop<E, V> {
+        final String name;
+        final BiConsumer<? super E, V> setter;
+        final V value;
+        final boolean resettable;
+        final V resetValue;
+
+        Prop(String name, BiConsumer<? super E, V> setter, V value, boolean resettable, V resetValue) {
+            this.name = name;
+            this.setter = setter;
+            this.value = value;
+            this.resettable = resettable;
+            this.resetValue = resetValue;
+        }
+
+        @SuppressWarnings("unchecked")
+        void apply(UIBaseElement element) {
+            setter.accept((E) element, value);
+        }
+
+        @SuppressWarnings("unchecked")
+        void reset(UIBaseElement element) {
+            setter.accept((E) element, resetValue);
+        }
+    }
+
+    final Class<E> type;
+    final Supplier<? extends E> factory;
+    Object key;
+    final List<Prop<E, ?>> props = new ArrayList<>();
+    List<UISpec<?>> children;
+
+    private UISpec(Class<E> type, Supplier<? extends E> factory) {
+        this.type = type;
+        this.factory = factory;
+    }
+
+    public static <E extends UIBaseElement> UISpec<E> of(Class<E> type, Supplier<? extends E> factory) {
+        return new UISpec<>(type, factory);
+    }
+
+    /**
+     * Identifies this spec among its siblings so the reconciler can reuse the same
+     * element when siblings are inserted, removed or reordered. Unkeyed specs are
+     * matched by position.
+     */
+    public UISpec<E> key(Object key) {
+        this.key = key;
+        return this;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public Class<E> getType() {
+        return type;
+    }
+
+    /**
+     * Sets a property. The setter only runs when the value differs from the one
+     * applied by the previous spec for the same element. If a later spec for the
+     * element leaves the property out, the element is recreated from that spec.
+     */
+    public <V> UISpec<E> set(String name, BiConsumer<? super E, V> setter, V value) {
+        return put(new Prop<>(name, setter, value, false, null));
+    }
+
+    /**
+     * Sets a property that a later spec can leave out without recreating the
+     * element: the setter is then called with {@code resetValue}, normally the
+     * element's default.
+     */
+    public <V> UISpec<E> set(String name, BiConsumer<? super E, V> setter, V value, V resetValue) {
+        return put(new Prop<>(name, setter, value, true, resetValue));
+    }
+
+    private UISpec<E> put(Prop<E, ?> prop) {
+        for (int i = 0; i < props.size(); i++) {
+            if (props.get(i).name.equals(prop.name)) {
+                props.set(i, prop);
+                return this;
+            }
+        }
+        props.add(prop);
+        return this;
+    }
+
+    public UISpec<E> id(String id) {
+        return set("id", UIBaseElement::setId, id, null);
+    }
+
+    public UISpec<E> bounds(float x, float y, float width, float height) {
+        set("x", UIBaseElement::setX, x);
+        set("y", UIBaseElement::setY, y);
+        set("width", UIBaseElement::setWidth, width);
+        return set("height", UIBaseElement::setHeight, height);
+    }
+
+    public UISpec<E> size(float width, float height) {
+        set("width", UIBaseElement::setWidth, width);
+        return set("height", UIBaseElement::setHeight, height);
+    }
+
+    public UISpec<E> visible(boolean visible) {
+        return set("visible", UIBaseElement::setVisible, visible, true);
+    }
+
+    public UISpec<E> enabled(boolean enabled) {
+        return set("enabled", UIBaseElement::setEnabled, enabled, true);
+    }
+
+    /**
+     * Sets the layout manager of a container element. Reuse the same manager
+     * instance across specs, or the reconciler sees a change every time.
+     */
+    public UISpec<E> layout(LayoutManager layoutManager) {
+        return set("layout", (element, value) -> ((UIContainer) element).setLayoutManager(value), layoutManager);
+    }
+
+    public UISpec<E> children(UISpec<?>... children) {
+        this.children = new ArrayList<>(children.length);
+        Collections.addAll(this.children, children);
+        return this;
+    }
+
+    public UISpec<E> children(List<UISpec<?>> children) {
+        this.children = new ArrayList<>(children);
+        return this;
+    }
+
+    public UISpec<E> child(UISpec<?> child) {
+        if (children == null) {
+            children = new ArrayList<>();
+        }
+        children.add(child);
+        return this;
+    }
+
+    Prop<E, ?> findProp(String name) {
+        for (Prop<E, ?> prop : props) {
+            if (prop.name.equals(name)) return prop;
+        }
+        return null;
+    }
+
+    static boolean sameValue(Prop<?, ?> a, Prop<?, ?> b) {
+        return a != null && b != null && Objects.equals(a.value, b.value);
+    }
+}
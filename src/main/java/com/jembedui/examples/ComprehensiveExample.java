@@ -43,6 +43,9 @@ public class ComprehensiveExample {
     private int windowHeight = 480;
     private boolean running = true;
 
+    // Upper bound for idle waits, in case some state change did not mark the tree dirty
+    private static final long MAX_IDLE_WAIT_MS = 250;
+
     public static void main(String[] args) {
         new ComprehensiveExample().run();
     }
@@ -377,6 +380,8 @@ public class ComprehensiveExample {
     private void loop() {
         SDL_Event event = SDL_Event.calloc();
 
+        long lastFrameTime = System.nanoTime();
+
         while (running) {
             // Poll events
             while (SDL_PollEvent(event)) {
@@ -388,15 +393,26 @@ public class ComprehensiveExample {
             glClearColor(0.15f, 0.15f, 0.18f, 1.0f);
             glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
 
-            // Update UI
-            uiContext.update(0.016f);  // ~60 FPS
+            // Update UI with the real elapsed time so timers stay accurate across idle waits
+            long now = System.nanoTime();
+            uiContext.update((now - lastFrameTime) / 1_000_000_000.0f);
+            lastFrameTime = now;
             
             // Render UI
             uiContext.render();
             
             // Swap buffers
             SDL_GL_SwapWindow(window);
-            SDL_Delay(16);
+
+            if (uiContext.isIdle()) {
+                // Nothing to animate: sleep until the next input event or timer deadline
+                long timeout = Math.min(uiContext.getMillisUntilNextTimer(), MAX_IDLE_WAIT_MS);
+                if (SDL_WaitEventTimeout(event, (int) timeout)) {
+                    handleEvent(event);
+                }
+            } else {
+                SDL_Delay(16);
+            }
         }
 
         event.free();
@@ -0,0 +1,98 @@
+package com.jembedui.examples;
+
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+import com.jembedui.markup.LayoutLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Measures loading a generated 2k-element layout file, parsed from XML versus
+ * loaded from the compiled snapshot cache. Runs headless; no window is opened.
+ * <p>
+ * Usage: {@code LayoutLoadBenchmark [rows] [iterations]}
+ */
+public class LayoutLoadBenchmark {
+
+    private static final float WINDOW_WIDTH = 1280;
+    private static final float WINDOW_HEIGHT = 720;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        byte[] xml = generateLayout(rows).getBytes(StandardCharsets.UTF_8);
+        Path cacheDir = Files.createTempDirectory("jembedui-layout-cache");
+        try {
+            LayoutLoader parser = new LayoutLoader();
+            LayoutLoader cached = new LayoutLoader(cacheDir);
+
+            UIContainer screen = parser.load(xml, WINDOW_WIDTH, WINDOW_HEIGHT);
+            System.out.println("Layout: " + countElements(screen) + " elements, " + xml.length + " bytes of XML");
+
+            long start = System.nanoTime();
+            cached.load(xml, WINDOW_WIDTH, WINDOW_HEIGHT);
+            System.out.printf("First load (parse + compile cache): %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+            // Warm up both paths before timing them
+            for (int i = 0; i < iterations; i++) {
+                parser.load(xml, WINDOW_WIDTH, WINDOW_HEIGHT);
+                cached.load(xml, WINDOW_WIDTH, WINDOW_HEIGHT);
+            }
+
+            System.out.printf("Parse XML + layout:  %.3f ms/load%n", time(parser, xml, iterations));
+            System.out.printf("Cached snapshot:     %.3f ms/load%n", time(cached, xml, iterations));
+        } finally {
+            try (Stream<Path> files = Files.walk(cacheDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static double time(LayoutLoader loader, byte[] xml, int iterations) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            loader.load(xml, WINDOW_WIDTH, WINDOW_HEIGHT);
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    private static String generateLayout(int rows) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<Container layout=\"vertical\" spacing=\"2\" padding=\"10\" background=\"#1A1A1F\">\n");
+        for (int row = 0; row < rows; row++) {
+            xml.append("  <Panel id=\"row").append(row).append("\" height=\"24\" width=\"1260\"")
+               .append(" layout=\"horizontal\" spacing=\"4\" background=\"#26262E\">\n");
+            xml.append("    <Label text=\"Row ").append(row).append("\" width=\"60\" height=\"20\" fontSize=\"12\"/>\n");
+            for (int col = 0; col < 6; col++) {
+                xml.append("    <Button id=\"btn").append(row).append('_').append(col)
+                   .append("\" label=\"Action ").append(col).append("\" width=\"80\" height=\"20\"/>\n");
+                xml.append("    <Checkbox label=\"\" checked=\"").append((row + col) % 2 == 0).append("\"/>\n");
+            }
+            xml.append("    <Slider width=\"120\" height=\"20\" value=\"0.5\"/>\n");
+            xml.append("    <ProgressBar width=\"120\" height=\"20\" progress=\"0.25\" barColor=\"#33AA55\"/>\n");
+            for (int col = 0; col < 5; col++) {
+                xml.append("    <Text text=\"v").append(col).append("\" width=\"30\" height=\"20\" foreground=\"#CCCCCC\"/>\n");
+            }
+            xml.append("  </Panel>\n");
+        }
+        xml.append("</Container>\n");
+        return xml.toString();
+    }
+
+    private static int countElements(UIBaseElement element) {
+        int count = 1;
+        if (element instanceof UIContainer) {
+            UIContainer container = (UIContainer) element;
+            for (int i = 0; i < container.getChildCount(); i++) {
+                count += countElements(container.getChildAt(i));
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,348 @@
+package com.jembedui.layout;
+
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+import com.jembedui.style.Style;
+
+import java.util.Arrays;
+
+/**
+ * Flexbox-style layout manager.
+ * <p>
+ * Children are placed in a row or column, optionally wrapping onto several lines.
+ * Each child starts from its basis (its measured size along the main axis unless
+ * set explicitly), then free space is shared out by grow factors or taken back
+ * in proportion to shrink factor times basis. Margins from the child's style are
+ * respected, {@code gap} separates items and {@code crossGap} separates lines.
+ * Per-child settings live in {@link Item}, stored as the child's layout data.
+ * <p>
+ * Children are sized from their measured size (see {@link UIBaseElement#measure}):
+ * the size they were given outside of layout, or their intrinsic size when
+ * auto-sized. An auto-sized container with a {@code FlexLayout} measures to its
+ * content. Measurements are memoized per element until something inside it
+ * changes, so relaying out nested rows and columns after a resize does not
+ * re-measure them.
+ */
+public class FlexLayout implements LayoutManager {
+
+    public enum Direction {
+        ROW, COLUMN
+    }
+
+    public enum Justify {
+        START, CENTER, END, SPACE_BETWEEN, SPACE_AROUND, SPACE_EVENLY
+    }
+
+    public enum Align {
+        START, CENTER, END, STRETCH
+    }
+
+    /**
+     * Per-child flex settings. Obtain one with {@link #of(UIBaseElement)}.
+     */
+    public static final class Item {
+        private final UIBaseElement owner;
+        private float grow = 0;
+        private float shrink = 1;
+        private float basis = -1;
+        private Align alignSelf;
+
+        private Item(UIBaseElement owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Returns the flex settings of {@code child}, creating default ones if needed.
+         */
+        public static Item of(UIBaseElement child) {
+            Object data = child.getLayoutData();
+            if (data instanceof Item) {
+                return (Item) data;
+            }
+            Item item = new Item(child);
+            child.setLayoutData(item);
+            return item;
+        }
+
+        public float getGrow() { return grow; }
+        public float getShrink() { return shrink; }
+        public float getBasis() { return basis; }
+        public Align getAlignSelf() { return alignSelf; }
+
+        public Item setGrow(float grow) {
+            this.grow = Math.max(0, grow);
+            changed();
+            return this;
+        }
+
+        public Item setShrink(float shrink) {
+            this.shrink = Math.max(0, shrink);
+            changed();
+            return this;
+        }
+
+        /**
+         * Sets the main-axis starting size; a negative value means the natural size.
+         */
+        public Item setBasis(float basis) {
+            this.basis = basis;
+            changed();
+            return this;
+        }
+
+        /**
+         * Overrides the container's item alignment for this child; null to inherit it.
+         */
+        public Item setAlignSelf(Align alignSelf) {
+            this.alignSelf = alignSelf;
+            changed();
+            return this;
+        }
+
+        private void changed() {
+            owner.invalidateMeasure();
+            owner.markDirty();
+        }
+    }
+
+    private Direction direction = Direction.ROW;
+    private boolean wrap = false;
+    private float gap = 0;
+    private float crossGap = 0;
+    private Justify justify = Justify.START;
+    private Align alignItems = Align.STRETCH;
+
+    // Per-pass scratch, indexed by visible child
+    private UIBaseElement[] items = new UIBaseElement[0];
+    private float[] base = new float[0];
+    private float[] size = new float[0];
+    private float[] cross = new float[0];
+    private float[] marginMainStart = new float[0];
+    private float[] marginMain = new float[0];
+    private float[] marginCrossStart = new float[0];
+    private float[] marginCross = new float[0];
+
+    public FlexLayout() {
+    }
+
+    public FlexLayout(Direction direction) {
+        this.direction = direction;
+    }
+
+    public FlexLayout(Direction direction, float gap) {
+        this.direction = direction;
+        this.gap = gap;
+        this.crossGap = gap;
+    }
+
+    public Direction getDirection() { return direction; }
+    public void setDirection(Direction direction) { this.direction = direction; }
+
+    public boolean isWrap() { return wrap; }
+    public void setWrap(boolean wrap) { this.wrap = wrap; }
+
+    public float getGap() { return gap; }
+    public void setGap(float gap) { this.gap = gap; }
+
+    public float getCrossGap() { return crossGap; }
+    public void setCrossGap(float crossGap) { this.crossGap = crossGap; }
+
+    public Justify getJustify() { return justify; }
+    public void setJustify(Justify justify) { this.justify = justify; }
+
+    public Align getAlignItems() { return alignItems; }
+    public void setAlignItems(Align alignItems) { this.alignItems = alignItems; }
+
+    @Override
+    public void layout(UIContainer container) {
+        int count = container.getChildCount();
+        if (count == 0) return;
+        ensureScratch(count);
+
+        boolean row = direction == Direction.ROW;
+        Style cs = container.getStyle();
+        float padMainStart = row ? cs.getPaddingLeft() : cs.getPaddingTop();
+        float padMainEnd = row ? cs.getPaddingRight() : cs.getPaddingBottom();
+        float padCrossStart = row ? cs.getPaddingTop() : cs.getPaddingLeft();
+        float padCrossEnd = row ? cs.getPaddingBottom() : cs.getPaddingRight();
+        float innerMain = (row ? container.getWidth() : container.getHeight()) - padMainStart - padMainEnd;
+        float innerCross = (row ? container.getHeight() : container.getWidth()) - padCrossStart - padCrossEnd;
+
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            UIBaseElement child = container.getChildAt(i);
+            if (!child.isVisible()) continue;
+
+            measureChild(child, row, innerCross);
+            Item item = itemOf(child);
+            Style s = child.getStyle();
+            float natMain = row ? child.getMeasuredWidth() : child.getMeasuredHeight();
+            items[n] = child;
+            base[n] = item != null && item.basis >= 0 ? item.basis : natMain;
+            cross[n] = row ? child.getMeasuredHeight() : child.getMeasuredWidth();
+            marginMainStart[n] = row ? s.getMarginLeft() : s.getMarginTop();
+            marginMain[n] = marginMainStart[n] + (row ? s.getMarginRight() : s.getMarginBottom());
+            marginCrossStart[n] = row ? s.getMarginTop() : s.getMarginLeft();
+            marginCross[n] = marginCrossStart[n] + (row ? s.getMarginBottom() : s.getMarginRight());
+            n++;
+        }
+
+        float crossPos = padCrossStart;
+        int lineStart = 0;
+        while (lineStart < n) {
+            // Collect one line
+            int lineEnd = lineStart;
+            float used = 0;
+            while (lineEnd < n) {
+                float outer = base[lineEnd] + marginMain[lineEnd] + (lineEnd > lineStart ? gap : 0);
+                if (wrap && lineEnd > lineStart && used + outer > innerMain) break;
+                used += outer;
+                lineEnd++;
+            }
+
+            // Resolve flexible lengths
+            float free = innerMain - used;
+            float totalGrow = 0;
+            float totalShrink = 0;
+            for (int i = lineStart; i < lineEnd; i++) {
+                Item item = itemOf(items[i]);
+                size[i] = base[i];
+                totalGrow += item != null ? item.grow : 0;
+                totalShrink += (item != null ? item.shrink : 1) * base[i];
+            }
+            if (free > 0 && totalGrow > 0) {
+                for (int i = lineStart; i < lineEnd; i++) {
+                    Item item = itemOf(items[i]);
+                    if (item != null) size[i] += free * item.grow / totalGrow;
+                }
+                free = 0;
+            } else if (free < 0 && totalShrink > 0) {
+                for (int i = lineStart; i < lineEnd; i++) {
+                    Item item = itemOf(items[i]);
+                    float shrink = item != null ? item.shrink : 1;
+                    size[i] = Math.max(0, size[i] + free * shrink * base[i] / totalShrink);
+                }
+                free = 0;
+            }
+
+            float lineCross = 0;
+            if (wrap) {
+                for (int i = lineStart; i < lineEnd; i++) {
+                    lineCross = Math.max(lineCross, cross[i] + marginCross[i]);
+                }
+            } else {
+                lineCross = innerCross;
+            }
+
+            // Distribute what is left along the main axis
+            int itemCount = lineEnd - lineStart;
+            float spare = Math.max(0, free);
+            float offset = 0;
+            float between = gap;
+            switch (justify) {
+                case START -> { }
+                case CENTER -> offset = free / 2;
+                case END -> offset = free;
+                case SPACE_BETWEEN -> between += itemCount > 1 ? spare / (itemCount - 1) : 0;
+                case SPACE_AROUND -> {
+                    between += spare / itemCount;
+                    offset = spare / itemCount / 2;
+                }
+                case SPACE_EVENLY -> {
+                    between += spare / (itemCount + 1);
+                    offset = spare / (itemCount + 1);
+                }
+            }
+
+            float mainPos = padMainStart + offset;
+            for (int i = lineStart; i < lineEnd; i++) {
+                UIBaseElement child = items[i];
+                Item item = itemOf(child);
+                Align align = item != null && item.alignSelf != null ? item.alignSelf : alignItems;
+                float room = Math.max(0, lineCross - marginCross[i]);
+                float crossSize = align == Align.STRETCH ? room : cross[i];
+                float crossOffset = switch (align) {
+                    case START, STRETCH -> 0;
+                    case CENTER -> (room - crossSize) / 2;
+                    case END -> room - crossSize;
+                };
+
+                float main = mainPos + marginMainStart[i];
+                float crossStart = crossPos + marginCrossStart[i] + crossOffset;
+                if (row) {
+                    child.arrange(main, crossStart, size[i], crossSize);
+                } else {
+                    child.arrange(crossStart, main, crossSize, size[i]);
+                }
+                mainPos += size[i] + marginMain[i] + between;
+            }
+
+            crossPos += lineCross + crossGap;
+            lineStart = lineEnd;
+        }
+
+        // Drop element references so removed children can be collected
+        Arrays.fill(items, 0, n, null);
+    }
+
+    @Override
+    public float[] measure(UIContainer container, float availableWidth, float availableHeight) {
+        boolean row = direction == Direction.ROW;
+        Style cs = container.getStyle();
+        float padX = cs.getPaddingLeft() + cs.getPaddingRight();
+        float padY = cs.getPaddingTop() + cs.getPaddingBottom();
+        float innerCross = (row ? availableHeight - padY : availableWidth - padX);
+
+        // Content on a single line
+        float main = 0;
+        float crossMax = 0;
+        int visible = 0;
+        for (int i = 0; i < container.getChildCount(); i++) {
+            UIBaseElement child = container.getChildAt(i);
+            if (!child.isVisible()) continue;
+
+            measureChild(child, row, innerCross);
+            Item item = itemOf(child);
+            Style s = child.getStyle();
+            float natMain = row ? child.getMeasuredWidth() : child.getMeasuredHeight();
+            float natCross = row ? child.getMeasuredHeight() : child.getMeasuredWidth();
+            main += (item != null && item.basis >= 0 ? item.basis : natMain)
+                    + (row ? s.getMarginLeft() + s.getMarginRight() : s.getMarginTop() + s.getMarginBottom());
+            crossMax = Math.max(crossMax, natCross
+                    + (row ? s.getMarginTop() + s.getMarginBottom() : s.getMarginLeft() + s.getMarginRight()));
+            visible++;
+        }
+        if (visible > 1) {
+            main += (visible - 1) * gap;
+        }
+        return row ? new float[]{main + padX, crossMax + padY} : new float[]{crossMax + padX, main + padY};
+    }
+
+    // Unbounded along the main axis, so the basis does not depend on the container's length
+    private static void measureChild(UIBaseElement child, boolean row, float innerCross) {
+        float cross = Math.max(0, innerCross);
+        if (row) {
+            child.measure(Float.POSITIVE_INFINITY, cross);
+        } else {
+            child.measure(cross, Float.POSITIVE_INFINITY);
+        }
+    }
+
+    private static Item itemOf(UIBaseElement child) {
+        Object data = child.getLayoutData();
+        return data instanceof Item ? (Item) data : null;
+    }
+
+    private void ensureScratch(int count) {
+        if (items.length >= count) return;
+        int capacity = Math.max(count, items.length * 2);
+        items = new UIBaseElement[capacity];
+        base = new float[capacity];
+        size = new float[capacity];
+        cross = new float[capacity];
+        marginMainStart = new float[capacity];
+        marginMain = new float[capacity];
+        marginCrossStart = new float[capacity];
+        marginCross = new float[capacity];
+    }
+}
@@ -1,10 +1,17 @@
 package com.jembedui.layout;
 
+import com.jembedui.core.ElementStore;
 import com.jembedui.core.UIBaseElement;
 import com.jembedui.core.UIContainer;
 
 /**
  * Grid layout manager.
+ * <p>
+ * With a fixed {@code columns x rows} grid, cells divide the container evenly.
+ * In auto-flow mode (see {@link #autoFlow}) cells have a set size, the column
+ * count follows the container's width and rows are added as children need
+ * them; an auto-sized container then measures to the full height of its rows.
+ * {@code UIGridView} uses the same geometry to realize only visible rows.
  */
 public class GridLayout implements LayoutManager {
     
@@ -13,6 +20,13 @@ public class GridLayout implements LayoutManager {
     private float hSpacing = 5;
     private float vSpacing = 5;
     
+    // Auto-flow: cell size is fixed (or a minimum width when stretching) and rows are unbounded
+    private boolean autoFlow = false;
+    private float cellWidth;
+    private float cellHeight;
+    private boolean stretchCells = false;
+    private boolean warnedOverflow = false;
+    
     public GridLayout(int columns, int rows) {
         this.columns = columns;
         this.rows = rows;
@@ -32,6 +46,15 @@ public class GridLayout implements LayoutManager {
         this.vSpacing = vSpacing;
     }
     
+    /**
+     * Creates an auto-flow grid of {@code cellWidth x cellHeight} cells.
+     */
+    public static GridLayout autoFlow(float cellWidth, float cellHeight, float spacing) {
+        GridLayout grid = new GridLayout(1, 1, spacing);
+        grid.setAutoFlow(cellWidth, cellHeight);
+        return grid;
+    }
+    
     public void setColumns(int columns) {
         this.columns = columns;
     }
@@ -45,6 +68,74 @@ public class GridLayout implements LayoutManager {
         this.vSpacing = spacing;
     }
     
+    /**
+     * Switches to auto-flow with the given cell size. The fixed columns and rows are ignored.
+     */
+    public void setAutoFlow(float cellWidth, float cellHeight) {
+        if (cellWidth <= 0 || cellHeight <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellWidth + "x" + cellHeight);
+        }
+        this.autoFlow = true;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+    }
+    
+    /**
+     * In auto-flow mode, treats the cell width as a minimum and widens cells to fill each row.
+     */
+    public void setStretchCells(boolean stretchCells) {
+        this.stretchCells = stretchCells;
+    }
+    
+    public int getColumns() {
+        return columns;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public float getHSpacing() {
+        return hSpacing;
+    }
+    
+    public float getVSpacing() {
+        return vSpacing;
+    }
+    
+    public boolean isAutoFlow() {
+        return autoFlow;
+    }
+    
+    public float getCellWidth() {
+        return cellWidth;
+    }
+    
+    public float getCellHeight() {
+        return cellHeight;
+    }
+    
+    public boolean isStretchCells() {
+        return stretchCells;
+    }
+    
+    /**
+     * Returns how many columns fit in the given inner width (padding excluded).
+     */
+    public int resolveColumns(float innerWidth) {
+        if (!autoFlow) return columns;
+        return Math.max(1, (int) ((innerWidth + hSpacing) / (cellWidth + hSpacing)));
+    }
+    
+    /**
+     * Returns the width each cell gets in the given inner width (padding excluded).
+     */
+    public float resolveCellWidth(float innerWidth) {
+        if (autoFlow && !stretchCells) return cellWidth;
+        int cols = resolveColumns(innerWidth);
+        return Math.max(0, (innerWidth - (cols - 1) * hSpacing) / cols);
+    }
+    
     @Override
     public void layout(UIContainer container) {
         if (container.getChildCount() == 0) return;
@@ -57,22 +148,91 @@ public class GridLayout implements LayoutManager {
         float availableWidth = container.getWidth() - paddingLeft - paddingRight;
         float availableHeight = container.getHeight() - paddingTop - paddingBottom;
         
-        float cellWidth = (availableWidth - (columns - 1) * hSpacing) / columns;
-        float cellHeight = (availableHeight - (rows - 1) * vSpacing) / rows;
+        int cols = resolveColumns(availableWidth);
+        float cellW = resolveCellWidth(availableWidth);
+        float cellH = autoFlow ? cellHeight : (availableHeight - (rows - 1) * vSpacing) / rows;
+        int cells = autoFlow ? Integer.MAX_VALUE : columns * rows;
+        
+        ElementStore store = container.getCompactStore();
+        int placed = store != null
+            ? layoutCompact(container, store, paddingLeft, paddingTop, cols, cells, cellW, cellH)
+            : layoutChildren(container, paddingLeft, paddingTop, cols, cells, cellW, cellH);
         
+        if (placed == cells && !warnedOverflow && countVisible(container) > cells) {
+            System.err.println("Warning: GridLayout has more visible children than its " + columns + "x" + rows
+                + " cells; the rest are not laid out. Use GridLayout.autoFlow() to add rows as needed.");
+            warnedOverflow = true;
+        }
+    }
+    
+    private int layoutChildren(UIContainer container, float paddingLeft, float paddingTop,
+                               int cols, int cells, float cellW, float cellH) {
         int index = 0;
-        for (UIBaseElement child : container.getChildren()) {
+        for (int i = 0, n = container.getChildCount(); i < n && index < cells; i++) {
+            UIBaseElement child = container.getChildAt(i);
             if (!child.isVisible()) continue;
-            if (index >= columns * rows) break;
             
-            int row = index / columns;
-            int col = index % columns;
+            int row = index / cols;
+            int col = index % cols;
             
-            float x = paddingLeft + col * (cellWidth + hSpacing);
-            float y = paddingTop + row * (cellHeight + vSpacing);
+            float x = paddingLeft + col * (cellW + hSpacing);
+            float y = paddingTop + row * (cellH + vSpacing);
             
-            child.setBounds(x, y, cellWidth, cellHeight);
+            child.arrange(x, y, cellW, cellH);
             index++;
         }
+        return index;
+    }
+    
+    // Tight loop over the compact store; one invalidation for the whole pass
+    private int layoutCompact(UIContainer container, ElementStore store, float paddingLeft, float paddingTop,
+                              int cols, int cells, float cellW, float cellH) {
+        boolean changed = false;
+        int index = 0;
+        for (int slot = 0, n = store.size(); slot < n && index < cells; slot++) {
+            if (!store.isVisible(slot)) continue;
+            
+            int row = index / cols;
+            int col = index % cols;
+            
+            float x = paddingLeft + col * (cellW + hSpacing);
+            float y = paddingTop + row * (cellH + vSpacing);
+            
+            changed |= store.setBounds(slot, x, y, cellW, cellH);
+            index++;
+        }
+        if (changed) {
+            container.markDirty();
+        }
+        return index;
+    }
+    
+    @Override
+    public float[] measure(UIContainer container, float availableWidth, float availableHeight) {
+        if (!autoFlow) return null;
+        
+        float padX = container.getStyle().getPaddingLeft() + container.getStyle().getPaddingRight();
+        float padY = container.getStyle().getPaddingTop() + container.getStyle().getPaddingBottom();
+        int count = countVisible(container);
+        
+        // Unbounded width lays everything out on one row
+        boolean unbounded = Float.isInfinite(availableWidth);
+        int cols = unbounded ? Math.max(1, count) : resolveColumns(availableWidth - padX);
+        float cellW = unbounded ? cellWidth : resolveCellWidth(availableWidth - padX);
+        int rowCount = (count + cols - 1) / cols;
+        
+        float width = unbounded || !stretchCells
+            ? Math.min(cols, Math.max(1, count)) * (cellW + hSpacing) - hSpacing + padX
+            : availableWidth;
+        float height = rowCount > 0 ? rowCount * (cellHeight + vSpacing) - vSpacing + padY : padY;
+        return new float[]{width, height};
+    }
+    
+    private static int countVisible(UIContainer container) {
+        int count = 0;
+        for (int i = 0, n = container.getChildCount(); i < n; i++) {
+            if (container.getChildAt(i).isVisible()) count++;
+        }
+        return count;
     }
 }
@@ -35,18 +35,32 @@ public class HorizontalLayout implements LayoutManager {
         this.alignment = alignment;
     }
     
+    public float getSpacing() {
+        return spacing;
+    }
+    
+    public Alignment getAlignment() {
+        return alignment;
+    }
+    
     @Override
     public void layout(UIContainer container) {
         if (container.getChildCount() == 0) return;
         
+        float availableHeight = container.getHeight() - container.getStyle().getPaddingTop()
+                - container.getStyle().getPaddingBottom();
         float contentWidth = 0;
         float maxHeight = 0;
         
-        // Calculate total width and max height
-        for (UIBaseElement child : container.getChildren()) {
+        // Calculate total width and max height; auto-sized children are measured first
+        for (int i = 0, n = container.getChildCount(); i < n; i++) {
+            UIBaseElement child = container.getChildAt(i);
             if (!child.isVisible()) continue;
-            contentWidth += child.getWidth();
-            maxHeight = Math.max(maxHeight, child.getHeight());
+            if (child.isAutoSize()) {
+                child.measure(Float.POSITIVE_INFINITY, availableHeight);
+            }
+            contentWidth += widthOf(child);
+            maxHeight = Math.max(maxHeight, heightOf(child));
         }
         contentWidth += (container.getChildCount() - 1) * spacing;
         
@@ -58,13 +72,48 @@ public class HorizontalLayout implements LayoutManager {
         
         float currentX = startX;
         
-        for (UIBaseElement child : container.getChildren()) {
+        for (int i = 0, n = container.getChildCount(); i < n; i++) {
+            UIBaseElement child = container.getChildAt(i);
             if (!child.isVisible()) continue;
             
-            float y = container.getStyle().getPaddingTop() + (maxHeight - child.getHeight()) / 2;
-            child.setX(currentX);
-            child.setY(y);
-            currentX += child.getWidth() + spacing;
+            float width = widthOf(child);
+            float height = heightOf(child);
+            float y = container.getStyle().getPaddingTop() + (maxHeight - height) / 2;
+            child.arrange(currentX, y, width, height);
+            currentX += width + spacing;
         }
     }
+    
+    @Override
+    public float[] measure(UIContainer container, float availableWidth, float availableHeight) {
+        float innerHeight = availableHeight - container.getStyle().getPaddingTop()
+                - container.getStyle().getPaddingBottom();
+        float contentWidth = 0;
+        float maxHeight = 0;
+        int visible = 0;
+        for (int i = 0, n = container.getChildCount(); i < n; i++) {
+            UIBaseElement child = container.getChildAt(i);
+            if (!child.isVisible()) continue;
+            child.measure(Float.POSITIVE_INFINITY, innerHeight);
+            contentWidth += child.getMeasuredWidth();
+            maxHeight = Math.max(maxHeight, child.getMeasuredHeight());
+            visible++;
+        }
+        if (visible > 1) {
+            contentWidth += (visible - 1) * spacing;
+        }
+        return new float[]{
+            contentWidth + container.getStyle().getPaddingLeft() + container.getStyle().getPaddingRight(),
+            maxHeight + container.getStyle().getPaddingTop() + container.getStyle().getPaddingBottom()
+        };
+    }
+    
+    // Auto-sized children take their measured size, the rest keep their current size
+    private static float widthOf(UIBaseElement child) {
+        return child.isAutoSize() ? child.getMeasuredWidth() : child.getWidth();
+    }
+    
+    private static float heightOf(UIBaseElement child) {
+        return child.isAutoSize() ? child.getMeasuredHeight() : child.getHeight();
+    }
 }
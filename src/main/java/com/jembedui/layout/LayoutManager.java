@@ -7,4 +7,13 @@ import com.jembedui.core.UIContainer;
  */
 public interface LayoutManager {
     void layout(UIContainer container);
+    
+    /**
+     * Returns the {width, height} the container's content needs within the available
+     * space, padding included, or null if this layout has no intrinsic size.
+     * Used when an auto-sized container is measured.
+     */
+    default float[] measure(UIContainer container, float availableWidth, float availableHeight) {
+        return null;
+    }
 }
@@ -35,18 +35,32 @@ public class VerticalLayout implements LayoutManager {
         this.alignment = alignment;
     }
     
+    public float getSpacing() {
+        return spacing;
+    }
+    
+    public Alignment getAlignment() {
+        return alignment;
+    }
+    
     @Override
     public void layout(UIContainer container) {
         if (container.getChildCount() == 0) return;
         
+        float availableWidth = container.getWidth() - container.getStyle().getPaddingLeft()
+                - container.getStyle().getPaddingRight();
         float contentHeight = 0;
         float maxWidth = 0;
         
-        // Calculate total height and max width
-        for (UIBaseElement child : container.getChildren()) {
+        // Calculate total height and max width; auto-sized children are measured first
+        for (int i = 0, n = container.getChildCount(); i < n; i++) {
+            UIBaseElement child = container.getChildAt(i);
             if (!child.isVisible()) continue;
-            contentHeight += child.getHeight();
-            maxWidth = Math.max(maxWidth, child.getWidth());
+            if (child.isAutoSize()) {
+                child.measure(availableWidth, Float.POSITIVE_INFINITY);
+            }
+            contentHeight += heightOf(child);
+            maxWidth = Math.max(maxWidth, widthOf(child));
         }
         contentHeight += (container.getChildCount() - 1) * spacing;
         
@@ -58,13 +72,48 @@ public class VerticalLayout implements LayoutManager {
         
         float currentY = startY;
         
-        for (UIBaseElement child : container.getChildren()) {
+        for (int i = 0, n = container.getChildCount(); i < n; i++) {
+            UIBaseElement child = container.getChildAt(i);
             if (!child.isVisible()) continue;
             
-            float x = container.getStyle().getPaddingLeft() + (maxWidth - child.getWidth()) / 2;
-            child.setX(x);
-            child.setY(currentY);
-            currentY += child.getHeight() + spacing;
+            float width = widthOf(child);
+            float height = heightOf(child);
+            float x = container.getStyle().getPaddingLeft() + (maxWidth - width) / 2;
+            child.arrange(x, currentY, width, height);
+            currentY += height + spacing;
         }
     }
+    
+    @Override
+    public float[] measure(UIContainer container, float availableWidth, float availableHeight) {
+        float innerWidth = availableWidth - container.getStyle().getPaddingLeft()
+                - container.getStyle().getPaddingRight();
+        float contentHeight = 0;
+        float maxWidth = 0;
+        int visible = 0;
+        for (int i = 0, n = container.getChildCount(); i < n; i++) {
+            UIBaseElement child = container.getChildAt(i);
+            if (!child.isVisible()) continue;
+            child.measure(innerWidth, Float.POSITIVE_INFINITY);
+            contentHeight += child.getMeasuredHeight();
+            maxWidth = Math.max(maxWidth, child.getMeasuredWidth());
+            visible++;
+        }
+        if (visible > 1) {
+            contentHeight += (visible - 1) * spacing;
+        }
+        return new float[]{
+            maxWidth + container.getStyle().getPaddingLeft() + container.getStyle().getPaddingRight(),
+            contentHeight + container.getStyle().getPaddingTop() + container.getStyle().getPaddingBottom()
+        };
+    }
+    
+    // Auto-sized children take their measured size, the rest keep their current size
+    private static float widthOf(UIBaseElement child) {
+        return child.isAutoSize() ? child.getMeasuredWidth() : child.getWidth();
+    }
+    
+    private static float heightOf(UIBaseElement child) {
+        return child.isAutoSize() ? child.getMeasuredHeight() : child.getHeight();
+    }
 }
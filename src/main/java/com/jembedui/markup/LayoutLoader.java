@@ -0,0 +1,402 @@
+package com.jembedui.markup;
+
+import com.jembedui.components.UIPanel;
+import com.jembedui.components.UIScrollContainer;
+import com.jembedui.components.buttons.UIButton;
+import com.jembedui.components.buttons.UICheckbox;
+import com.jembedui.components.buttons.UIProgressBar;
+import com.jembedui.components.buttons.UIRadioButton;
+import com.jembedui.components.buttons.UISlider;
+import com.jembedui.components.buttons.UIToggleButton;
+import com.jembedui.components.display.UILabel;
+import com.jembedui.components.display.UIText;
+import com.jembedui.components.input.UITextField;
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+import com.jembedui.layout.FlexLayout;
+import com.jembedui.layout.GridLayout;
+import com.jembedui.layout.HorizontalLayout;
+import com.jembedui.layout.VerticalLayout;
+import com.jembedui.snapshot.UISnapshot;
+import com.jembedui.style.Color;
+import com.jembedui.style.Style;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loads screens from XML layout files.
+ * <p>
+ * Each XML element names a component ({@code Container}, {@code Panel},
+ * {@code ScrollContainer}, {@code Button}, {@code ToggleButton}, {@code Checkbox},
+ * {@code RadioButton}, {@code ProgressBar}, {@code Slider}, {@code Text},
+ * {@code Label}, {@code TextField}) and its attributes set bounds, ids, style,
+ * layout and component properties. The root element must be a container.
+ * <p>
+ * With a cache directory, a parsed and laid-out screen is stored as a
+ * {@link UISnapshot} named after the SHA-256 of the file content, so later
+ * launches map the snapshot instead of parsing the XML again. Editing the file
+ * changes its hash and recompiles it on the next load.
+ */
+public final class LayoutLoader {
+
+    private static final String CACHE_SUFFIX = ".uisnap";
+
+    private final Path cacheDir;
+
+    /**
+     * Creates a loader that always parses; nothing is cached.
+     */
+    public LayoutLoader() {
+        this(null);
+    }
+
+    public LayoutLoader(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public UIContainer load(Path file, float windowWidth, float windowHeight) throws IOException {
+        return load(Files.readAllBytes(file), windowWidth, windowHeight);
+    }
+
+    /**
+     * Loads a layout, using the compiled cache entry for this exact content when present.
+     */
+    public UIContainer load(byte[] xml, float windowWidth, float windowHeight) throws IOException {
+        if (cacheDir == null) {
+            return parse(xml, windowWidth, windowHeight);
+        }
+
+        Path cached = cacheDir.resolve(hash(xml) + CACHE_SUFFIX);
+        if (Files.isRegularFile(cached)) {
+            try {
+                return UISnapshot.load(cached, windowWidth, windowHeight);
+            } catch (RuntimeException e) {
+                // Stale format or damaged file; fall through and recompile
+                System.err.println("Warning: Discarding layout cache " + cached + ": " + e.getMessage());
+            }
+        }
+
+        UIContainer root = parse(xml, windowWidth, windowHeight);
+        Files.createDirectories(cacheDir);
+        Path temp = Files.createTempFile(cacheDir, "layout", ".tmp");
+        try {
+            UISnapshot.save(root, windowWidth, windowHeight, temp);
+            Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return root;
+    }
+
+    /**
+     * Parses a layout and lays it out for the given window size, bypassing the cache.
+     */
+    public static UIContainer parse(byte[] xml, float windowWidth, float windowHeight) {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        UIContainer root = null;
+        Deque<UIBaseElement> stack = new ArrayDeque<>();
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(xml));
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    UIBaseElement element = createElement(reader);
+                    UIBaseElement parent = stack.peek();
+                    if (parent == null) {
+                        if (!(element instanceof UIContainer)) {
+                            throw new IllegalArgumentException("Layout root <" + reader.getLocalName() + "> is not a container");
+                        }
+                        root = (UIContainer) element;
+                        // A root without an explicit size fills the window
+                        if (reader.getAttributeValue(null, "width") == null) root.setWidth(windowWidth);
+                        if (reader.getAttributeValue(null, "height") == null) root.setHeight(windowHeight);
+                    } else if (parent instanceof UIContainer) {
+                        ((UIContainer) parent).addChild(element);
+                    } else {
+                        throw new IllegalArgumentException("<" + reader.getLocalName() + "> at line "
+                                + reader.getLocation().getLineNumber() + " is inside a non-container element");
+                    }
+                    stack.push(element);
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    stack.pop();
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid layout file: " + e.getMessage(), e);
+        }
+        if (root == null) {
+            throw new IllegalArgumentException("Layout file has no root element");
+        }
+
+        root.layout();
+        return root;
+    }
+
+    public static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Element construction
+
+    private static UIBaseElement createElement(XMLStreamReader reader) {
+        Attributes attrs = new Attributes(reader);
+        String tag = reader.getLocalName();
+
+        UIBaseElement element = switch (tag) {
+            case "Container" -> new UIContainer();
+            case "Panel" -> new UIPanel();
+            case "ScrollContainer" -> new UIScrollContainer();
+            case "Button" -> button(new UIButton(attrs.string("label", "Button")), attrs);
+            case "ToggleButton" -> {
+                UIToggleButton toggle = button(new UIToggleButton(attrs.string("label", "")), attrs);
+                toggle.setToggled(attrs.bool("toggled", false));
+                if (attrs.has("toggledColor")) toggle.setToggledColor(attrs.color("toggledColor"));
+                yield toggle;
+            }
+            case "Checkbox" -> {
+                UICheckbox checkbox = new UICheckbox(attrs.string("label", ""));
+                checkbox.setChecked(attrs.bool("checked", false));
+                yield checkbox;
+            }
+            case "RadioButton" -> {
+                UIRadioButton radio = new UIRadioButton(attrs.string("label", ""), attrs.string("radioGroup", null));
+                radio.setChecked(attrs.bool("checked", false));
+                yield radio;
+            }
+            case "ProgressBar" -> {
+                UIProgressBar bar = new UIProgressBar();
+                bar.setProgress(attrs.number("progress", bar.getProgress()));
+                if (attrs.has("barColor")) bar.setBarColor(attrs.color("barColor"));
+                yield bar;
+            }
+            case "Slider" -> {
+                UISlider slider = new UISlider(attrs.choice("orientation", UISlider.Orientation.class,
+                                                            UISlider.Orientation.HORIZONTAL));
+                slider.setRange(attrs.number("min", 0), attrs.number("max", 1));
+                slider.setValue(attrs.number("value", slider.getValue()));
+                slider.setStepSize(attrs.number("step", slider.getStepSize()));
+                yield slider;
+            }
+            case "Text" -> text(new UIText(attrs.string("text", "")), attrs);
+            case "Label" -> text(new UILabel(attrs.string("text", "")), attrs);
+            case "TextField" -> {
+                UITextField field = new UITextField(attrs.string("placeholder", ""));
+                field.setText(attrs.string("text", ""));
+                yield field;
+            }
+            default -> throw new IllegalArgumentException("Unknown layout element <" + tag + "> at line "
+                    + reader.getLocation().getLineNumber());
+        };
+
+        applyCommon(element, attrs);
+        applyStyle(element.getStyle(), attrs);
+        if (element instanceof UIContainer) {
+            applyContainer((UIContainer) element, attrs);
+        }
+        attrs.requireConsumed(tag, reader.getLocation().getLineNumber());
+        return element;
+    }
+
+    private static <T extends UIButton> T button(T button, Attributes attrs) {
+        if (attrs.has("normalColor")) button.setNormalColor(attrs.color("normalColor"));
+        if (attrs.has("hoverColor")) button.setHoverColor(attrs.color("hoverColor"));
+        if (attrs.has("pressedColor")) button.setPressedColor(attrs.color("pressedColor"));
+        return button;
+    }
+
+    private static UIText text(UIText text, Attributes attrs) {
+        if (text instanceof UILabel && (attrs.has("hAlign") || attrs.has("vAlign"))) {
+            ((UILabel) text).setAlignment(attrs.choice("hAlign", UILabel.HAlign.class, UILabel.HAlign.LEFT),
+                                          attrs.choice("vAlign", UILabel.VAlign.class, UILabel.VAlign.TOP));
+        }
+        if (attrs.has("overflow")) text.setOverflow(attrs.choice("overflow", UIText.Overflow.class, UIText.Overflow.VISIBLE));
+        if (attrs.has("maxLines")) text.setMaxLines((int) attrs.number("maxLines", 0));
+        return text;
+    }
+
+    private static void applyCommon(UIBaseElement element, Attributes attrs) {
+        if (attrs.has("x") || attrs.has("y") || attrs.has("width") || attrs.has("height")) {
+            element.setBounds(attrs.number("x", element.getX()), attrs.number("y", element.getY()),
+                              attrs.number("width", element.getWidth()), attrs.number("height", element.getHeight()));
+        }
+        if (attrs.has("id")) element.setId(attrs.string("id", null));
+        if (attrs.has("group")) element.setGroup(attrs.string("group", null));
+        if (attrs.has("visible")) element.setVisible(attrs.bool("visible", true));
+        if (attrs.has("enabled")) element.setEnabled(attrs.bool("enabled", true));
+        if (attrs.has("autoSize")) element.setAutoSize(attrs.bool("autoSize", false));
+        if (attrs.has("grow") || attrs.has("shrink") || attrs.has("basis") || attrs.has("alignSelf")) {
+            FlexLayout.Item.of(element)
+                    .setGrow(attrs.number("grow", 0))
+                    .setShrink(attrs.number("shrink", 1))
+                    .setBasis(attrs.number("basis", -1))
+                    .setAlignSelf(attrs.choice("alignSelf", FlexLayout.Align.class, null));
+        }
+    }
+
+    private static void applyStyle(Style style, Attributes attrs) {
+        if (attrs.has("background")) style.setBackgroundColor(attrs.color("background"));
+        if (attrs.has("foreground")) style.setForegroundColor(attrs.color("foreground"));
+        if (attrs.has("borderColor")) style.setBorderColor(attrs.color("borderColor"));
+        if (attrs.has("borderWidth")) style.setBorderWidth(attrs.number("borderWidth", 0));
+        if (attrs.has("borderRadius")) style.setBorderRadius(attrs.number("borderRadius", 0));
+        if (attrs.has("padding")) style.setPadding(attrs.number("padding", 0));
+        if (attrs.has("paddingTop")) style.setPaddingTop(attrs.number("paddingTop", 0));
+        if (attrs.has("paddingRight")) style.setPaddingRight(attrs.number("paddingRight", 0));
+        if (attrs.has("paddingBottom")) style.setPaddingBottom(attrs.number("paddingBottom", 0));
+        if (attrs.has("paddingLeft")) style.setPaddingLeft(attrs.number("paddingLeft", 0));
+        if (attrs.has("margin")) style.setMargin(attrs.number("margin", 0));
+        if (attrs.has("marginTop")) style.setMarginTop(attrs.number("marginTop", 0));
+        if (attrs.has("marginRight")) style.setMarginRight(attrs.number("marginRight", 0));
+        if (attrs.has("marginBottom")) style.setMarginBottom(attrs.number("marginBottom", 0));
+        if (attrs.has("marginLeft")) style.setMarginLeft(attrs.number("marginLeft", 0));
+        if (attrs.has("fontFamily")) style.setFontFamily(attrs.string("fontFamily", null));
+        if (attrs.has("fontSize")) style.setFontSize(attrs.number("fontSize", 14));
+        if (attrs.has("bold")) style.setFontBold(attrs.bool("bold", false));
+        if (attrs.has("italic")) style.setFontItalic(attrs.bool("italic", false));
+        if (attrs.has("opacity")) style.setOpacity(attrs.number("opacity", 1));
+    }
+
+    private static void applyContainer(UIContainer container, Attributes attrs) {
+        if (attrs.has("layout")) {
+            String kind = attrs.string("layout", null);
+            switch (kind) {
+                case "horizontal" -> container.setLayoutManager(new HorizontalLayout(attrs.number("spacing", 5),
+                        attrs.choice("align", HorizontalLayout.Alignment.class, HorizontalLayout.Alignment.START)));
+                case "vertical" -> container.setLayoutManager(new VerticalLayout(attrs.number("spacing", 5),
+                        attrs.choice("align", VerticalLayout.Alignment.class, VerticalLayout.Alignment.START)));
+                case "grid" -> {
+                    float spacing = attrs.number("spacing", 5);
+                    GridLayout grid = new GridLayout(attrs.integer("columns", 1), attrs.integer("rows", 1),
+                            attrs.number("hSpacing", spacing), attrs.number("vSpacing", spacing));
+                    if (attrs.has("cellWidth") || attrs.has("cellHeight")) {
+                        grid.setAutoFlow(attrs.number("cellWidth", 100), attrs.number("cellHeight", 100));
+                        grid.setStretchCells(attrs.bool("stretchCells", false));
+                    }
+                    container.setLayoutManager(grid);
+                }
+                case "flex" -> {
+                    FlexLayout flex = new FlexLayout(attrs.choice("direction", FlexLayout.Direction.class,
+                                                                  FlexLayout.Direction.ROW));
+                    float gap = attrs.number("gap", 0);
+                    flex.setGap(gap);
+                    flex.setCrossGap(attrs.number("crossGap", gap));
+                    flex.setWrap(attrs.bool("wrap", false));
+                    flex.setJustify(attrs.choice("justify", FlexLayout.Justify.class, FlexLayout.Justify.START));
+                    flex.setAlignItems(attrs.choice("alignItems", FlexLayout.Align.class, FlexLayout.Align.STRETCH));
+                    container.setLayoutManager(flex);
+                }
+                default -> throw new IllegalArgumentException("Unknown layout '" + kind + "'");
+            }
+        }
+        if (attrs.bool("compact", false)) {
+            container.setCompactStore(true);
+        }
+    }
+
+    // Attribute access that tracks which attributes were used, so typos are reported
+
+    private static final class Attributes {
+        private final Map<String, String> values = new HashMap<>();
+
+        Attributes(XMLStreamReader reader) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                values.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+
+        boolean has(String name) {
+            return values.containsKey(name);
+        }
+
+        String string(String name, String fallback) {
+            String value = values.remove(name);
+            return value != null ? value : fallback;
+        }
+
+        float number(String name, float fallback) {
+            String value = values.remove(name);
+            if (value == null) return fallback;
+            try {
+                return Float.parseFloat(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Attribute '" + name + "' is not a number: " + value);
+            }
+        }
+
+        int integer(String name, int fallback) {
+            String value = values.remove(name);
+            if (value == null) return fallback;
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Attribute '" + name + "' is not an integer: " + value);
+            }
+        }
+
+        boolean bool(String name, boolean fallback) {
+            String value = values.remove(name);
+            return value != null ? Boolean.parseBoolean(value.trim()) : fallback;
+        }
+
+        <E extends Enum<E>> E choice(String name, Class<E> type, E fallback) {
+            String value = values.remove(name);
+            if (value == null) return fallback;
+            try {
+                return Enum.valueOf(type, value.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Attribute '" + name + "' has unknown value '" + value + "'");
+            }
+        }
+
+        /**
+         * Parses {@code #RRGGBB} or {@code #RRGGBBAA}.
+         */
+        Color color(String name) {
+            String value = values.remove(name).trim();
+            if (value.startsWith("#") && (value.length() == 7 || value.length() == 9)) {
+                try {
+                    long rgba = Long.parseLong(value.substring(1), 16);
+                    return new Color((int) (value.length() == 7 ? (rgba << 8) | 0xFF : rgba));
+                } catch (NumberFormatException e) {
+                    // Reported below
+                }
+            }
+            throw new IllegalArgumentException("Attribute '" + name + "' is not a #RRGGBB[AA] color: " + value);
+        }
+
+        void requireConsumed(String tag, int line) {
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown attribute(s) " + values.keySet() + " on <" + tag
+                        + "> at line " + line);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.jembedui.render;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.system.MemoryUtil.memLengthUTF8;
+import static org.lwjgl.system.MemoryUtil.memUTF8;
+
+/**
+ * Off-heap UTF-8 copy of a string for the {@code ByteBuffer} overload of
+ * {@link NVGRenderer#drawText}.
+ * <p>
+ * Passing a {@code String} to the renderer encodes it on every call. A component
+ * that keeps one of these per label and passes its text to {@link #encode(String)}
+ * each frame only pays for encoding when the text changes; the buffer itself is
+ * reused for later texts that fit in it.
+ */
+public final class EncodedText {
+
+    private String text;
+    private ByteBuffer utf8;
+
+    /**
+     * Returns {@code text} as UTF-8 without a terminator, re-encoding only if it
+     * differs from the last text. The buffer belongs to this object and stays
+     * valid until the next call.
+     */
+    public ByteBuffer encode(String text) {
+        if (text == this.text) {
+            return utf8;
+        }
+        if (!text.equals(this.text)) {
+            int length = memLengthUTF8(text, false);
+            if (utf8 == null || utf8.capacity() < length) {
+                utf8 = BufferUtils.createByteBuffer(Math.max(16, length + length / 2));
+            }
+            utf8.clear();
+            memUTF8(text, false, utf8);
+            utf8.limit(length);
+        }
+        // Keep the new reference so the next frame takes the identity check
+        this.text = text;
+        return utf8;
+    }
+}
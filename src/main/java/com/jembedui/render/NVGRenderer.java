@@ -2,6 +2,9 @@ package com.jembedui.render;
 
 import com.jembedui.style.Color;
 import org.lwjgl.nanovg.NVGColor;
+import org.lwjgl.nanovg.NVGGlyphPosition;
+import org.lwjgl.nanovg.NVGPaint;
+import org.lwjgl.nanovg.NVGTextRow;
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.BufferUtils;
 
@@ -9,19 +12,31 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.lwjgl.nanovg.NanoVG.*;
 import static org.lwjgl.nanovg.NanoVGGLES2.*;
+import static org.lwjgl.opengles.GLES20.*;
 import static org.lwjgl.system.MemoryUtil.NULL;
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static org.lwjgl.system.MemoryUtil.memUTF8;
 
 /**
  * NanoVG-based renderer for UI elements.
  */
 public class NVGRenderer {
 
+    // Rows fetched per nvgTextBreakLines call
+    private static final int BREAK_BATCH = 64;
+
     private long nvgContext;
     private int defaultFont = -1;
 
+    // Reused for every fill and stroke color, see nvgColor
+    private final NVGColor colorStruct = NVGColor.create();
+
     // Keep reference so the direct buffer is not GC'd
     private ByteBuffer defaultFontBuffer;
 
@@ -150,18 +165,27 @@ public class NVGRenderer {
     // -------------------------------------------------------------------------
 
     public void drawRect(float x, float y, float width, float height, Color color, float cornerRadius) {
+        drawRect(x, y, width, height, color.rgba(), cornerRadius);
+    }
+
+    public void drawRect(float x, float y, float width, float height, int rgba, float cornerRadius) {
         nvgBeginPath(nvgContext);
         if (cornerRadius > 0) {
             nvgRoundedRect(nvgContext, x, y, width, height, cornerRadius);
         } else {
             nvgRect(nvgContext, x, y, width, height);
         }
-        nvgFillColor(nvgContext, nvgRGBAf(color.r(), color.g(), color.b(), color.a()));
+        nvgFillColor(nvgContext, nvgColor(rgba));
         nvgFill(nvgContext);
     }
 
     public void drawRectOutline(float x, float y, float width, float height,
                                 float strokeWidth, Color color, float cornerRadius) {
+        drawRectOutline(x, y, width, height, strokeWidth, color.rgba(), cornerRadius);
+    }
+
+    public void drawRectOutline(float x, float y, float width, float height,
+                                float strokeWidth, int rgba, float cornerRadius) {
         nvgBeginPath(nvgContext);
         if (cornerRadius > 0) {
             nvgRoundedRect(nvgContext, x, y, width, height, cornerRadius);
@@ -169,31 +193,62 @@ public class NVGRenderer {
             nvgRect(nvgContext, x, y, width, height);
         }
         nvgStrokeWidth(nvgContext, strokeWidth);
-        nvgStrokeColor(nvgContext, nvgRGBAf(color.r(), color.g(), color.b(), color.a()));
+        nvgStrokeColor(nvgContext, nvgColor(rgba));
         nvgStroke(nvgContext);
     }
 
     public void drawCircle(float cx, float cy, float radius, Color color) {
+        drawCircle(cx, cy, radius, color.rgba());
+    }
+
+    public void drawCircle(float cx, float cy, float radius, int rgba) {
         nvgBeginPath(nvgContext);
         nvgCircle(nvgContext, cx, cy, radius);
-        nvgFillColor(nvgContext, nvgRGBAf(color.r(), color.g(), color.b(), color.a()));
+        nvgFillColor(nvgContext, nvgColor(rgba));
         nvgFill(nvgContext);
     }
 
     public void drawCircleOutline(float cx, float cy, float radius, float strokeWidth, Color color) {
+        drawCircleOutline(cx, cy, radius, strokeWidth, color.rgba());
+    }
+
+    public void drawCircleOutline(float cx, float cy, float radius, float strokeWidth, int rgba) {
         nvgBeginPath(nvgContext);
         nvgCircle(nvgContext, cx, cy, radius);
         nvgStrokeWidth(nvgContext, strokeWidth);
-        nvgStrokeColor(nvgContext, nvgRGBAf(color.r(), color.g(), color.b(), color.a()));
+        nvgStrokeColor(nvgContext, nvgColor(rgba));
         nvgStroke(nvgContext);
     }
 
     public void drawLine(float x1, float y1, float x2, float y2, float strokeWidth, Color color) {
+        drawLine(x1, y1, x2, y2, strokeWidth, color.rgba());
+    }
+
+    public void drawLine(float x1, float y1, float x2, float y2, float strokeWidth, int rgba) {
         nvgBeginPath(nvgContext);
         nvgMoveTo(nvgContext, x1, y1);
         nvgLineTo(nvgContext, x2, y2);
         nvgStrokeWidth(nvgContext, strokeWidth);
-        nvgStrokeColor(nvgContext, nvgRGBAf(color.r(), color.g(), color.b(), color.a()));
+        nvgStrokeColor(nvgContext, nvgColor(rgba));
+        nvgStroke(nvgContext);
+    }
+
+    /**
+     * Strokes {@code pointCount} points, stored as x, y pairs in {@code points}, as one path.
+     */
+    public void drawPolyline(float[] points, int pointCount, float strokeWidth, Color color) {
+        drawPolyline(points, pointCount, strokeWidth, color.rgba());
+    }
+
+    public void drawPolyline(float[] points, int pointCount, float strokeWidth, int rgba) {
+        if (pointCount < 2) return;
+        nvgBeginPath(nvgContext);
+        nvgMoveTo(nvgContext, points[0], points[1]);
+        for (int i = 1; i < pointCount; i++) {
+            nvgLineTo(nvgContext, points[i * 2], points[i * 2 + 1]);
+        }
+        nvgStrokeWidth(nvgContext, strokeWidth);
+        nvgStrokeColor(nvgContext, nvgColor(rgba));
         nvgStroke(nvgContext);
     }
 
@@ -203,6 +258,33 @@ public class NVGRenderer {
 
     public void drawText(float x, float y, String text,
                          String fontFamily, float fontSize, Color color, int align) {
+        drawText(x, y, text, fontFamily, fontSize, color.rgba(), align);
+    }
+
+    public void drawText(float x, float y, String text,
+                         String fontFamily, float fontSize, int rgba, int align) {
+        setTextState(fontFamily, fontSize, rgba, align);
+        nvgText(nvgContext, x, y, text);
+    }
+
+    public void drawText(float x, float y, ByteBuffer utf8,
+                         String fontFamily, float fontSize, Color color, int align) {
+        drawText(x, y, utf8, fontFamily, fontSize, color.rgba(), align);
+    }
+
+    /**
+     * Draws text that is already UTF-8 encoded, from the buffer's position to its
+     * limit, such as one kept by an {@link EncodedText}. Unlike the {@code String}
+     * overload, nothing is encoded per call.
+     */
+    public void drawText(float x, float y, ByteBuffer utf8,
+                         String fontFamily, float fontSize, int rgba, int align) {
+        if (!utf8.hasRemaining()) return;
+        setTextState(fontFamily, fontSize, rgba, align);
+        nvgText(nvgContext, x, y, utf8);
+    }
+
+    private void setTextState(String fontFamily, float fontSize, int rgba, int align) {
         nvgFontSize(nvgContext, fontSize);
 
         if (defaultFont != -1) {
@@ -212,14 +294,17 @@ public class NVGRenderer {
         }
 
         nvgTextAlign(nvgContext, align);
-        nvgFillColor(nvgContext, nvgRGBAf(color.r(), color.g(), color.b(), color.a()));
-        nvgText(nvgContext, x, y, text);
+        nvgFillColor(nvgContext, nvgColor(rgba));
     }
 
     public void drawText(float x, float y, String text, float fontSize, Color color) {
         drawText(x, y, text, "sans", fontSize, color, NVG_ALIGN_LEFT | NVG_ALIGN_TOP);
     }
 
+    public void drawText(float x, float y, String text, float fontSize, int rgba) {
+        drawText(x, y, text, "sans", fontSize, rgba, NVG_ALIGN_LEFT | NVG_ALIGN_TOP);
+    }
+
     public float[] measureText(String text, float fontSize) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
             FloatBuffer bounds = stack.mallocFloat(4);
@@ -240,6 +325,128 @@ public class NVGRenderer {
         }
     }
 
+    /**
+     * Returns the caret x before each char of {@code text} and after the last one, so
+     * element {@code i} is the advance of the first {@code i} chars. Measures the
+     * whole string in one pass; callers placing a caret should cache the result per
+     * line rather than measure prefixes.
+     */
+    public float[] caretPositions(String text, float fontSize) {
+        float[] carets = new float[text.length() + 1];
+        if (text.isEmpty()) return carets;
+        // Glyph x follows the text alignment, so measure left-aligned whatever was drawn last
+        nvgSave(nvgContext);
+        nvgFontSize(nvgContext, fontSize);
+        if (defaultFont != -1) {
+            nvgFontFaceId(nvgContext, defaultFont);
+        }
+        nvgTextAlign(nvgContext, NVG_ALIGN_LEFT | NVG_ALIGN_BASELINE);
+
+        ByteBuffer utf8 = memUTF8(text, false);
+        try (NVGGlyphPosition.Buffer glyphs = NVGGlyphPosition.malloc(text.length())) {
+            int count = nvgTextGlyphPositions(nvgContext, 0.0f, 0.0f, utf8, glyphs);
+            long base = memAddress(utf8);
+            int glyph = 0;
+            int offset = 0;
+            for (int i = 0; i < text.length(); i++) {
+                // A char inside a glyph, such as a low surrogate, shares the glyph's x
+                while (glyph + 1 < count && glyphs.get(glyph + 1).str() - base <= offset) {
+                    glyph++;
+                }
+                carets[i] = count > 0 ? glyphs.get(glyph).x() : 0;
+                char c = text.charAt(i);
+                offset += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+            }
+            carets[text.length()] = nvgTextBounds(nvgContext, 0.0f, 0.0f, utf8, (FloatBuffer) null);
+        } finally {
+            memFree(utf8);
+            nvgRestore(nvgContext);
+        }
+        return carets;
+    }
+
+    /**
+     * Splits text into lines no wider than {@code maxWidth}, breaking at spaces where
+     * possible and at explicit newlines. Calls NanoVG once per batch of rows, so
+     * callers should cache the result rather than break text every frame.
+     */
+    public String[] breakLines(String text, float fontSize, float maxWidth) {
+        if (text.isEmpty()) return new String[0];
+        nvgFontSize(nvgContext, fontSize);
+        if (defaultFont != -1) {
+            nvgFontFaceId(nvgContext, defaultFont);
+        }
+
+        ByteBuffer utf8 = memUTF8(text, false);
+        List<String> lines = new ArrayList<>();
+        try (NVGTextRow.Buffer rows = NVGTextRow.calloc(BREAK_BATCH)) {
+            long base = memAddress(utf8);
+            int count;
+            while (utf8.hasRemaining() && (count = nvgTextBreakLines(nvgContext, utf8, maxWidth, rows)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    NVGTextRow row = rows.get(i);
+                    int start = (int) (row.start() - base);
+                    lines.add(memUTF8(utf8.slice(start, (int) (row.end() - row.start()))));
+                }
+                int next = (int) (rows.get(count - 1).next() - base);
+                if (next <= utf8.position()) break;
+                utf8.position(next);
+            }
+        } finally {
+            memFree(utf8);
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    // -------------------------------------------------------------------------
+    // Images
+    // -------------------------------------------------------------------------
+
+    /**
+     * Creates an RGBA image from {@code width * height * 4} bytes of straight-alpha pixels.
+     */
+    public int createImage(int width, int height, ByteBuffer pixels) {
+        int image = nvgCreateImageRGBA(nvgContext, width, height, NVG_IMAGE_NEAREST, pixels);
+        if (image == 0) {
+            System.err.println("Failed to create " + width + "x" + height + " image");
+        }
+        return image;
+    }
+
+    /**
+     * Replaces a rectangle of an image. {@code pixels} holds just that rectangle,
+     * row by row, so only the changed part is uploaded to the GPU.
+     */
+    public void updateImageRegion(int image, int x, int y, int width, int height, ByteBuffer pixels) {
+        int previous = glGetInteger(GL_TEXTURE_BINDING_2D);
+        glBindTexture(GL_TEXTURE_2D, nvglImageHandle(nvgContext, image));
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        glTexSubImage2D(GL_TEXTURE_2D, 0, x, y, width, height, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+        glBindTexture(GL_TEXTURE_2D, previous);
+    }
+
+    public void deleteImage(int image) {
+        nvgDeleteImage(nvgContext, image);
+    }
+
+    /**
+     * Fills a rectangle with an image laid out at {@code (imageX, imageY)} with the
+     * given size; the parts of the image outside the rectangle are not drawn.
+     */
+    public void drawImage(int image, float imageX, float imageY, float imageWidth, float imageHeight,
+                          float x, float y, float width, float height) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            // nvgImagePattern fills every field, so uncleared stack memory is fine
+            NVGPaint paint = NVGPaint.malloc(stack);
+            nvgImagePattern(nvgContext, imageX, imageY, imageWidth, imageHeight, 0, image, 1, paint);
+            nvgBeginPath(nvgContext);
+            nvgRect(nvgContext, x, y, width, height);
+            nvgFillPaint(nvgContext, paint);
+            nvgFill(nvgContext);
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Scissoring
     // -------------------------------------------------------------------------
@@ -248,6 +455,15 @@ public class NVGRenderer {
         nvgScissor(nvgContext, x, y, width, height);
     }
 
+    /**
+     * Narrows the current scissor to its overlap with the given rectangle, so content
+     * inside a clipped parent stays within both. Bracket with {@link #save()} and
+     * {@link #restore()} to get the parent's scissor back.
+     */
+    public void intersectScissor(float x, float y, float width, float height) {
+        nvgIntersectScissor(nvgContext, x, y, width, height);
+    }
+
     public void resetScissor() {
         nvgResetScissor(nvgContext);
     }
@@ -265,15 +481,15 @@ public class NVGRenderer {
     }
 
     // -------------------------------------------------------------------------
-    // Helper to convert NanoVG color
+    // Helper to convert packed colors
     // -------------------------------------------------------------------------
 
-    private NVGColor nvgRGBAf(float r, float g, float b, float a) {
-        NVGColor color = NVGColor.create();
-        color.r(r);
-        color.g(g);
-        color.b(b);
-        color.a(a);
-        return color;
+    // NanoVG copies the color into its state, so one struct serves every call
+    private NVGColor nvgColor(int rgba) {
+        colorStruct.r((rgba >>> 24) / 255.0f);
+        colorStruct.g(((rgba >>> 16) & 0xFF) / 255.0f);
+        colorStruct.b(((rgba >>> 8) & 0xFF) / 255.0f);
+        colorStruct.a((rgba & 0xFF) / 255.0f);
+        return colorStruct;
     }
 }
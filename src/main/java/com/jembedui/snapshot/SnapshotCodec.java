@@ -0,0 +1,27 @@
+package com.jembedui.snapshot;
+
+import com.jembedui.core.UIBaseElement;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the type-specific state of one component class in a {@link UISnapshot}.
+ * <p>
+ * Bounds, visibility, ids, styles, layout managers and children are handled by the
+ * snapshot itself; a codec only writes what its component adds on top, and reads
+ * it back in the same order into a newly constructed instance.
+ */
+public interface SnapshotCodec<T extends UIBaseElement> {
+
+    void write(T element, DataOutputStream out) throws IOException;
+
+    T read(ByteBuffer in);
+
+    /**
+     * Called once the element's children have been restored.
+     */
+    default void finish(T element) {
+    }
+}
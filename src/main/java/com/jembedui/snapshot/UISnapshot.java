@@ -0,0 +1,657 @@
+package com.jembedui.snapshot;
+
+import com.jembedui.components.UIPanel;
+import com.jembedui.components.UIScrollContainer;
+import com.jembedui.components.buttons.UIButton;
+import com.jembedui.components.buttons.UICheckbox;
+import com.jembedui.components.buttons.UIProgressBar;
+import com.jembedui.components.buttons.UIRadioButton;
+import com.jembedui.components.buttons.UISlider;
+import com.jembedui.components.buttons.UIToggleButton;
+import com.jembedui.components.display.UILabel;
+import com.jembedui.components.display.UIText;
+import com.jembedui.components.input.UITextField;
+import com.jembedui.core.UIBaseElement;
+import com.jembedui.core.UIContainer;
+import com.jembedui.layout.FlexLayout;
+import com.jembedui.layout.GridLayout;
+import com.jembedui.layout.HorizontalLayout;
+import com.jembedui.layout.LayoutManager;
+import com.jembedui.layout.VerticalLayout;
+import com.jembedui.style.Color;
+import com.jembedui.style.Style;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of a laid-out element tree.
+ * <p>
+ * A snapshot records each element's type, bounds, visibility, id, group, style
+ * and component state, plus every container's layout manager, together with the
+ * window size it was taken at. Types and styles are written once into tables and
+ * referenced by index. {@link #load(Path, float, float)} maps the file into memory
+ * and rebuilds the tree without running layout when the window size matches, so a
+ * screen can start from a saved snapshot instead of its construction code.
+ * <p>
+ * Callbacks are not serialized. Give interactive elements ids and rewire them via
+ * {@code UIContext.findById} after adding the loaded tree to a context. Component
+ * types without a registered {@link SnapshotCodec} are rejected when saving.
+ */
+public final class UISnapshot {
+
+    private static final int MAGIC = 0x4A554953; // "JUIS"
+    private static final int VERSION = 4;
+
+    private static final int FLAG_VISIBLE = 1;
+    private static final int FLAG_ENABLED = 2;
+    private static final int FLAG_COMPACT = 4;
+    private static final int FLAG_FLEX_ITEM = 8;
+    private static final int FLAG_NATURAL_SIZE = 16;
+    private static final int FLAG_AUTO_SIZE = 32;
+
+    private static final int LAYOUT_NONE = 0;
+    private static final int LAYOUT_HORIZONTAL = 1;
+    private static final int LAYOUT_VERTICAL = 2;
+    private static final int LAYOUT_GRID = 3;
+    private static final int LAYOUT_FLEX = 4;
+
+    private static final class Entry {
+        final String name;
+        final SnapshotCodec<? extends UIBaseElement> codec;
+
+        Entry(String name, SnapshotCodec<? extends UIBaseElement> codec) {
+            this.name = name;
+            this.codec = codec;
+        }
+    }
+
+    private static final Map<Class<?>, Entry> codecsByType = new HashMap<>();
+    private static final Map<String, Entry> codecsByName = new HashMap<>();
+
+    static {
+        registerBuiltins();
+    }
+
+    private UISnapshot() {
+    }
+
+    /**
+     * Registers the codec for exactly {@code type}; subclasses need their own entry.
+     * The name is stored in snapshot files and must stay stable across versions.
+     */
+    public static <T extends UIBaseElement> void register(String name, Class<T> type, SnapshotCodec<T> codec) {
+        Entry entry = new Entry(name, codec);
+        codecsByType.put(type, entry);
+        codecsByName.put(name, entry);
+    }
+
+    public static boolean isSupported(Class<?> type) {
+        return codecsByType.containsKey(type);
+    }
+
+    // Writing
+
+    public static void save(UIContainer root, float windowWidth, float windowHeight, Path file) throws IOException {
+        Files.write(file, toBytes(root, windowWidth, windowHeight));
+    }
+
+    public static byte[] toBytes(UIContainer root, float windowWidth, float windowHeight) {
+        try {
+            Writer writer = new Writer();
+            writer.writeElement(root);
+            writer.body.flush();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(writer.bodyBytes.size() + 256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeFloat(windowWidth);
+            out.writeFloat(windowHeight);
+            out.writeShort(writer.typeNames.size());
+            for (String name : writer.typeNames) {
+                writeString(out, name);
+            }
+            out.writeInt(writer.styles.size());
+            for (byte[] style : writer.styles) {
+                out.write(style);
+            }
+            writer.bodyBytes.writeTo(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // In-memory streams do not fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Writer {
+        final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(4096);
+        final DataOutputStream body = new DataOutputStream(bodyBytes);
+        final List<String> typeNames = new ArrayList<>();
+        final Map<String, Integer> typeIndex = new HashMap<>();
+        final List<byte[]> styles = new ArrayList<>();
+        final Map<ByteBuffer, Integer> styleIndex = new HashMap<>();
+        final ByteArrayOutputStream styleBytes = new ByteArrayOutputStream(128);
+        final DataOutputStream styleOut = new DataOutputStream(styleBytes);
+
+        @SuppressWarnings("unchecked")
+        void writeElement(UIBaseElement element) throws IOException {
+            Entry entry = codecsByType.get(element.getClass());
+            if (entry == null) {
+                throw new IllegalArgumentException("No snapshot codec for " + element.getClass().getName());
+            }
+            Integer type = typeIndex.get(entry.name);
+            if (type == null) {
+                type = typeNames.size();
+                typeNames.add(entry.name);
+                typeIndex.put(entry.name, type);
+            }
+
+            UIContainer container = element instanceof UIContainer ? (UIContainer) element : null;
+            FlexLayout.Item item = element.getLayoutData() instanceof FlexLayout.Item
+                    ? (FlexLayout.Item) element.getLayoutData() : null;
+            boolean natural = element.getNaturalWidth() != element.getWidth()
+                    || element.getNaturalHeight() != element.getHeight();
+            int flags = (element.isVisible() ? FLAG_VISIBLE : 0)
+                    | (element.isEnabled() ? FLAG_ENABLED : 0)
+                    | (container != null && container.getCompactStore() != null ? FLAG_COMPACT : 0)
+                    | (item != null ? FLAG_FLEX_ITEM : 0)
+                    | (natural ? FLAG_NATURAL_SIZE : 0)
+                    | (element.isAutoSize() ? FLAG_AUTO_SIZE : 0);
+
+            body.writeShort(type);
+            body.writeByte(flags);
+            body.writeFloat(element.getX());
+            body.writeFloat(element.getY());
+            body.writeFloat(element.getWidth());
+            body.writeFloat(element.getHeight());
+            writeString(body, element.getId());
+            writeString(body, element.getGroup());
+            body.writeInt(styleIndexOf(element.getStyle()));
+            if (natural) {
+                body.writeFloat(element.getNaturalWidth());
+                body.writeFloat(element.getNaturalHeight());
+            }
+            if (item != null) {
+                body.writeFloat(item.getGrow());
+                body.writeFloat(item.getShrink());
+                body.writeFloat(item.getBasis());
+                body.writeByte(item.getAlignSelf() != null ? item.getAlignSelf().ordinal() : -1);
+            }
+            ((SnapshotCodec<UIBaseElement>) entry.codec).write(element, body);
+
+            if (container != null) {
+                writeLayout(body, container.getLayoutManager());
+                body.writeInt(container.getChildCount());
+                for (int i = 0; i < container.getChildCount(); i++) {
+                    writeElement(container.getChildAt(i));
+                }
+            }
+        }
+
+        int styleIndexOf(Style style) throws IOException {
+            styleBytes.reset();
+            writeStyle(styleOut, style);
+            styleOut.flush();
+            byte[] encoded = styleBytes.toByteArray();
+            ByteBuffer key = ByteBuffer.wrap(encoded);
+            Integer index = styleIndex.get(key);
+            if (index == null) {
+                index = styles.size();
+                styles.add(encoded);
+                styleIndex.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    private static void writeStyle(DataOutputStream out, Style style) throws IOException {
+        writeColor(out, style.getBackgroundColor());
+        writeColor(out, style.getForegroundColor());
+        writeColor(out, style.getBorderColor());
+        out.writeFloat(style.getBorderWidth());
+        out.writeFloat(style.getBorderRadius());
+        out.writeFloat(style.getPaddingTop());
+        out.writeFloat(style.getPaddingRight());
+        out.writeFloat(style.getPaddingBottom());
+        out.writeFloat(style.getPaddingLeft());
+        out.writeFloat(style.getMarginTop());
+        out.writeFloat(style.getMarginRight());
+        out.writeFloat(style.getMarginBottom());
+        out.writeFloat(style.getMarginLeft());
+        writeString(out, style.getFontFamily());
+        out.writeFloat(style.getFontSize());
+        out.writeByte((style.isFontBold() ? 1 : 0) | (style.isFontItalic() ? 2 : 0));
+        out.writeFloat(style.getOpacity());
+    }
+
+    private static void writeLayout(DataOutputStream out, LayoutManager layout) throws IOException {
+        if (layout == null) {
+            out.writeByte(LAYOUT_NONE);
+        } else if (layout.getClass() == HorizontalLayout.class) {
+            HorizontalLayout horizontal = (HorizontalLayout) layout;
+            out.writeByte(LAYOUT_HORIZONTAL);
+            out.writeFloat(horizontal.getSpacing());
+            out.writeByte(horizontal.getAlignment().ordinal());
+        } else if (layout.getClass() == VerticalLayout.class) {
+            VerticalLayout vertical = (VerticalLayout) layout;
+            out.writeByte(LAYOUT_VERTICAL);
+            out.writeFloat(vertical.getSpacing());
+            out.writeByte(vertical.getAlignment().ordinal());
+        } else if (layout.getClass() == GridLayout.class) {
+            GridLayout grid = (GridLayout) layout;
+            out.writeByte(LAYOUT_GRID);
+            out.writeInt(grid.getColumns());
+            out.writeInt(grid.getRows());
+            out.writeFloat(grid.getHSpacing());
+            out.writeFloat(grid.getVSpacing());
+            out.writeBoolean(grid.isAutoFlow());
+            out.writeFloat(grid.getCellWidth());
+            out.writeFloat(grid.getCellHeight());
+            out.writeBoolean(grid.isStretchCells());
+        } else if (layout.getClass() == FlexLayout.class) {
+            FlexLayout flex = (FlexLayout) layout;
+            out.writeByte(LAYOUT_FLEX);
+            out.writeByte(flex.getDirection().ordinal());
+            out.writeBoolean(flex.isWrap());
+            out.writeFloat(flex.getGap());
+            out.writeFloat(flex.getCrossGap());
+            out.writeByte(flex.getJustify().ordinal());
+            out.writeByte(flex.getAlignItems().ordinal());
+        } else {
+            throw new IllegalArgumentException("No snapshot encoding for " + layout.getClass().getName());
+        }
+    }
+
+    // Reading
+
+    /**
+     * Maps the snapshot file into memory and rebuilds its tree for the given window size.
+     */
+    public static UIContainer load(Path file, float windowWidth, float windowHeight) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, windowWidth, windowHeight);
+        }
+    }
+
+    /**
+     * Rebuilds the tree stored in {@code buffer}, starting at its current position.
+     * Layout runs only if the window size differs from the one the snapshot was taken
+     * at; a root that filled the old window is resized to the new one first.
+     */
+    public static UIContainer read(ByteBuffer buffer, float windowWidth, float windowHeight) {
+        if (buffer.remaining() < 14 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a UI snapshot");
+        }
+        int version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported UI snapshot version " + version);
+        }
+        float savedWidth = buffer.getFloat();
+        float savedHeight = buffer.getFloat();
+
+        Entry[] types = new Entry[buffer.getShort()];
+        for (int i = 0; i < types.length; i++) {
+            String name = readString(buffer);
+            types[i] = codecsByName.get(name);
+            if (types[i] == null) {
+                throw new IllegalArgumentException("No snapshot codec registered for " + name);
+            }
+        }
+        Style[] styles = new Style[buffer.getInt()];
+        for (int i = 0; i < styles.length; i++) {
+            styles[i] = readStyle(buffer);
+        }
+
+        UIBaseElement element = readElement(buffer, types, styles);
+        if (!(element instanceof UIContainer)) {
+            throw new IllegalArgumentException("Snapshot root is not a container");
+        }
+        UIContainer root = (UIContainer) element;
+
+        if (savedWidth != windowWidth || savedHeight != windowHeight) {
+            if (root.getWidth() == savedWidth && root.getHeight() == savedHeight) {
+                root.setWidth(windowWidth);
+                root.setHeight(windowHeight);
+            }
+            root.layout();
+        }
+        return root;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UIBaseElement readElement(ByteBuffer in, Entry[] types, Style[] styles) {
+        Entry entry = types[in.getShort()];
+        int flags = in.get();
+        float x = in.getFloat();
+        float y = in.getFloat();
+        float width = in.getFloat();
+        float height = in.getFloat();
+        String id = readString(in);
+        String group = readString(in);
+        Style style = styles[in.getInt()];
+        float naturalWidth = width;
+        float naturalHeight = height;
+        if ((flags & FLAG_NATURAL_SIZE) != 0) {
+            naturalWidth = in.getFloat();
+            naturalHeight = in.getFloat();
+        }
+
+        SnapshotCodec<UIBaseElement> codec = (SnapshotCodec<UIBaseElement>) entry.codec;
+        UIBaseElement element;
+        if ((flags & FLAG_FLEX_ITEM) != 0) {
+            float grow = in.getFloat();
+            float shrink = in.getFloat();
+            float basis = in.getFloat();
+            int alignSelf = in.get();
+            element = codec.read(in);
+            FlexLayout.Item.of(element).setGrow(grow).setShrink(shrink).setBasis(basis)
+                    .setAlignSelf(alignSelf >= 0 ? FlexLayout.Align.values()[alignSelf] : null);
+        } else {
+            element = codec.read(in);
+        }
+        // Restore the natural size first, then the laid-out bounds on top of it
+        element.setBounds(x, y, naturalWidth, naturalHeight);
+        element.arrange(x, y, width, height);
+        element.setVisible((flags & FLAG_VISIBLE) != 0);
+        element.setEnabled((flags & FLAG_ENABLED) != 0);
+        element.setAutoSize((flags & FLAG_AUTO_SIZE) != 0);
+        element.setId(id);
+        element.setGroup(group);
+        // Styles are shared in the table but mutable on elements
+        element.setStyle(style.copy());
+
+        if (element instanceof UIContainer) {
+            UIContainer container = (UIContainer) element;
+            container.setLayoutManager(readLayout(in));
+            int childCount = in.getInt();
+            if ((flags & FLAG_COMPACT) != 0) {
+                container.setCompactStore(true);
+            }
+            UIBaseElement[] children = new UIBaseElement[childCount];
+            for (int i = 0; i < childCount; i++) {
+                children[i] = readElement(in, types, styles);
+            }
+            container.addChildren(Arrays.asList(children));
+        }
+        codec.finish(element);
+        return element;
+    }
+
+    private static Style readStyle(ByteBuffer in) {
+        Style style = new Style();
+        style.setBackgroundColor(readColor(in));
+        style.setForegroundColor(readColor(in));
+        style.setBorderColor(readColor(in));
+        style.setBorderWidth(in.getFloat());
+        style.setBorderRadius(in.getFloat());
+        style.setPaddingTop(in.getFloat());
+        style.setPaddingRight(in.getFloat());
+        style.setPaddingBottom(in.getFloat());
+        style.setPaddingLeft(in.getFloat());
+        style.setMarginTop(in.getFloat());
+        style.setMarginRight(in.getFloat());
+        style.setMarginBottom(in.getFloat());
+        style.setMarginLeft(in.getFloat());
+        style.setFontFamily(readString(in));
+        style.setFontSize(in.getFloat());
+        int font = in.get();
+        style.setFontBold((font & 1) != 0);
+        style.setFontItalic((font & 2) != 0);
+        style.setOpacity(in.getFloat());
+        return style;
+    }
+
+    private static LayoutManager readLayout(ByteBuffer in) {
+        int kind = in.get();
+        return switch (kind) {
+            case LAYOUT_NONE -> null;
+            case LAYOUT_HORIZONTAL -> new HorizontalLayout(in.getFloat(), HorizontalLayout.Alignment.values()[in.get()]);
+            case LAYOUT_VERTICAL -> new VerticalLayout(in.getFloat(), VerticalLayout.Alignment.values()[in.get()]);
+            case LAYOUT_GRID -> {
+                GridLayout grid = new GridLayout(in.getInt(), in.getInt(), in.getFloat(), in.getFloat());
+                boolean autoFlow = in.get() != 0;
+                float cellWidth = in.getFloat();
+                float cellHeight = in.getFloat();
+                if (autoFlow) {
+                    grid.setAutoFlow(cellWidth, cellHeight);
+                }
+                grid.setStretchCells(in.get() != 0);
+                yield grid;
+            }
+            case LAYOUT_FLEX -> {
+                FlexLayout flex = new FlexLayout(FlexLayout.Direction.values()[in.get()]);
+                flex.setWrap(in.get() != 0);
+                flex.setGap(in.getFloat());
+                flex.setCrossGap(in.getFloat());
+                flex.setJustify(FlexLayout.Justify.values()[in.get()]);
+                flex.setAlignItems(FlexLayout.Align.values()[in.get()]);
+                yield flex;
+            }
+            default -> throw new IllegalArgumentException("Unknown layout kind " + kind);
+        };
+    }
+
+    // Primitives shared with codecs
+
+    /**
+     * Writes a nullable string as a length-prefixed UTF-8 sequence.
+     */
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeColor(DataOutputStream out, Color color) throws IOException {
+        out.writeInt(color.rgba());
+    }
+
+    public static Color readColor(ByteBuffer in) {
+        return Color.of(in.getInt());
+    }
+
+    // Built-in components
+
+    private static void registerBuiltins() {
+        register("UIContainer", UIContainer.class, new SnapshotCodec<>() {
+            @Override public void write(UIContainer element, DataOutputStream out) { }
+            @Override public UIContainer read(ByteBuffer in) { return new UIContainer(); }
+        });
+        register("UIPanel", UIPanel.class, new SnapshotCodec<>() {
+            @Override public void write(UIPanel element, DataOutputStream out) { }
+            @Override public UIPanel read(ByteBuffer in) { return new UIPanel(); }
+        });
+        register("UIScrollContainer", UIScrollContainer.class, new SnapshotCodec<>() {
+            @Override public void write(UIScrollContainer element, DataOutputStream out) { }
+            @Override public UIScrollContainer read(ByteBuffer in) { return new UIScrollContainer(); }
+            @Override public void finish(UIScrollContainer element) { element.updateContentSize(); }
+        });
+
+        register("UIButton", UIButton.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UIButton element, DataOutputStream out) throws IOException {
+                writeButton(out, element);
+            }
+
+            @Override
+            public UIButton read(ByteBuffer in) {
+                return readButton(in, new UIButton(readString(in)));
+            }
+        });
+        register("UIToggleButton", UIToggleButton.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UIToggleButton element, DataOutputStream out) throws IOException {
+                writeButton(out, element);
+                out.writeBoolean(element.isToggled());
+                writeColor(out, element.getToggledColor());
+            }
+
+            @Override
+            public UIToggleButton read(ByteBuffer in) {
+                UIToggleButton button = readButton(in, new UIToggleButton(readString(in)));
+                button.setToggled(in.get() != 0);
+                button.setToggledColor(readColor(in));
+                return button;
+            }
+        });
+        register("UICheckbox", UICheckbox.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UICheckbox element, DataOutputStream out) throws IOException {
+                writeString(out, element.getLabel());
+                out.writeBoolean(element.isChecked());
+            }
+
+            @Override
+            public UICheckbox read(ByteBuffer in) {
+                UICheckbox checkbox = new UICheckbox(readString(in));
+                checkbox.setChecked(in.get() != 0);
+                return checkbox;
+            }
+        });
+        register("UIRadioButton", UIRadioButton.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UIRadioButton element, DataOutputStream out) throws IOException {
+                writeString(out, element.getLabel());
+                writeString(out, element.getGroupName());
+                out.writeBoolean(element.isChecked());
+            }
+
+            @Override
+            public UIRadioButton read(ByteBuffer in) {
+                UIRadioButton radio = new UIRadioButton(readString(in), readString(in));
+                radio.setChecked(in.get() != 0);
+                return radio;
+            }
+        });
+        register("UIProgressBar", UIProgressBar.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UIProgressBar element, DataOutputStream out) throws IOException {
+                out.writeFloat(element.getProgress());
+                writeColor(out, element.getBarColor());
+            }
+
+            @Override
+            public UIProgressBar read(ByteBuffer in) {
+                UIProgressBar bar = new UIProgressBar();
+                bar.setProgress(in.getFloat());
+                bar.setBarColor(readColor(in));
+                return bar;
+            }
+        });
+        register("UISlider", UISlider.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UISlider element, DataOutputStream out) throws IOException {
+                out.writeByte(element.getOrientation().ordinal());
+                out.writeFloat(element.getMinValue());
+                out.writeFloat(element.getMaxValue());
+                out.writeFloat(element.getValue());
+                out.writeFloat(element.getStepSize());
+                out.writeBoolean(element.isIncrementEnabled());
+            }
+
+            @Override
+            public UISlider read(ByteBuffer in) {
+                UISlider slider = new UISlider(UISlider.Orientation.values()[in.get()]);
+                slider.setRange(in.getFloat(), in.getFloat());
+                slider.setValue(in.getFloat());
+                slider.setStepSize(in.getFloat());
+                slider.setIncrementEnabled(in.get() != 0);
+                return slider;
+            }
+        });
+
+        register("UIText", UIText.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UIText element, DataOutputStream out) throws IOException {
+                writeString(out, element.getText());
+                out.writeInt(element.getAlign());
+                out.writeByte(element.getOverflow().ordinal());
+                out.writeInt(element.getMaxLines());
+            }
+
+            @Override
+            public UIText read(ByteBuffer in) {
+                UIText text = new UIText(readString(in));
+                text.setAlign(in.getInt());
+                text.setOverflow(UIText.Overflow.values()[in.get()]);
+                text.setMaxLines(in.getInt());
+                return text;
+            }
+        });
+        register("UILabel", UILabel.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UILabel element, DataOutputStream out) throws IOException {
+                writeString(out, element.getText());
+                out.writeInt(element.getAlign());
+                out.writeByte(element.getOverflow().ordinal());
+                out.writeInt(element.getMaxLines());
+            }
+
+            @Override
+            public UILabel read(ByteBuffer in) {
+                UILabel label = new UILabel(readString(in));
+                label.setAlign(in.getInt());
+                label.setOverflow(UIText.Overflow.values()[in.get()]);
+                label.setMaxLines(in.getInt());
+                return label;
+            }
+        });
+        register("UITextField", UITextField.class, new SnapshotCodec<>() {
+            @Override
+            public void write(UITextField element, DataOutputStream out) throws IOException {
+                writeString(out, element.getText());
+                writeString(out, element.getPlaceholder());
+            }
+
+            @Override
+            public UITextField read(ByteBuffer in) {
+                UITextField field = new UITextField();
+                field.setText(readString(in));
+                field.setPlaceholder(readString(in));
+                return field;
+            }
+        });
+    }
+
+    private static void writeButton(DataOutputStream out, UIButton button) throws IOException {
+        writeString(out, button.getLabel());
+        writeColor(out, button.getNormalColor());
+        writeColor(out, button.getHoverColor());
+        writeColor(out, button.getPressedColor());
+    }
+
+    // The label has already been read by the caller to construct the button
+    private static <T extends UIButton> T readButton(ByteBuffer in, T button) {
+        button.setNormalColor(readColor(in));
+        button.setHoverColor(readColor(in));
+        button.setPressedColor(readColor(in));
+        return button;
+    }
+}
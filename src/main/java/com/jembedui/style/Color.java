@@ -2,40 +2,73 @@ package com.jembedui.style;
 
 /**
  * Represents an RGBA color.
+ * <p>
+ * Colors are stored as one packed {@code 0xRRGGBBAA} int with 8 bits per channel, the
+ * form {@link Style} and the renderer work with. Render code that picks colors every
+ * frame should keep packed ints, built once with {@link #pack}, and use the
+ * renderer's int overloads; {@link #of(int)} turns a packed color back into a shared
+ * instance where an object is needed, without allocating for colors already seen.
  */
-public class Color {
-    private final float r;
-    private final float g;
-    private final float b;
-    private final float a;
-    
+public final class Color {
+
+    private static final int INTERN_SIZE = 256;
+    private static final Color[] interned = new Color[INTERN_SIZE];
+
+    private final int rgba;
+
     public Color(float r, float g, float b, float a) {
-        this.r = clamp(r);
-        this.g = clamp(g);
-        this.b = clamp(b);
-        this.a = clamp(a);
+        this.rgba = pack(r, g, b, a);
     }
-    
+
     public Color(float r, float g, float b) {
         this(r, g, b, 1.0f);
     }
-    
+
     public Color(int rgba) {
-        this.r = ((rgba >> 24) & 0xFF) / 255.0f;
-        this.g = ((rgba >> 16) & 0xFF) / 255.0f;
-        this.b = ((rgba >> 8) & 0xFF) / 255.0f;
-        this.a = (rgba & 0xFF) / 255.0f;
+        this.rgba = rgba;
     }
-    
-    private float clamp(float value) {
-        return Math.max(0.0f, Math.min(1.0f, value));
+
+    /**
+     * Returns a color for {@code rgba}, reusing an earlier instance for the same value
+     * when one is still cached. Safe to call every frame.
+     */
+    public static Color of(int rgba) {
+        int slot = (rgba * 0x9E3779B9) >>> 24;
+        Color cached = interned[slot];
+        if (cached != null && cached.rgba == rgba) {
+            return cached;
+        }
+        // Benign race: a thread may miss another's entry and allocate its own
+        Color color = new Color(rgba);
+        interned[slot] = color;
+        return color;
     }
-    
-    public float r() { return r; }
-    public float g() { return g; }
-    public float b() { return b; }
-    public float a() { return a; }
-    
+
+    /**
+     * Packs channels in 0..1 into {@code 0xRRGGBBAA}, clamping out-of-range values.
+     */
+    public static int pack(float r, float g, float b, float a) {
+        return channel(r) << 24 | channel(g) << 16 | channel(b) << 8 | channel(a);
+    }
+
+    public static int pack(float r, float g, float b) {
+        return pack(r, g, b, 1.0f);
+    }
+
+    private static int channel(float value) {
+        return Math.round(Math.max(0.0f, Math.min(1.0f, value)) * 255);
+    }
+
+    /**
+     * Returns the color as {@code 0xRRGGBBAA}.
+     */
+    public int rgba() { return rgba; }
+
+    public float r() { return (rgba >>> 24) / 255.0f; }
+    public float g() { return ((rgba >>> 16) & 0xFF) / 255.0f; }
+    public float b() { return ((rgba >>> 8) & 0xFF) / 255.0f; }
+    public float a() { return (rgba & 0xFF) / 255.0f; }
+
     // Common colors
     public static final Color WHITE = new Color(1, 1, 1);
     public static final Color BLACK = new Color(0, 0, 0);
@@ -49,17 +82,41 @@ public class Color {
     public static final Color YELLOW = new Color(1, 1, 0);
     public static final Color CYAN = new Color(0, 1, 1);
     public static final Color MAGENTA = new Color(1, 0, 1);
-    
+
     public Color withAlpha(float alpha) {
-        return new Color(r, g, b, alpha);
+        return of((rgba & 0xFFFFFF00) | channel(alpha));
     }
-    
+
     public Color interpolate(Color other, float t) {
-        return new Color(
-            r + (other.r - r) * t,
-            g + (other.g - g) * t,
-            b + (other.b - b) * t,
-            a + (other.a - a) * t
-        );
+        return of(interpolate(rgba, other.rgba, t));
+    }
+
+    /**
+     * Blends two packed colors channel by channel; {@code t} of 0 gives {@code from}.
+     */
+    public static int interpolate(int from, int to, float t) {
+        int result = 0;
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            int a = (from >>> shift) & 0xFF;
+            int b = (to >>> shift) & 0xFF;
+            int mixed = Math.round(a + (b - a) * t);
+            result |= Math.max(0, Math.min(255, mixed)) << shift;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Color color && color.rgba == rgba;
+    }
+
+    @Override
+    public int hashCode() {
+        return rgba;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%08X", rgba);
     }
 }
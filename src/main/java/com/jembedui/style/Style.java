@@ -4,10 +4,10 @@ package com.jembedui.style;
  * Style properties for UI elements.
  */
 public class Style {
-    // Colors
-    private Color backgroundColor = Color.TRANSPARENT;
-    private Color foregroundColor = Color.WHITE;
-    private Color borderColor = Color.GRAY;
+    // Colors, packed as 0xRRGGBBAA
+    private int backgroundColor = Color.TRANSPARENT.rgba();
+    private int foregroundColor = Color.WHITE.rgba();
+    private int borderColor = Color.GRAY.rgba();
     
     // Dimensions
     private float borderWidth = 0;
@@ -34,14 +34,24 @@ public class Style {
     private float opacity = 1.0f;
     
     // Getters and setters
-    public Color getBackgroundColor() { return backgroundColor; }
-    public void setBackgroundColor(Color backgroundColor) { this.backgroundColor = backgroundColor; }
+    public Color getBackgroundColor() { return Color.of(backgroundColor); }
+    public void setBackgroundColor(Color backgroundColor) { this.backgroundColor = backgroundColor.rgba(); }
     
-    public Color getForegroundColor() { return foregroundColor; }
-    public void setForegroundColor(Color foregroundColor) { this.foregroundColor = foregroundColor; }
+    public Color getForegroundColor() { return Color.of(foregroundColor); }
+    public void setForegroundColor(Color foregroundColor) { this.foregroundColor = foregroundColor.rgba(); }
     
-    public Color getBorderColor() { return borderColor; }
-    public void setBorderColor(Color borderColor) { this.borderColor = borderColor; }
+    public Color getBorderColor() { return Color.of(borderColor); }
+    public void setBorderColor(Color borderColor) { this.borderColor = borderColor.rgba(); }
+    
+    // Packed 0xRRGGBBAA forms, for render code and the renderer's int overloads
+    public int getBackgroundRGBA() { return backgroundColor; }
+    public void setBackgroundRGBA(int rgba) { this.backgroundColor = rgba; }
+    
+    public int getForegroundRGBA() { return foregroundColor; }
+    public void setForegroundRGBA(int rgba) { this.foregroundColor = rgba; }
+    
+    public int getBorderRGBA() { return borderColor; }
+    public void setBorderRGBA(int rgba) { this.borderColor = rgba; }
     
     public float getBorderWidth() { return borderWidth; }
     public void setBorderWidth(float borderWidth) { this.borderWidth = borderWidth; }
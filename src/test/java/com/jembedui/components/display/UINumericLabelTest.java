@@ -0,0 +1,59 @@
+package com.jembedui.components.display;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class UINumericLabelTest {
+
+    private static final int WARMUP_UPDATES = 200_000;
+    private static final int MEASURED_UPDATES = 1_000_000;
+
+    @Test
+    void formatsPrecisionPaddingAndUnits() {
+        UINumericLabel label = new UINumericLabel(1, " rpm");
+        label.setValue(1234.56);
+        assertEquals("1234.6 rpm", label.getText());
+        label.setValue(-0.04);
+        assertEquals("0.0 rpm", label.getText());
+        label.setValue(-3);
+        assertEquals("-3.0 rpm", label.getText());
+        label.setValue(Double.NaN);
+        assertEquals("NaN rpm", label.getText());
+
+        label.setPrecision(3);
+        label.setMinIntegerDigits(4);
+        label.setUnits("°C");
+        label.setValue(12.0005);
+        assertEquals("0012.001°C", label.getText());
+    }
+
+    @Test
+    void setValueAllocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                   "Per-thread allocation counters are not available");
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Per-thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        // The first query allocates while the counter initializes
+        threads.getThreadAllocatedBytes(thread);
+
+        UINumericLabel label = new UINumericLabel(2, " V");
+        for (int i = 0; i < WARMUP_UPDATES; i++) {
+            label.setValue(i * 0.37);
+        }
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_UPDATES; i++) {
+            label.setValue(3000 + i * 0.013);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertEquals(0, allocated, "Bytes allocated across " + MEASURED_UPDATES + " updates");
+    }
+}